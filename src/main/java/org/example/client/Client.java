@@ -1,5 +1,7 @@
 package org.example.client;
 
+import org.example.client.exceptions.ServerBusyException;
+import org.example.client.utility.ClientSocketChannelIOManager;
 import org.example.client.utility.ScriptManager;
 import org.example.common.utility.PrintManager;
 
@@ -58,49 +60,103 @@ public class Client {
      */
     private static int attempts = 0;
 
+    /**
+     * Number of milliseconds to wait before the next reconnection attempt.
+     */
+    private static int reconnectionDelay = 5000;
+
     /**
      * Main entry point for the client application.
+     * Connects to the server again and again until a session ends in a way which does not call for reconnection.
      *
      * @param args Command line arguments (not used).
      */
     public static void main(String[] args) {
+        boolean finished;
+        do {
+            finished = connect();
+        } while (!finished);
+    }
+
+    /**
+     * Makes a single connection attempt and serves the session over the established connection.
+     * The connection is closed when the attempt or the session ends, stopping its heartbeats.
+     *
+     * @return true if the client is done, false if it has to connect again.
+     */
+    private static boolean connect() {
+        ClientSocketChannelIOManager socketChannelIOManager = null;
         try {
             if (!reconnectionMode) {
                 inputPort(); // Prompt user for host and port details
             } else {
-                Thread.sleep(5000); // Wait for 5 seconds before attempting reconnection
+                Thread.sleep(reconnectionDelay); // Wait before attempting reconnection
             }
 
             // Establish connection with the server
             SocketChannel clientChannel = SocketChannel.open(new InetSocketAddress(HOST, PORT));
-            PrintManager.printInfoMessage("Клиент подключен.");
-            attempts = 0;
+            socketChannelIOManager = new ClientSocketChannelIOManager(clientChannel);
             clientChannel.configureBlocking(false);
+            if (selector != null) selector.close();
             selector = Selector.open();
             clientChannel.register(selector, SelectionKey.OP_WRITE);
 
-            // Start the selector loop
-            ClientApplication.startSelectorLoop(selector, clientChannel, SCANNER, false);
+            // Negotiate the connection settings and start the selector loop
+            socketChannelIOManager.negotiate();
+            PrintManager.printInfoMessage("Клиент подключен.");
+            attempts = 0;
+            ClientApplication.startSelectorLoop(selector, socketChannelIOManager, SCANNER, false);
         } catch (ClassNotFoundException e) {
             PrintManager.printErr("Попытка сериализовать несериализуемый объект.");
         } catch (InterruptedException e) {
             PrintManager.printErr("Соединение было прервано во время бездействия. Перезапуск клиента.");
         } catch (UnresolvedAddressException e) {
             PrintManager.printErr("Сервер с этим хостом не найден. Попробуйте снова.");
-            main(args); // Restart the connection attempt
+            return false; // Restart the connection attempt
+        } catch (ServerBusyException e) {
+            PrintManager.printErr("Сервер перегружен. Повторное подключение через " + e.getRetryAfter() + " мс.");
+            reconnect(e.getRetryAfter());
+            return false;
         } catch (IOException e) {
             PrintManager.printErr("Сервер недоступен. Переподключение - попытка номер " + (attempts + 1));
-            reconnectionMode = true;
-            if (attempts == 5) {
-                PrintManager.printErr("Переподключение не удалось. Попробуйте подключиться позднее.");
-                System.exit(0);
-            }
-            attempts++;
-            ScriptManager.callStack.clear();
-            main(args); // Attempt reconnection
+            reconnect(5000);
+            return false;
         } catch (NoSuchElementException e) {
             PrintManager.printErr("Принудительное завершение работы.");
             System.exit(1);
+        } finally {
+            closeConnection(socketChannelIOManager);
+        }
+        return true;
+    }
+
+    /**
+     * Prepares the next connection attempt after a failed one, giving up after several attempts in a row.
+     *
+     * @param delay Number of milliseconds to wait before reconnecting.
+     */
+    private static void reconnect(int delay) {
+        reconnectionMode = true;
+        reconnectionDelay = delay;
+        if (attempts == 5) {
+            PrintManager.printErr("Переподключение не удалось. Попробуйте подключиться позднее.");
+            System.exit(0);
+        }
+        attempts++;
+        ScriptManager.callStack.clear();
+    }
+
+    /**
+     * Closes a connection which is no longer used, reporting a failure instead of propagating it.
+     *
+     * @param socketChannelIOManager The manager of the connection, or null if no connection has been established.
+     */
+    private static void closeConnection(ClientSocketChannelIOManager socketChannelIOManager) {
+        if (socketChannelIOManager == null) return;
+        try {
+            socketChannelIOManager.close();
+        } catch (IOException e) {
+            PrintManager.printErr("Ошибка при закрытии соединения: " + e.getMessage());
         }
     }
 
@@ -5,6 +5,7 @@ import org.example.client.commandCarrier.CommandValidator;
 import org.example.client.commandCarrier.SendCommand;
 import org.example.client.utility.ClientSocketChannelIOManager;
 import org.example.client.utility.RequestMaker;
+import org.example.client.utility.ResponseCache;
 import org.example.client.utility.ScriptManager;
 import org.example.common.exceptions.InvalidCommandArgument;
 import org.example.common.utility.PrintManager;
@@ -14,8 +15,11 @@ import org.example.common.utility.Response;
 import java.io.IOException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
-import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
 
@@ -31,37 +35,70 @@ import java.util.Set;
 public class ClientApplication {
 
     /**
-     * Scanner for reading commands from a script.
+     * Maximum number of requests sent ahead without waiting for their responses
+     * in script mode and while script batches are being sent.
+     * In interactive mode every response is awaited before the next command is read.
      */
-    private static Scanner scriptScanner;
+    private static final int SCRIPT_WINDOW = 64;
+
+    /**
+     * Maximum number of script commands sent to the server in one batch request.
+     */
+    private static final int SCRIPT_BATCH_SIZE = 1000;
+
+    /**
+     * Batch requests of the current script which have not been sent yet.
+     */
+    private static final Deque<Request> pendingBatches = new ArrayDeque<>();
 
     /**
      * Creator for generating requests to be sent to the server.
      */
     private static final RequestMaker requestMaker = new RequestMaker();
 
+    /**
+     * Correlation identifiers of the requests sent to the server and not answered yet, in sending order.
+     */
+    private static final Deque<Long> inFlightRequests = new ArrayDeque<>();
+
+    /**
+     * Cache of the responses of read-only commands.
+     */
+    private static final ResponseCache responseCache = new ResponseCache();
+
+    /**
+     * Flag indicating that the current input source has no more commands.
+     */
+    private static boolean inputExhausted = false;
+
     /**
      * Starts an infinite loop for the selector.
+     * The loop ends once the input has no more commands and every sent request has been answered.
      *
      * @param selector The Selector object for monitoring channel states.
-     * @param channel The SocketChannel object for network data transmission.
+     * @param socketChannelIOManager The input/output manager of the connection to the server.
      * @param scanner The Scanner object for reading user console input.
      * @param scriptMode Flag indicating whether the application is running in script mode.
      * @throws IOException if an I/O error occurs when working with channels or sockets.
      * @throws ClassNotFoundException if a class is not found during deserialization.
      * @throws InterruptedException if a thread interruption occurs.
      */
-    static void startSelectorLoop(Selector selector, SocketChannel channel, Scanner scanner, boolean scriptMode) throws IOException, ClassNotFoundException, InterruptedException {
+    static void startSelectorLoop(Selector selector, ClientSocketChannelIOManager socketChannelIOManager, Scanner scanner, boolean scriptMode) throws IOException, ClassNotFoundException, InterruptedException {
+        inputExhausted = false;
+        updateInterest(selector, socketChannelIOManager, scriptMode);
         do {
             selector.select();
-        } while (startIteratorLoop(selector, channel, scanner, scriptMode));
+        } while (startIteratorLoop(selector, socketChannelIOManager, scanner, scriptMode));
+        inputExhausted = false;
     }
 
     /**
      * Starts an iterative loop for processing ready keys from the selector.
+     * Responses are matched to outstanding requests by their correlation identifiers,
+     * and new commands are sent while the window of outstanding requests is not full.
      *
      * @param selector The Selector object for monitoring channel states.
-     * @param channel The SocketChannel object for network data transmission.
+     * @param socketChannelIOManager The input/output manager of the connection to the server.
      * @param scanner The Scanner object for reading user console input.
      * @param scriptMode Flag indicating whether the application is running in script mode.
      * @return true if the loop should continue, false if it should stop.
@@ -69,40 +106,48 @@ public class ClientApplication {
      * @throws ClassNotFoundException if a class is not found during deserialization.
      * @throws InterruptedException if a thread interruption occurs.
      */
-    private static boolean startIteratorLoop(Selector selector, SocketChannel channel, Scanner scanner, boolean scriptMode) throws IOException, ClassNotFoundException, InterruptedException {
+    private static boolean startIteratorLoop(Selector selector, ClientSocketChannelIOManager socketChannelIOManager, Scanner scanner, boolean scriptMode) throws IOException, ClassNotFoundException, InterruptedException {
         Set<SelectionKey> readyKeys = selector.selectedKeys();
         Iterator<SelectionKey> iterator = readyKeys.iterator();
         while (iterator.hasNext()) {
             SelectionKey key = iterator.next();
             iterator.remove();
             if (key.isReadable()) {
-                SocketChannel clientChannel = (SocketChannel) key.channel();
-                ClientSocketChannelIOManager socketChannelIOManager = new ClientSocketChannelIOManager(clientChannel);
-                Response response = (Response) socketChannelIOManager.receive();
-                PrintManager.printInfoMessage(response.getData());
-                clientChannel.register(selector, SelectionKey.OP_WRITE);
-            } else if (key.isWritable()) {
+                receiveResponses(socketChannelIOManager);
+                if (inputExhausted && inFlightRequests.isEmpty()) return false;
+                updateInterest(selector, socketChannelIOManager, scriptMode);
+            }
+            if (key.isValid() && key.isWritable() && canSend(scriptMode)) {
+                if (!pendingBatches.isEmpty()) {
+                    sendRequest(socketChannelIOManager, pendingBatches.poll());
+                    updateInterest(selector, socketChannelIOManager, scriptMode);
+                    continue;
+                }
                 try {
                     SendCommand sendCommand = CommandReader.readCommand(scanner, scriptMode);
-                    if (sendCommand == null) return false;
+                    if (sendCommand == null) {
+                        inputExhausted = true;
+                        if (inFlightRequests.isEmpty()) return false;
+                        updateInterest(selector, socketChannelIOManager, scriptMode);
+                        continue;
+                    }
                     if (sendCommand.getCommandName().equalsIgnoreCase("execute_script")) {
                         CommandValidator.validateAmountOfArgs(sendCommand.getCommandArgs(), 1);
                         ScriptManager scriptManager = new ScriptManager(sendCommand);
-                        scriptScanner = new Scanner(scriptManager.getPath());
-                        SocketChannel client = (SocketChannel) key.channel();
-                        ClientSocketChannelIOManager socketChannelIOManager = new ClientSocketChannelIOManager(client);
-                        Request request = new Request("execute_script");
-                        socketChannelIOManager.send(request);
-                        client.register(selector, SelectionKey.OP_READ);
-                        startSelectorLoop(selector, channel, scriptScanner, true);
-                        scriptManager.stopScriptReading();
-                        startSelectorLoop(selector, channel, scanner, false);
+                        List<Request> scriptRequests;
+                        try {
+                            scriptRequests = requestMaker.createScriptRequests(scriptManager);
+                        } finally {
+                            scriptManager.stopScriptReading();
+                        }
+                        executeScript(selector, socketChannelIOManager, scriptRequests);
+                        updateInterest(selector, socketChannelIOManager, scriptMode);
+                        continue;
                     }
                     Request request = requestMaker.createCommandRequest(sendCommand, scanner, scriptMode);
-                    SocketChannel client = (SocketChannel) key.channel();
-                    ClientSocketChannelIOManager socketChannelIOManager = new ClientSocketChannelIOManager(client);
                     if (sendCommand.getCommandName().equalsIgnoreCase("exit") && sendCommand.getCommandArgs().length == 0) {
                         try {
+                            drainResponses(selector, socketChannelIOManager);
                             socketChannelIOManager.send(request);
                             PrintManager.printInfoMessage("Прекращение работы.");
                             System.exit(0);
@@ -113,8 +158,16 @@ public class ClientApplication {
                         }
                     } else {
                         if (request == null) throw new NullPointerException("");
-                        socketChannelIOManager.send(request);
-                        client.register(selector, SelectionKey.OP_READ);
+                        List<Response> cached = responseCache.getPermanent(request);
+                        if (cached != null) {
+                            for (Response response : cached) {
+                                PrintManager.printInfoMessage(response.getData());
+                            }
+                            continue;
+                        }
+                        responseCache.prepare(request);
+                        sendRequest(socketChannelIOManager, request);
+                        updateInterest(selector, socketChannelIOManager, scriptMode);
                     }
                 } catch (NullPointerException | IllegalArgumentException | InvalidCommandArgument e) {
                     if (!e.getMessage().isEmpty()) {
@@ -125,4 +178,133 @@ public class ClientApplication {
         }
         return true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Splits the requests of a script into batch requests, which are then sent as the window allows.
+     * If the script ends with the "exit" command, all batches are sent within the window and answered
+     * before the client terminates.
+     *
+     * @param selector The Selector object for monitoring channel states.
+     * @param socketChannelIOManager The input/output manager of the connection to the server.
+     * @param scriptRequests Requests of the script commands in script order.
+     * @throws IOException if an I/O error occurs while sending the requests.
+     * @throws ClassNotFoundException if a class is not found during deserialization.
+     */
+    private static void executeScript(Selector selector, ClientSocketChannelIOManager socketChannelIOManager, List<Request> scriptRequests) throws IOException, ClassNotFoundException {
+        Request exitRequest = null;
+        if (!scriptRequests.isEmpty() && scriptRequests.get(scriptRequests.size() - 1).getCommandName().equals("exit")) {
+            exitRequest = scriptRequests.remove(scriptRequests.size() - 1);
+        }
+        for (int from = 0; from < scriptRequests.size(); from += SCRIPT_BATCH_SIZE) {
+            int to = Math.min(from + SCRIPT_BATCH_SIZE, scriptRequests.size());
+            pendingBatches.add(new Request("execute_script", new ArrayList<>(scriptRequests.subList(from, to))));
+        }
+        if (exitRequest != null) {
+            while (!pendingBatches.isEmpty()) {
+                awaitResponses(selector, socketChannelIOManager, SCRIPT_WINDOW - 1);
+                sendRequest(socketChannelIOManager, pendingBatches.poll());
+            }
+            drainResponses(selector, socketChannelIOManager);
+            socketChannelIOManager.send(exitRequest);
+            PrintManager.printInfoMessage("Прекращение работы.");
+            System.exit(0);
+        }
+    }
+
+    /**
+     * Sends a request and registers it as outstanding.
+     * The responses read while the request was being written are printed at once,
+     * because they have already been taken from the channel and will not wake the selector.
+     *
+     * @param socketChannelIOManager The input/output manager of the connection to the server.
+     * @param request The request to send.
+     * @throws IOException if an I/O error occurs while sending the request.
+     * @throws ClassNotFoundException if a class is not found during deserialization.
+     */
+    private static void sendRequest(ClientSocketChannelIOManager socketChannelIOManager, Request request) throws IOException, ClassNotFoundException {
+        socketChannelIOManager.send(request);
+        inFlightRequests.add(request.getRequestId());
+        responseCache.track(request);
+        receiveResponses(socketChannelIOManager);
+    }
+
+    /**
+     * Prints every response that has arrived completely and removes the requests it answers from the outstanding ones.
+     * Chunks of a streamed response are printed as they arrive; the request stays outstanding until its last chunk.
+     * A response confirming a cached one is replaced by the cached chunks.
+     *
+     * @param socketChannelIOManager The input/output manager of the connection to the server.
+     * @throws IOException if an I/O error occurs while receiving responses.
+     * @throws ClassNotFoundException if a class is not found during deserialization.
+     */
+    private static void receiveResponses(ClientSocketChannelIOManager socketChannelIOManager) throws IOException, ClassNotFoundException {
+        Response response;
+        while ((response = (Response) socketChannelIOManager.receive()) != null) {
+            // Responses normally come in sending order, but tagged ones may be answered out of it
+            if (!response.isPartial() && !inFlightRequests.remove(response.getRequestId())) {
+                PrintManager.printErr("Получен ответ на неизвестный запрос " + response.getRequestId() + ".");
+            }
+            for (Response printed : responseCache.accept(response)) {
+                PrintManager.printInfoMessage(printed.getData());
+            }
+        }
+    }
+
+    /**
+     * Waits until every outstanding request has been answered.
+     *
+     * @param selector The Selector object for monitoring channel states.
+     * @param socketChannelIOManager The input/output manager of the connection to the server.
+     * @throws IOException if an I/O error occurs while receiving responses.
+     * @throws ClassNotFoundException if a class is not found during deserialization.
+     */
+    private static void drainResponses(Selector selector, ClientSocketChannelIOManager socketChannelIOManager) throws IOException, ClassNotFoundException {
+        awaitResponses(selector, socketChannelIOManager, 0);
+    }
+
+    /**
+     * Waits until no more than the given number of requests are outstanding.
+     *
+     * @param selector The Selector object for monitoring channel states.
+     * @param socketChannelIOManager The input/output manager of the connection to the server.
+     * @param maxInFlight The number of outstanding requests to wait for.
+     * @throws IOException if an I/O error occurs while receiving responses.
+     * @throws ClassNotFoundException if a class is not found during deserialization.
+     */
+    private static void awaitResponses(Selector selector, ClientSocketChannelIOManager socketChannelIOManager, int maxInFlight) throws IOException, ClassNotFoundException {
+        if (inFlightRequests.size() <= maxInFlight) return;
+        socketChannelIOManager.getChannel().keyFor(selector).interestOps(SelectionKey.OP_READ);
+        // Responses read while writing are already taken from the channel, so they are handled before waiting
+        receiveResponses(socketChannelIOManager);
+        while (inFlightRequests.size() > maxInFlight) {
+            selector.select();
+            selector.selectedKeys().clear();
+            receiveResponses(socketChannelIOManager);
+        }
+    }
+
+    /**
+     * Checks whether another request may be sent before the outstanding ones are answered.
+     *
+     * @param scriptMode Flag indicating whether the application is running in script mode.
+     * @return true if a script batch is waiting and the window is not full,
+     * or if the window is not full and the input is not exhausted.
+     */
+    private static boolean canSend(boolean scriptMode) {
+        if (!pendingBatches.isEmpty()) return inFlightRequests.size() < SCRIPT_WINDOW;
+        return !inputExhausted && inFlightRequests.size() < (scriptMode ? SCRIPT_WINDOW : 1);
+    }
+
+    /**
+     * Registers interest in reading while requests are outstanding and in writing while more may be sent.
+     *
+     * @param selector The Selector object for monitoring channel states.
+     * @param socketChannelIOManager The input/output manager of the connection to the server.
+     * @param scriptMode Flag indicating whether the application is running in script mode.
+     */
+    private static void updateInterest(Selector selector, ClientSocketChannelIOManager socketChannelIOManager, boolean scriptMode) {
+        int interest = SelectionKey.OP_READ;
+        if (canSend(scriptMode)) interest |= SelectionKey.OP_WRITE;
+        socketChannelIOManager.getChannel().keyFor(selector).interestOps(interest);
+    }
+}
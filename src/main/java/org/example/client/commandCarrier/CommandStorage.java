@@ -19,6 +19,9 @@ import java.util.Set;
  *   <li><font color="AQUA">{@code COMMANDS_WITH_HUMANBEING_ID_KEY_ARGS}</font>: Commands that accept both ID and HumanBeing as arguments.</li>
  *   <li><font color="AQUA">{@code COMMANDS_WITH_HUMANBEING_KEY_ARGS}</font>: Commands that accept a combination of key and HumanBeing as arguments.</li>
  *   <li><font color="AQUA">{@code SCRIPT_ARGUMENT_COMMAND}</font>: Commands that accept a script as an argument.</li>
+ *   <li><font color="AQUA">{@code COMMANDS_WITH_VERSION_ARG}</font>: Commands that accept a collection version as an argument.</li>
+ *   <li><font color="AQUA">{@code CACHEABLE_COMMANDS}</font>: Read-only commands whose responses are cached until the collection changes.</li>
+ *   <li><font color="AQUA">{@code PERMANENT_COMMANDS}</font>: Commands whose responses are cached for the whole session.</li>
  * </ul></p>
  *
  * <p>Using these pre-defined sets allows for quick lookup and categorization of commands during runtime,
@@ -60,6 +63,21 @@ public class CommandStorage {
      */
     public static final Set<String> SCRIPT_ARGUMENT_COMMAND = new HashSet<>();
 
+    /**
+     * Set of commands that accept a collection version as an argument.
+     */
+    public static final Set<String> COMMANDS_WITH_VERSION_ARG = new HashSet<>();
+
+    /**
+     * Set of read-only commands whose responses are cached until the collection changes.
+     */
+    public static final Set<String> CACHEABLE_COMMANDS = new HashSet<>();
+
+    /**
+     * Set of commands whose responses never change while the server runs and are cached for the whole session.
+     */
+    public static final Set<String> PERMANENT_COMMANDS = new HashSet<>();
+
     static {
         // Static initializer block to populate the sets with predefined command names
         Collections.addAll(COMMANDS_WITHOUT_ARGS,
@@ -86,5 +104,14 @@ public class CommandStorage {
         Collections.addAll(COMMANDS_WITH_HUMANBEING_ID_KEY_ARGS,
                 "update");
         SCRIPT_ARGUMENT_COMMAND.add("execute_script");
+        COMMANDS_WITH_VERSION_ARG.add("show_since");
+        Collections.addAll(CACHEABLE_COMMANDS,
+                "info",
+                "show",
+                "print_ascending",
+                "print_descending",
+                "print_field_descending_car"
+        );
+        PERMANENT_COMMANDS.add("help");
     }
 }
@@ -0,0 +1,38 @@
+package org.example.client.exceptions;
+
+import java.io.IOException;
+
+/**
+ * This class represents an exception that occurs when an overloaded server rejects the connection.
+ * It carries the delay suggested by the server, after which the client may try to connect again.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class ServerBusyException extends IOException {
+
+    /**
+     * Number of milliseconds after which the client may reconnect.
+     */
+    private final int retryAfter;
+
+    /**
+     * Constructs a ServerBusyException with the delay suggested by the server.
+     *
+     * @param retryAfter Number of milliseconds after which the client may reconnect.
+     */
+    public ServerBusyException(int retryAfter) {
+        super("Сервер перегружен.");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Retrieves the delay suggested by the server.
+     *
+     * @return Number of milliseconds to wait before reconnecting.
+     */
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+}
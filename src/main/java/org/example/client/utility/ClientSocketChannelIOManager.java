@@ -1,16 +1,41 @@
 package org.example.client.utility;
 
+import org.example.client.exceptions.ServerBusyException;
+import org.example.common.Codec;
 import org.example.common.DataManager;
 import org.example.common.InputOutputManager;
-import org.example.common.utility.SerializationManager;
+import org.example.common.utility.BufferPool;
+import org.example.common.utility.CodecManager;
+import org.example.common.utility.CompressionManager;
+import org.example.common.utility.Frame;
+import org.example.common.utility.FrameReader;
+import org.example.common.utility.Handshake;
+import org.example.common.utility.PrintManager;
+import org.example.common.utility.Request;
+import org.example.common.utility.Response;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class manages input/output operations through a network socket channel.
  * This class allows sending and receiving data to/from the server.
+ * A single instance serves the whole connection, keeping its object streams alive between requests.
+ * Every message is transmitted as a length-prefixed {@link Frame}, so responses of any size are received intact.
+ * The connection settings are negotiated with the server by {@link #negotiate()} before the first request,
+ * including the wire format, which can be chosen with the CODEC environment variable (binary by default).
+ * While the connection is idle, a background thread sends heartbeats so that the server does not consider it dead.
+ * While a request is waiting for room in the socket buffer, the responses arriving meanwhile are read and kept,
+ * so that the client and the server never wait for each other to read with both socket buffers full.
  *
  * @author Aerosolus
  * @version 1.0
@@ -18,11 +43,56 @@ import java.nio.channels.SocketChannel;
  */
 public class ClientSocketChannelIOManager implements InputOutputManager {
 
+    /**
+     * Wire format offered to the server, see {@link CodecManager}.
+     */
+    private static final byte PREFERRED_CODEC = readPreferredCodec();
+
     /**
      * The socket channel used for communication with the server.
      */
     private final SocketChannel channel;
 
+    /**
+     * Wire format of the connection, agreed on during the negotiation.
+     */
+    private Codec codec;
+
+    /**
+     * Reader reassembling frames from the received bytes.
+     */
+    private final FrameReader frameReader = new FrameReader();
+
+    /**
+     * Compression settings of the connection.
+     */
+    private final CompressionManager compressionManager = new CompressionManager();
+
+    /**
+     * Correlation identifier assigned to the next request sent over the connection.
+     */
+    private long nextRequestId = 1;
+
+    /**
+     * Selector used to wait until the channel is ready. Opened on the first wait.
+     */
+    private Selector waitSelector;
+
+    /**
+     * The {@link System#nanoTime()} of the last frame written to the channel.
+     */
+    private volatile long lastWrite = System.nanoTime();
+
+    /**
+     * Executor sending heartbeats while the connection is idle, or null if the server expects none.
+     */
+    private ScheduledExecutorService heartbeatExecutor;
+
+    /**
+     * Frames read while waiting to write, with their payloads copied, in arrival order.
+     */
+    private final Queue<Frame> receivedFrames = new ArrayDeque<>();
+
     /**
      * Constructs a ClientSocketChannelIOManager instance.
      *
@@ -32,29 +102,184 @@ public class ClientSocketChannelIOManager implements InputOutputManager {
         this.channel = channel;
     }
 
+    /**
+     * Reads the wire format to offer from the CODEC environment variable.
+     *
+     * @return The identifier of the format, binary if the variable is not set or names an unknown format.
+     */
+    private static byte readPreferredCodec() {
+        String value = System.getenv("CODEC");
+        if (value == null || value.isBlank()) return CodecManager.BINARY;
+        byte codec = CodecManager.forName(value);
+        if (codec >= 0) return codec;
+        PrintManager.printErr("Неизвестный формат сообщений: " + value + ". Используется формат binary.");
+        return CodecManager.BINARY;
+    }
+
+    /**
+     * Retrieves the socket channel used for communication with the server.
+     *
+     * @return The managed SocketChannel.
+     */
+    public SocketChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Negotiates the connection settings with the server.
+     * Offers payload compression and the preferred wire format and waits for the answer of the server.
+     * Starts sending heartbeats if the server expects them.
+     *
+     * @throws ServerBusyException if the server is overloaded and rejects the connection.
+     * @throws IOException if the server closes the connection or answers with a corrupted handshake.
+     */
+    public void negotiate() throws IOException {
+        write(new Handshake(Handshake.OPTION_COMPRESSION, PREFERRED_CODEC).encode());
+        Frame frame;
+        boolean open = true;
+        while ((frame = frameReader.nextFrame()) == null) {
+            if (!open) throw new EOFException("Сервер закрыл соединение.");
+            await(SelectionKey.OP_READ);
+            open = frameReader.readFrom(channel);
+        }
+        Handshake handshake = Handshake.decode(frame);
+        if (handshake.isRejected()) throw new ServerBusyException(handshake.getRetryAfter());
+        compressionManager.setEnabled(handshake.isCompressionEnabled());
+        codec = CodecManager.create(handshake.getCodec());
+        if (handshake.getHeartbeatInterval() > 0) startHeartbeats(handshake.getHeartbeatInterval());
+    }
+
+    /**
+     * Starts a background thread sending a heartbeat whenever nothing has been written for the given interval.
+     * The thread stops once the channel is closed.
+     *
+     * @param interval Number of milliseconds between heartbeats.
+     */
+    private void startHeartbeats(int interval) {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(interval);
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatExecutor.scheduleAtFixedRate(() -> {
+            try {
+                if (System.nanoTime() - lastWrite >= intervalNanos) {
+                    write(Frame.encode(Frame.FLAG_HEARTBEAT, ByteBuffer.allocate(0)));
+                }
+            } catch (IOException e) {
+                // The main loop notices the broken connection by itself
+                heartbeatExecutor.shutdown();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * Sends data to the server.
+     * A request is tagged with the next correlation identifier of the connection before it is serialized.
+     * Keeps writing until the whole frame has been accepted by the channel.
      *
      * @param data The DataManager object to be sent.
      * @throws IOException if an I/O error occurs while sending data to the server.
      */
     @Override
     public void send(DataManager data) throws IOException {
-        ByteBuffer buffer = SerializationManager.serializeRequest(data);
-        channel.write(buffer);
+        if (data instanceof Request request) request.setRequestId(nextRequestId++);
+        write(compressionManager.encode(codec.encode(data)));
+    }
+
+    /**
+     * Writes an encoded frame, waiting until the channel has accepted all of it, and returns its buffer to the pool.
+     * While the channel accepts nothing, the frames arriving from the server are read and kept for {@link #receive()},
+     * so that the server is never blocked writing responses the client does not read.
+     * Frames written by the heartbeat thread and by the main thread never interleave.
+     *
+     * @param frame The encoded frame.
+     * @throws IOException if an I/O error occurs while writing to the channel.
+     */
+    private synchronized void write(ByteBuffer frame) throws IOException {
+        while (frame.hasRemaining()) {
+            if (channel.write(frame) == 0 && (await(SelectionKey.OP_READ | SelectionKey.OP_WRITE) & SelectionKey.OP_READ) != 0) {
+                readFrames();
+            }
+        }
+        BufferPool.release(frame);
+        lastWrite = System.nanoTime();
+    }
+
+    /**
+     * Reads the bytes available on the channel and keeps copies of the complete frames.
+     *
+     * @throws IOException if the server has closed the connection or an I/O error occurs.
+     */
+    private void readFrames() throws IOException {
+        if (!frameReader.readFrom(channel)) throw new EOFException("Сервер закрыл соединение.");
+        Frame frame;
+        while ((frame = frameReader.nextFrame()) != null) {
+            ByteBuffer payload = ByteBuffer.allocate(frame.getPayload().remaining()).put(frame.getPayload()).flip();
+            receivedFrames.add(new Frame(frame.getFlags(), payload));
+        }
     }
 
     /**
      * Receives data from the server.
+     * Returns the frames kept while writing first, then reads the bytes available on the channel
+     * and returns the next response if its frame is complete.
      *
-     * @return A DataManager object received from the server.
+     * @return A DataManager object received from the server, or null if the response has not arrived completely yet.
      * @throws IOException if an I/O error occurs while receiving data from the server.
      * @throws ClassNotFoundException if the received data cannot be deserialized.
      */
     @Override
-    public DataManager receive() throws IOException, ClassNotFoundException {
-        ByteBuffer readBuffer = ByteBuffer.allocate(channel.socket().getReceiveBufferSize());
-        channel.read(readBuffer);
-        return SerializationManager.deSerializeResponse(readBuffer.array());
+    public synchronized DataManager receive() throws IOException, ClassNotFoundException {
+        Frame frame = receivedFrames.poll();
+        if (frame == null) frame = frameReader.nextFrame();
+        if (frame == null) {
+            if (!frameReader.readFrom(channel)) throw new EOFException("Сервер закрыл соединение.");
+            frame = frameReader.nextFrame();
+            if (frame == null) return null;
+        }
+        return (Response) codec.decode(compressionManager.decode(frame));
+    }
+
+    /**
+     * Waits until the channel is ready for some of the given operations.
+     *
+     * @param ops The set of operations to wait for.
+     * @return The set of operations the channel is ready for.
+     * @throws IOException if an I/O error occurs while waiting.
+     */
+    private int await(int ops) throws IOException {
+        SelectionKey key;
+        if (waitSelector == null) {
+            waitSelector = Selector.open();
+            key = channel.register(waitSelector, ops);
+        } else {
+            key = channel.keyFor(waitSelector);
+            key.interestOps(ops);
+        }
+        waitSelector.select();
+        int readyOps = waitSelector.selectedKeys().contains(key) ? key.readyOps() : 0;
+        waitSelector.selectedKeys().clear();
+        return readyOps;
+    }
+
+    /**
+     * Closes the connection: stops the heartbeats and closes the channel and the wait selector,
+     * releasing the pooled buffers. Called once the connection is given up, before reconnecting.
+     * Closing an already closed connection does nothing.
+     *
+     * @throws IOException if an I/O error occurs while closing the channel.
+     */
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) return;
+        if (heartbeatExecutor != null) heartbeatExecutor.shutdownNow();
+        compressionManager.close();
+        frameReader.release();
+        try {
+            if (waitSelector != null) waitSelector.close();
+        } finally {
+            channel.close();
+        }
     }
 }
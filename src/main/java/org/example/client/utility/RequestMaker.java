@@ -1,5 +1,6 @@
 package org.example.client.utility;
 
+import org.example.client.commandCarrier.CommandReader;
 import org.example.client.commandCarrier.CommandStorage;
 import org.example.client.commandCarrier.CommandValidator;
 import org.example.client.commandCarrier.SendCommand;
@@ -9,6 +10,9 @@ import org.example.common.exceptions.InvalidCommandArgument;
 import org.example.common.utility.PrintManager;
 import org.example.common.utility.Request;
 
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -37,6 +41,8 @@ public class RequestMaker {
             request = createRequestWithoutArgs(command);
         } else if (CommandStorage.COMMANDS_WITH_KEY_ARG.contains(name)) {
             request = createRequestWithKey(command);
+        } else if (CommandStorage.COMMANDS_WITH_VERSION_ARG.contains(name)) {
+            request = createRequestWithVersion(command);
         } else if (CommandStorage.COMMANDS_WITH_HUMANBEING_ARG.contains(name)) {
             request = createRequestWithHumanBeing(command, scanner, scriptMode);
         } else if (CommandStorage.COMMANDS_WITH_HUMANBEING_KEY_ARGS.contains(name)) {
@@ -51,6 +57,60 @@ public class RequestMaker {
         return request;
     }
 
+    /**
+     * Parses a whole script into the requests of its commands, so that they can be executed on the server as one batch.
+     * Nested scripts are expanded in place. Invalid commands are reported and skipped.
+     * Parsing stops at the "exit" command, whose request is added as the last one.
+     *
+     * @param scriptManager The ScriptManager of the script to parse.
+     * @return List of requests in script order.
+     * @throws IllegalArgumentException if the script or one of the nested scripts cannot be read.
+     */
+    public List<Request> createScriptRequests(ScriptManager scriptManager) throws IllegalArgumentException {
+        List<Request> requests = new ArrayList<>();
+        appendScriptRequests(scriptManager, requests);
+        return requests;
+    }
+
+    /**
+     * Appends the requests of a script's commands to the given list.
+     *
+     * @param scriptManager The ScriptManager of the script to parse.
+     * @param requests The list receiving the requests.
+     * @return true if the script contained the "exit" command, false otherwise.
+     * @throws IllegalArgumentException if the script or one of the nested scripts cannot be read.
+     */
+    private boolean appendScriptRequests(ScriptManager scriptManager, List<Request> requests) throws IllegalArgumentException {
+        Scanner scriptScanner;
+        try {
+            scriptScanner = new Scanner(scriptManager.getPath());
+        } catch (FileNotFoundException e) {
+            throw new IllegalArgumentException("Проблема при вызове скрипта. Проверьте данные на верность.");
+        }
+        try (scriptScanner) {
+            SendCommand sendCommand;
+            while ((sendCommand = CommandReader.readCommand(scriptScanner, true)) != null) {
+                try {
+                    if (CommandStorage.SCRIPT_ARGUMENT_COMMAND.contains(sendCommand.getCommandName())) {
+                        CommandValidator.validateAmountOfArgs(sendCommand.getCommandArgs(), 1);
+                        ScriptManager nestedScriptManager = new ScriptManager(sendCommand);
+                        boolean exitReached = appendScriptRequests(nestedScriptManager, requests);
+                        nestedScriptManager.finishScriptReading();
+                        if (exitReached) return true;
+                        continue;
+                    }
+                    Request request = createCommandRequest(sendCommand, scriptScanner, true);
+                    if (request == null) continue;
+                    requests.add(request);
+                    if (sendCommand.getCommandName().equals("exit")) return true;
+                } catch (NullPointerException | InvalidCommandArgument e) {
+                    PrintManager.printErr(e.getMessage());
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Creates a request without arguments.
      *
@@ -67,6 +127,31 @@ public class RequestMaker {
         }
     }
 
+    /**
+     * Creates a request with a collection version argument.
+     *
+     * @param command The SendCommand object representing the command.
+     * @return The created Request object, or null if the argument is invalid.
+     */
+    private Request createRequestWithVersion(SendCommand command) {
+        try {
+            CommandValidator.validateAmountOfArgs(command.getCommandArgs(), 1);
+            Long version = CommandValidator.validateArg(arg -> ((long) arg) >= 0,
+                    "Версия коллекции должна быть неотрицательным целым числом!",
+                    Long::parseLong,
+                    command.getCommandArgs()[0]);
+            Request request = new Request(command.getCommandName());
+            request.setVersion(version);
+            return request;
+        } catch (InvalidCommandArgument | InvalidInputException e) {
+            PrintManager.printErr(e.getMessage());
+            return null;
+        } catch (IllegalArgumentException e) {
+            PrintManager.printErr("Введено некорректное значение аргумента.");
+            return null;
+        }
+    }
+
     /**
      * Creates a request with a 'key' argument.
      *
@@ -0,0 +1,113 @@
+package org.example.client.utility;
+
+import org.example.client.commandCarrier.CommandStorage;
+import org.example.common.utility.Request;
+import org.example.common.utility.Response;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the responses of read-only commands on the client.
+ * Responses of the commands listing the collection are stored together with the version of the collection they show;
+ * the next request of the same command carries this version, and while the collection stays unchanged
+ * the server answers with a tiny "not modified" response instead of the whole listing.
+ * Responses of the commands which never change while the server runs are repeated without asking the server at all.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class ResponseCache {
+
+    /**
+     * Maximum number of chunks of one response kept in the cache; longer listings are not cached.
+     */
+    private static final int MAX_CHUNKS = 1024;
+
+    /**
+     * Cached responses, as lists of their chunks, by the names of their commands.
+     */
+    private final Map<String, List<Response>> responses = new HashMap<>();
+
+    /**
+     * Versions of the collection shown by the cached responses, by the names of their commands.
+     */
+    private final Map<String, Long> versions = new HashMap<>();
+
+    /**
+     * Names of the commands of the outstanding requests which may be cached, by the correlation identifiers of the requests.
+     */
+    private final Map<Long, String> pendingCommands = new HashMap<>();
+
+    /**
+     * Chunks of the outstanding responses received so far, by the correlation identifiers of their requests.
+     */
+    private final Map<Long, List<Response>> pendingChunks = new HashMap<>();
+
+    /**
+     * Retrieves the cached response of a command which never changes while the server runs.
+     *
+     * @param request The request about to be sent.
+     * @return The chunks of the cached response, or null if the request has to be sent to the server.
+     */
+    public List<Response> getPermanent(Request request) {
+        if (!CommandStorage.PERMANENT_COMMANDS.contains(request.getCommandName())) return null;
+        return responses.get(request.getCommandName());
+    }
+
+    /**
+     * Makes a request about to be sent conditional on the version of the collection shown by the cached response
+     * of its command, if there is one.
+     *
+     * @param request The request about to be sent.
+     */
+    public void prepare(Request request) {
+        if (CommandStorage.CACHEABLE_COMMANDS.contains(request.getCommandName()))
+            request.setVersion(versions.get(request.getCommandName()));
+    }
+
+    /**
+     * Registers a sent request, so that its response can be cached.
+     *
+     * @param request The sent request carrying its correlation identifier.
+     */
+    public void track(Request request) {
+        String name = request.getCommandName();
+        if (CommandStorage.CACHEABLE_COMMANDS.contains(name) || CommandStorage.PERMANENT_COMMANDS.contains(name))
+            pendingCommands.put(request.getRequestId(), name);
+    }
+
+    /**
+     * Processes a received chunk of a response.
+     * Chunks of cacheable responses are collected; when the last one arrives, the response is cached,
+     * or, if the server has confirmed the cached response, the cached chunks are returned in its place.
+     *
+     * @param response The received chunk.
+     * @return The chunks to print.
+     */
+    public List<Response> accept(Response response) {
+        String name = pendingCommands.get(response.getRequestId());
+        if (name == null) return Collections.singletonList(response);
+        if (response.isNotModified()) {
+            pendingCommands.remove(response.getRequestId());
+            pendingChunks.remove(response.getRequestId());
+            List<Response> cached = responses.get(name);
+            if (cached == null) return Collections.singletonList(response);
+            return cached;
+        }
+        List<Response> chunks = pendingChunks.computeIfAbsent(response.getRequestId(), id -> new ArrayList<>());
+        if (chunks.size() < MAX_CHUNKS) chunks.add(response);
+        if (response.isPartial()) return Collections.singletonList(response);
+        pendingCommands.remove(response.getRequestId());
+        pendingChunks.remove(response.getRequestId());
+        if (chunks.size() < MAX_CHUNKS && response.getRetryAfter() == 0 && response.getVersion() != 0) {
+            responses.put(name, chunks);
+            versions.put(name, response.getVersion());
+        }
+        return Collections.singletonList(response);
+    }
+}
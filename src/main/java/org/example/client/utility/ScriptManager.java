@@ -62,6 +62,13 @@ public class ScriptManager {
         callStack.clear();
     }
 
+    /**
+     * Finishes reading the current script, so that it may be called again by a later command.
+     */
+    public void finishScriptReading() {
+        callStack.remove(path.getAbsolutePath());
+    }
+
     /**
      * Gets the file path of the current script.
      *
@@ -0,0 +1,58 @@
+package org.example.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Interface for wire formats turning request and response objects into frame payloads and back.
+ * The format of a connection is agreed on by the client and the server during the handshake,
+ * so new formats can be introduced without breaking clients which only know the older ones.
+ * An instance serves a single connection and may keep state between messages.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public interface Codec {
+
+    /**
+     * Retrieves the identifier of the format transmitted in the handshake.
+     *
+     * @return The identifier of the format.
+     */
+    byte getId();
+
+    /**
+     * Retrieves the human-readable name of the format.
+     *
+     * @return The name of the format.
+     */
+    String getName();
+
+    /**
+     * Encodes an object into a frame payload.
+     *
+     * @param data The object to encode.
+     * @return Pooled buffer containing the encoded data, with {@link org.example.common.utility.Frame#HEADER_SIZE}
+     * free bytes in front of its position; see {@link org.example.common.utility.Frame#encodeInPlace}.
+     * @throws IOException if the object cannot be encoded.
+     */
+    ByteBuffer encode(DataManager data) throws IOException;
+
+    /**
+     * Forgets the payload returned by the last call to {@link #encode(DataManager)}, which is not going to be sent,
+     * so that the next payload can be decoded without it. Formats which keep no state between messages have nothing to forget.
+     */
+    default void discardLast() {
+    }
+
+    /**
+     * Decodes the object carried by a received frame payload.
+     *
+     * @param payload The payload of a received frame.
+     * @return The decoded object.
+     * @throws IOException if the payload cannot be decoded.
+     * @throws ClassNotFoundException if the class of the encoded object cannot be found.
+     */
+    DataManager decode(ByteBuffer payload) throws IOException, ClassNotFoundException;
+}
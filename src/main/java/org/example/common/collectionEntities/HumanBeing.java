@@ -1,18 +1,24 @@
 package org.example.common.collectionEntities;
 
-import java.io.Serializable;
+import org.example.common.utility.HumanBeingCodec;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.time.LocalDateTime;
 
 /**
  * Represents a human being with various attributes.
  * This class implements the Comparable interface to allow sorting of HumanBeing instances.
  * It uses the Builder pattern for flexible construction of HumanBeing objects.
+ * Instances are serialized with the compact binary form of {@link HumanBeingCodec}.
  *
  * @author Aerosolus
  * @version 1.0
  * @since 1.0
  */
-public class HumanBeing implements Comparable <HumanBeing>, Serializable {
+public class HumanBeing implements Comparable <HumanBeing>, Externalizable {
 
     /**
      * Unique identifier for the human being.
@@ -429,6 +435,28 @@ public class HumanBeing implements Comparable <HumanBeing>, Serializable {
         this.car = car;
     }
 
+    /**
+     * Writes the human being in the compact binary form of {@link HumanBeingCodec}.
+     *
+     * @param out The stream to write the object to.
+     * @throws IOException if an I/O error occurs while writing.
+     */
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        HumanBeingCodec.write(out, this);
+    }
+
+    /**
+     * Restores the human being from the compact binary form of {@link HumanBeingCodec}.
+     *
+     * @param in The stream to read the object from.
+     * @throws IOException if an I/O error occurs while reading or the encoded data is malformed.
+     */
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        HumanBeingCodec.read(in, this);
+    }
+
     /**
      * Returns a string representation of the HumanBeing object.
      * This method provides a detailed description of the object's state,
@@ -0,0 +1,349 @@
+package org.example.common.utility;
+
+import org.example.common.Codec;
+import org.example.common.DataManager;
+import org.example.common.collectionEntities.HumanBeing;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary wire format written field by field without class descriptors.
+ * Every message starts with its type, followed by a flags byte telling which optional fields are present.
+ * Numbers are written as variable-length quantities and human beings in the form of {@link HumanBeingCodec},
+ * so a message carries almost nothing but its data. Unlike Java serialization the format keeps no state
+ * between messages, so every payload can be decoded on its own.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class BinaryCodec implements Codec {
+
+    /**
+     * Type of a message carrying a {@link Request}.
+     */
+    private static final int REQUEST = 1;
+
+    /**
+     * Type of a message carrying a {@link Response}.
+     */
+    private static final int RESPONSE = 2;
+
+    /**
+     * Flag set when the numeric argument of a request follows.
+     */
+    private static final int HAS_ARGUMENT = 1;
+
+    /**
+     * Flag set when a response confirms the response cached by the client. Shares its bit with {@link #HAS_ARGUMENT},
+     * which only requests use.
+     */
+    private static final int NOT_MODIFIED = 1;
+
+    /**
+     * Flag set when the key argument of a request follows.
+     */
+    private static final int HAS_KEY_ARGUMENT = 1 << 1;
+
+    /**
+     * Flag set when the human being of a message follows.
+     */
+    private static final int HAS_HUMAN_BEING = 1 << 2;
+
+    /**
+     * Flag set when the nested messages of a batch follow.
+     */
+    private static final int HAS_BATCH = 1 << 3;
+
+    /**
+     * Flag set when the collection of a response follows.
+     */
+    private static final int HAS_COLLECTION = 1 << 4;
+
+    /**
+     * Flag set when more chunks of a response follow.
+     */
+    private static final int PARTIAL = 1 << 5;
+
+    /**
+     * Flag set when the keys removed since the version known to the client follow.
+     */
+    private static final int HAS_REMOVED_KEYS = 1 << 6;
+
+    /**
+     * Flag set when the collection version known to the client follows.
+     */
+    private static final int HAS_VERSION = 1 << 7;
+
+    /**
+     * Stream collecting the bytes of the message being encoded.
+     */
+    private final ByteBufferOutputStream byteBufferOutputStream = new ByteBufferOutputStream(Frame.HEADER_SIZE);
+
+    /**
+     * Data view of the stream collecting the encoded message.
+     */
+    private final DataOutputStream outputStream = new DataOutputStream(byteBufferOutputStream);
+
+    /**
+     * Stream feeding the payloads of received frames to the decoder.
+     */
+    private final ByteBufferInputStream byteBufferInputStream = new ByteBufferInputStream();
+
+    /**
+     * Data view of the stream feeding the received payloads.
+     */
+    private final DataInputStream inputStream = new DataInputStream(byteBufferInputStream);
+
+    /**
+     * Retrieves the identifier of the binary format.
+     *
+     * @return {@link CodecManager#BINARY}.
+     */
+    @Override
+    public byte getId() {
+        return CodecManager.BINARY;
+    }
+
+    /**
+     * Retrieves the name of the binary format.
+     *
+     * @return The name of the format.
+     */
+    @Override
+    public String getName() {
+        return CodecManager.getName(CodecManager.BINARY);
+    }
+
+    /**
+     * Encodes a request or a response into a pooled ByteBuffer.
+     *
+     * @param data The request or response to encode.
+     * @return Pooled buffer containing the encoded message, with {@link Frame#HEADER_SIZE} free bytes in front of it.
+     * @throws IOException if the object is neither a request nor a response.
+     */
+    @Override
+    public ByteBuffer encode(DataManager data) throws IOException {
+        if (data instanceof Request request) {
+            outputStream.writeByte(REQUEST);
+            writeRequest(request);
+        } else if (data instanceof Response response) {
+            outputStream.writeByte(RESPONSE);
+            writeResponse(response);
+        } else {
+            throw new InvalidObjectException("Неподдерживаемый тип сообщения: " + data.getClass().getSimpleName());
+        }
+        return byteBufferOutputStream.takeMessage();
+    }
+
+    /**
+     * Decodes the request or response carried by a received frame payload.
+     *
+     * @param payload The payload of a received frame.
+     * @return The decoded request or response.
+     * @throws IOException if the payload is malformed.
+     */
+    @Override
+    public DataManager decode(ByteBuffer payload) throws IOException {
+        byteBufferInputStream.setSource(payload);
+        int type = inputStream.readUnsignedByte();
+        DataManager data;
+        if (type == REQUEST) {
+            data = readRequest();
+        } else if (type == RESPONSE) {
+            data = readResponse();
+        } else {
+            throw new StreamCorruptedException("Неизвестный тип сообщения: " + type);
+        }
+        if (payload.hasRemaining()) throw new StreamCorruptedException("Лишние данные в конце сообщения.");
+        return data;
+    }
+
+    /**
+     * Writes the fields of a request and of the requests of its batch.
+     *
+     * @param request The request to write.
+     * @throws IOException if an I/O error occurs while writing.
+     */
+    private void writeRequest(Request request) throws IOException {
+        int flags = 0;
+        if (request.getArgument() != null) flags |= HAS_ARGUMENT;
+        if (request.getKeyArgument() != null) flags |= HAS_KEY_ARGUMENT;
+        if (request.getHumanBeingArgument() != null) flags |= HAS_HUMAN_BEING;
+        if (request.getBatch() != null) flags |= HAS_BATCH;
+        if (request.getVersion() != null) flags |= HAS_VERSION;
+        outputStream.writeByte(flags);
+        HumanBeingCodec.writeVarLong(outputStream, request.getRequestId());
+        HumanBeingCodec.writeString(outputStream, request.getCommandName());
+        if (request.getArgument() != null) {
+            HumanBeingCodec.writeVarLong(outputStream, HumanBeingCodec.zigzag(request.getArgument()));
+        }
+        if (request.getKeyArgument() != null) {
+            HumanBeingCodec.writeVarLong(outputStream, HumanBeingCodec.zigzag(request.getKeyArgument()));
+        }
+        if (request.getVersion() != null) HumanBeingCodec.writeVarLong(outputStream, request.getVersion());
+        if (request.getHumanBeingArgument() != null) HumanBeingCodec.write(outputStream, request.getHumanBeingArgument());
+        if (request.getBatch() != null) {
+            HumanBeingCodec.writeVarLong(outputStream, request.getBatch().size());
+            for (Request nested : request.getBatch()) {
+                writeRequest(nested);
+            }
+        }
+    }
+
+    /**
+     * Reads a request written by {@link #writeRequest(Request)}.
+     *
+     * @return The decoded request.
+     * @throws IOException if an I/O error occurs while reading or the data is malformed.
+     */
+    private Request readRequest() throws IOException {
+        int flags = inputStream.readUnsignedByte();
+        long requestId = HumanBeingCodec.readVarLong(inputStream);
+        String commandName = HumanBeingCodec.readString(inputStream);
+        Integer argument = (flags & HAS_ARGUMENT) != 0 ? readInt() : null;
+        Integer keyArgument = (flags & HAS_KEY_ARGUMENT) != 0 ? readInt() : null;
+        Long version = (flags & HAS_VERSION) != 0 ? HumanBeingCodec.readVarLong(inputStream) : null;
+        HumanBeing humanBeing = (flags & HAS_HUMAN_BEING) != 0 ? readHumanBeing() : null;
+        List<Request> batch = null;
+        if ((flags & HAS_BATCH) != 0) {
+            int size = readSize();
+            batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(readRequest());
+            }
+        }
+        Request request = new Request(commandName, argument, keyArgument, humanBeing, batch);
+        request.setRequestId(requestId);
+        request.setVersion(version);
+        return request;
+    }
+
+    /**
+     * Writes the fields of a response and of the responses of its batch.
+     *
+     * @param response The response to write.
+     * @throws IOException if an I/O error occurs while writing.
+     */
+    private void writeResponse(Response response) throws IOException {
+        int flags = 0;
+        if (response.getResponseHumanBeing() != null) flags |= HAS_HUMAN_BEING;
+        if (response.getBatchResults() != null) flags |= HAS_BATCH;
+        if (response.getResponseCollection() != null) flags |= HAS_COLLECTION;
+        if (response.isPartial()) flags |= PARTIAL;
+        if (response.getRemovedKeys() != null) flags |= HAS_REMOVED_KEYS;
+        if (response.isNotModified()) flags |= NOT_MODIFIED;
+        outputStream.writeByte(flags);
+        HumanBeingCodec.writeVarLong(outputStream, response.getRequestId());
+        HumanBeingCodec.writeVarLong(outputStream, response.getRetryAfter());
+        HumanBeingCodec.writeVarLong(outputStream, response.getVersion());
+        HumanBeingCodec.writeString(outputStream, response.getResponseMessage());
+        if (response.getResponseHumanBeing() != null) HumanBeingCodec.write(outputStream, response.getResponseHumanBeing());
+        if (response.getResponseCollection() != null) {
+            HumanBeingCodec.writeVarLong(outputStream, response.getResponseCollection().size());
+            for (Map.Entry<Integer, HumanBeing> entry : response.getResponseCollection().entrySet()) {
+                HumanBeingCodec.writeVarLong(outputStream, HumanBeingCodec.zigzag(entry.getKey()));
+                HumanBeingCodec.write(outputStream, entry.getValue());
+            }
+        }
+        if (response.getRemovedKeys() != null) {
+            HumanBeingCodec.writeVarLong(outputStream, response.getRemovedKeys().size());
+            for (Integer key : response.getRemovedKeys()) {
+                HumanBeingCodec.writeVarLong(outputStream, HumanBeingCodec.zigzag(key));
+            }
+        }
+        if (response.getBatchResults() != null) {
+            HumanBeingCodec.writeVarLong(outputStream, response.getBatchResults().size());
+            for (Response nested : response.getBatchResults()) {
+                writeResponse(nested);
+            }
+        }
+    }
+
+    /**
+     * Reads a response written by {@link #writeResponse(Response)}.
+     *
+     * @return The decoded response.
+     * @throws IOException if an I/O error occurs while reading or the data is malformed.
+     */
+    private Response readResponse() throws IOException {
+        int flags = inputStream.readUnsignedByte();
+        long requestId = HumanBeingCodec.readVarLong(inputStream);
+        long retryAfter = HumanBeingCodec.readVarLong(inputStream);
+        long version = HumanBeingCodec.readVarLong(inputStream);
+        String message = HumanBeingCodec.readString(inputStream);
+        HumanBeing humanBeing = (flags & HAS_HUMAN_BEING) != 0 ? readHumanBeing() : null;
+        LinkedHashMap<Integer, HumanBeing> collection = null;
+        if ((flags & HAS_COLLECTION) != 0) {
+            int size = readSize();
+            collection = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                collection.put(readInt(), readHumanBeing());
+            }
+        }
+        List<Integer> removedKeys = null;
+        if ((flags & HAS_REMOVED_KEYS) != 0) {
+            int size = readSize();
+            removedKeys = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                removedKeys.add(readInt());
+            }
+        }
+        List<Response> batchResults = null;
+        if ((flags & HAS_BATCH) != 0) {
+            int size = readSize();
+            batchResults = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batchResults.add(readResponse());
+            }
+        }
+        Response response = new Response(message, humanBeing, collection, batchResults, removedKeys,
+                (flags & PARTIAL) != 0, (flags & NOT_MODIFIED) != 0, retryAfter);
+        response.setRequestId(requestId);
+        response.setVersion(version);
+        return response;
+    }
+
+    /**
+     * Reads a human being written by {@link HumanBeingCodec}.
+     *
+     * @return The decoded human being.
+     * @throws IOException if an I/O error occurs while reading or the data is malformed.
+     */
+    private HumanBeing readHumanBeing() throws IOException {
+        HumanBeing humanBeing = new HumanBeing();
+        HumanBeingCodec.read(inputStream, humanBeing);
+        return humanBeing;
+    }
+
+    /**
+     * Reads a zigzag-encoded integer.
+     *
+     * @return The decoded integer.
+     * @throws IOException if an I/O error occurs while reading or the data is malformed.
+     */
+    private int readInt() throws IOException {
+        return (int) HumanBeingCodec.unzigzag(HumanBeingCodec.readVarLong(inputStream));
+    }
+
+    /**
+     * Reads the number of elements of a list, which cannot exceed the number of the remaining bytes.
+     *
+     * @return The number of elements.
+     * @throws IOException if an I/O error occurs while reading or the number is impossible.
+     */
+    private int readSize() throws IOException {
+        long size = HumanBeingCodec.readVarLong(inputStream);
+        if (size > inputStream.available()) throw new StreamCorruptedException("Некорректный размер списка: " + size);
+        return (int) size;
+    }
+}
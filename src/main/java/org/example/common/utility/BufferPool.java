@@ -0,0 +1,110 @@
+package org.example.common.utility;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of direct ByteBuffers shared by all connections of the process.
+ * Buffers are grouped into size classes of powers of two, so a released buffer can serve any later request
+ * of its class, and repeated sends and receives stop allocating new memory once the pool is warm.
+ * Each class keeps a bounded number of free buffers; requests larger than the largest class
+ * are served by plain heap buffers which are never pooled.
+ *
+ * <p>A buffer must not be used after it has been released, and must be released at most once.</p>
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class BufferPool {
+
+    /**
+     * Binary logarithm of the capacity of the smallest size class (4 KiB).
+     */
+    private static final int MIN_SHIFT = 12;
+
+    /**
+     * Binary logarithm of the capacity of the largest size class (4 MiB).
+     */
+    private static final int MAX_SHIFT = 22;
+
+    /**
+     * Maximum total capacity of the free buffers kept in one size class.
+     */
+    private static final int MAX_FREE_BYTES_PER_CLASS = 8 * 1024 * 1024;
+
+    /**
+     * Free buffers of every size class.
+     */
+    private static final Queue<ByteBuffer>[] freeBuffers = createClasses();
+
+    /**
+     * Number of free buffers in every size class.
+     */
+    private static final AtomicInteger[] freeCounts = new AtomicInteger[MAX_SHIFT - MIN_SHIFT + 1];
+
+    static {
+        for (int i = 0; i < freeCounts.length; i++) {
+            freeCounts[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Creates the empty free lists of all size classes.
+     *
+     * @return Array holding one free list per size class.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Queue<ByteBuffer>[] createClasses() {
+        Queue<ByteBuffer>[] classes = new Queue[MAX_SHIFT - MIN_SHIFT + 1];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new ConcurrentLinkedQueue<>();
+        }
+        return classes;
+    }
+
+    /**
+     * Takes a cleared buffer of at least the given capacity from the pool, allocating one if the pool has none.
+     *
+     * @param capacity The minimal capacity of the buffer.
+     * @return A cleared buffer whose capacity is the size class covering the given capacity.
+     */
+    public static ByteBuffer acquire(int capacity) {
+        int index = classIndex(capacity);
+        if (index >= freeBuffers.length) return ByteBuffer.allocate(capacity);
+        ByteBuffer buffer = freeBuffers[index].poll();
+        if (buffer == null) return ByteBuffer.allocateDirect(1 << (MIN_SHIFT + index));
+        freeCounts[index].decrementAndGet();
+        return buffer.clear();
+    }
+
+    /**
+     * Returns a buffer to the pool. Buffers which do not come from the pool are ignored.
+     *
+     * @param buffer The buffer to return; it must not be used afterwards.
+     */
+    public static void release(ByteBuffer buffer) {
+        if (!buffer.isDirect()) return;
+        int index = classIndex(buffer.capacity());
+        if (index >= freeBuffers.length || buffer.capacity() != 1 << (MIN_SHIFT + index)) return;
+        int maxFree = Math.max(2, MAX_FREE_BYTES_PER_CLASS >> (MIN_SHIFT + index));
+        if (freeCounts[index].incrementAndGet() > maxFree) {
+            freeCounts[index].decrementAndGet();
+            return;
+        }
+        freeBuffers[index].offer(buffer);
+    }
+
+    /**
+     * Finds the size class covering the given capacity.
+     *
+     * @param capacity The requested capacity.
+     * @return Index of the smallest size class whose buffers hold the given capacity.
+     */
+    private static int classIndex(int capacity) {
+        if (capacity <= 1 << MIN_SHIFT) return 0;
+        return 32 - Integer.numberOfLeadingZeros(capacity - 1) - MIN_SHIFT;
+    }
+}
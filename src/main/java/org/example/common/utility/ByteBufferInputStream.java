@@ -0,0 +1,79 @@
+package org.example.common.utility;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Input stream reading the remaining bytes of a ByteBuffer.
+ * The source buffer can be replaced, which lets one long-lived stream consume a sequence of frame payloads.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class ByteBufferInputStream extends InputStream {
+
+    /**
+     * Buffer the bytes are currently read from.
+     */
+    private ByteBuffer source = ByteBuffer.allocate(0);
+
+    /**
+     * Replaces the buffer the bytes are read from.
+     *
+     * @param source The new source buffer; its remaining bytes are consumed by subsequent reads.
+     */
+    public void setSource(ByteBuffer source) {
+        this.source = source;
+    }
+
+    /**
+     * Reads the next byte of the current source.
+     *
+     * @return The next byte, or -1 if the source is exhausted.
+     */
+    @Override
+    public int read() {
+        return source.hasRemaining() ? source.get() & 0xFF : -1;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of the current source.
+     *
+     * @param b   The destination array.
+     * @param off The start offset in the destination array.
+     * @param len The maximum number of bytes to read.
+     * @return The number of bytes read, or -1 if the source is exhausted.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) return 0;
+        if (!source.hasRemaining()) return -1;
+        int amount = Math.min(len, source.remaining());
+        source.get(b, off, amount);
+        return amount;
+    }
+
+    /**
+     * Skips up to {@code n} bytes of the current source by moving its position, without copying them.
+     *
+     * @param n The maximum number of bytes to skip.
+     * @return The number of bytes skipped.
+     */
+    @Override
+    public long skip(long n) {
+        int amount = (int) Math.max(0, Math.min(n, source.remaining()));
+        source.position(source.position() + amount);
+        return amount;
+    }
+
+    /**
+     * Returns the number of bytes left in the current source.
+     *
+     * @return The number of remaining bytes.
+     */
+    @Override
+    public int available() {
+        return source.remaining();
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.common.utility;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Output stream writing into a pooled ByteBuffer, which grows by moving to a larger pooled buffer when full.
+ * Every message is collected in its own buffer; a number of bytes is reserved in front of it,
+ * so that a frame header can later be written in place without copying the message.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class ByteBufferOutputStream extends OutputStream {
+
+    /**
+     * Initial capacity of the buffer of a message.
+     */
+    private static final int INITIAL_CAPACITY = 4096;
+
+    /**
+     * Number of bytes reserved in front of every message.
+     */
+    private final int reserved;
+
+    /**
+     * Buffer collecting the current message, or null if nothing has been written since the last message was taken.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Constructs a ByteBufferOutputStream reserving the given number of bytes in front of every message.
+     *
+     * @param reserved The number of bytes to reserve.
+     */
+    public ByteBufferOutputStream(int reserved) {
+        this.reserved = reserved;
+    }
+
+    /**
+     * Writes a single byte.
+     *
+     * @param b The byte to write.
+     */
+    @Override
+    public void write(int b) {
+        ensureRemaining(1);
+        buffer.put((byte) b);
+    }
+
+    /**
+     * Writes {@code len} bytes of an array.
+     *
+     * @param b   The source array.
+     * @param off The start offset in the source array.
+     * @param len The number of bytes to write.
+     */
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureRemaining(len);
+        buffer.put(b, off, len);
+    }
+
+    /**
+     * Takes the collected message. The next write starts a new message in a new buffer.
+     *
+     * @return Pooled buffer whose position is at the start of the message, with the reserved bytes in front of it;
+     * the caller becomes responsible for releasing it to the {@link BufferPool}.
+     */
+    public ByteBuffer takeMessage() {
+        ensureRemaining(0);
+        ByteBuffer message = buffer.flip().position(reserved);
+        buffer = null;
+        return message;
+    }
+
+    /**
+     * Makes sure the current buffer exists and has room for the given number of bytes.
+     *
+     * @param length The number of bytes about to be written.
+     */
+    private void ensureRemaining(int length) {
+        if (buffer == null) {
+            buffer = BufferPool.acquire(Math.max(INITIAL_CAPACITY, reserved + length));
+            buffer.position(reserved);
+        } else if (buffer.remaining() < length) {
+            ByteBuffer grown = BufferPool.acquire(Math.max(buffer.capacity() * 2, buffer.position() + length));
+            grown.put(buffer.flip());
+            BufferPool.release(buffer);
+            buffer = grown;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.common.utility;
+
+import org.example.common.Codec;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Knows the wire formats supported by this version and creates their instances for new connections.
+ * Formats are referred to by the identifiers transmitted in the {@link Handshake}.
+ * Java serialization is the format of clients and servers which do not negotiate one,
+ * so it must stay supported forever.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class CodecManager {
+
+    /**
+     * Identifier of the Java serialization format, see {@link SerializationManager}.
+     */
+    public static final byte JAVA = 0;
+
+    /**
+     * Identifier of the compact binary format, see {@link BinaryCodec}.
+     */
+    public static final byte BINARY = 1;
+
+    /**
+     * Identifier of the human-readable text format meant for debugging, see {@link TextCodec}.
+     */
+    public static final byte TEXT = 2;
+
+    /**
+     * Names of the supported formats indexed by their identifiers.
+     */
+    private static final String[] NAMES = {"java", "binary", "text"};
+
+    /**
+     * Checks whether a format is supported by this version.
+     *
+     * @param id The identifier of the format.
+     * @return true if the format is supported, false otherwise.
+     */
+    public static boolean isSupported(byte id) {
+        return id >= 0 && id < NAMES.length;
+    }
+
+    /**
+     * Retrieves the name of a supported format.
+     *
+     * @param id The identifier of the format.
+     * @return The name of the format.
+     */
+    public static String getName(byte id) {
+        return NAMES[id];
+    }
+
+    /**
+     * Returns the number of supported formats; their identifiers are the numbers from 0 below it.
+     *
+     * @return The number of supported formats.
+     */
+    public static int getCount() {
+        return NAMES.length;
+    }
+
+    /**
+     * Finds a supported format by its name, ignoring case.
+     *
+     * @param name The name of the format.
+     * @return The identifier of the format, or -1 if no supported format has this name.
+     */
+    public static byte forName(String name) {
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        for (byte id = 0; id < NAMES.length; id++) {
+            if (NAMES[id].equals(normalized)) return id;
+        }
+        return -1;
+    }
+
+    /**
+     * Creates an instance of a supported format for a new connection.
+     *
+     * @param id The identifier of the format.
+     * @return A new Codec.
+     * @throws IOException if the format cannot be initialized.
+     */
+    public static Codec create(byte id) throws IOException {
+        if (id == BINARY) return new BinaryCodec();
+        if (id == TEXT) return new TextCodec();
+        return new SerializationManager();
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.common.utility;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses and decompresses frame payloads of a single connection.
+ * Compression is used only if both sides have agreed on it during the {@link Handshake},
+ * and only for payloads of at least {@link #THRESHOLD} bytes which actually become smaller.
+ * A compressed payload starts with its original length followed by the deflated bytes;
+ * every payload is compressed independently, so frames may be decoded one by one.
+ * Compressed frames and decompressed payloads are kept in pooled buffers.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class CompressionManager {
+
+    /**
+     * Minimal payload length worth compressing.
+     */
+    public static final int THRESHOLD = 1024;
+
+    /**
+     * Compressor reused for all outgoing payloads. Created on first use.
+     */
+    private Deflater deflater;
+
+    /**
+     * Decompressor reused for all incoming payloads. Created on first use.
+     */
+    private Inflater inflater;
+
+    /**
+     * Pooled buffer holding the last decompressed payload, reused for the following ones.
+     */
+    private ByteBuffer inflated;
+
+    /**
+     * Flag indicating whether outgoing payloads may be compressed.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Checks whether outgoing payloads may be compressed.
+     *
+     * @return true if compression has been agreed on, false otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables compression of outgoing payloads.
+     *
+     * @param enabled true if compression has been agreed on, false otherwise.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Encodes a serialized payload into a frame, compressing it if that is enabled and worthwhile.
+     * The payload buffer is taken over: it either becomes the frame itself or is released to the {@link BufferPool}.
+     *
+     * @param payload The payload to encode, as produced by {@link SerializationManager#encode}.
+     * @return Buffer containing the encoded frame; it should be released to the {@link BufferPool} once written.
+     */
+    public ByteBuffer encode(ByteBuffer payload) {
+        int length = payload.remaining();
+        if (enabled && length >= THRESHOLD) {
+            ByteBuffer frame = compress(payload);
+            if (frame != null) {
+                BufferPool.release(payload);
+                return frame;
+            }
+        }
+        return Frame.encodeInPlace(Frame.FLAG_NONE, payload);
+    }
+
+    /**
+     * Compresses a payload into a new frame.
+     *
+     * @param payload The payload to compress; it is left unchanged.
+     * @return Pooled buffer containing the compressed frame, or null if compression does not make the frame shorter.
+     */
+    private ByteBuffer compress(ByteBuffer payload) {
+        int length = payload.remaining();
+        if (deflater == null) deflater = new Deflater();
+        // The compressed frame must not be longer than the plain one, otherwise the payload is sent as is
+        ByteBuffer frame = BufferPool.acquire(Frame.HEADER_SIZE + length).limit(Frame.HEADER_SIZE + length);
+        frame.position(Frame.HEADER_SIZE + Integer.BYTES);
+        deflater.reset();
+        deflater.setInput(payload.duplicate());
+        deflater.finish();
+        while (!deflater.finished() && frame.hasRemaining()) {
+            deflater.deflate(frame);
+        }
+        if (!deflater.finished()) {
+            BufferPool.release(frame);
+            return null;
+        }
+        frame.putInt(0, frame.position() - Frame.HEADER_SIZE)
+                .put(Integer.BYTES, Frame.FLAG_COMPRESSED)
+                .putInt(Frame.HEADER_SIZE, length);
+        return frame.flip();
+    }
+
+    /**
+     * Restores the original payload of a received frame.
+     *
+     * @param frame The received frame.
+     * @return The payload of the frame, decompressed if it was compressed;
+     * a decompressed payload stays valid until the next call.
+     * @throws IOException if the compressed payload is corrupted.
+     */
+    public ByteBuffer decode(Frame frame) throws IOException {
+        ByteBuffer payload = frame.getPayload();
+        if ((frame.getFlags() & Frame.FLAG_COMPRESSED) == 0) return payload;
+        if (payload.remaining() < Integer.BYTES) throw new StreamCorruptedException("Повреждены сжатые данные.");
+        int length = payload.getInt();
+        Frame.validateLength(length);
+        if (inflater == null) inflater = new Inflater();
+        if (inflated == null || inflated.capacity() < length) {
+            if (inflated != null) BufferPool.release(inflated);
+            inflated = BufferPool.acquire(length);
+        }
+        ByteBuffer result = inflated.clear().limit(length);
+        inflater.reset();
+        inflater.setInput(payload);
+        try {
+            while (result.hasRemaining()) {
+                if (inflater.inflate(result) == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new StreamCorruptedException("Повреждены сжатые данные.");
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new StreamCorruptedException("Повреждены сжатые данные: " + e.getMessage());
+        }
+        return result.flip();
+    }
+
+    /**
+     * Releases the native resources of the compressor and the decompressor and the pooled buffer.
+     */
+    public void close() {
+        if (deflater != null) deflater.end();
+        if (inflater != null) inflater.end();
+        if (inflated != null) BufferPool.release(inflated);
+        inflated = null;
+    }
+}
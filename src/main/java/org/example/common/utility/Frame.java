@@ -0,0 +1,130 @@
+package org.example.common.utility;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+
+/**
+ * Represents a single unit of the wire protocol shared by the client and the server.
+ * Every message is transmitted as a frame: a four-byte payload length, a one-byte set of flags and the payload itself.
+ * The explicit length lets both sides reassemble messages split over several reads
+ * and lets a message be larger than any socket buffer.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class Frame {
+
+    /**
+     * Number of bytes preceding the payload: the payload length and the flags.
+     */
+    public static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES;
+
+    /**
+     * Maximum accepted payload length. Longer frames are treated as a protocol violation.
+     * Large listings are streamed in chunks, so the largest legitimate messages, script batches and change listings,
+     * stay well below it.
+     */
+    public static final int MAX_PAYLOAD_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * Flags value of a frame carrying a plain serialized message.
+     */
+    public static final byte FLAG_NONE = 0;
+
+    /**
+     * Flag of a frame whose payload is compressed, see {@link CompressionManager}.
+     */
+    public static final byte FLAG_COMPRESSED = 1;
+
+    /**
+     * Flags value of a frame carrying the connection settings exchanged at connect time, see {@link Handshake}.
+     */
+    public static final byte FLAG_HANDSHAKE = 2;
+
+    /**
+     * Flags value of an empty frame sent by an idle client to show that it is still alive.
+     * Heartbeats bypass the serialization session and are never answered.
+     */
+    public static final byte FLAG_HEARTBEAT = 4;
+
+    /**
+     * Flags of the frame.
+     */
+    private final byte flags;
+
+    /**
+     * Payload of the frame.
+     */
+    private final ByteBuffer payload;
+
+    /**
+     * Constructs a Frame with the given flags and payload.
+     *
+     * @param flags The flags of the frame.
+     * @param payload The payload of the frame.
+     */
+    public Frame(byte flags, ByteBuffer payload) {
+        this.flags = flags;
+        this.payload = payload;
+    }
+
+    /**
+     * Retrieves the flags of the frame.
+     *
+     * @return The flags of the frame.
+     */
+    public byte getFlags() {
+        return flags;
+    }
+
+    /**
+     * Retrieves the payload of the frame.
+     *
+     * @return The payload of the frame.
+     */
+    public ByteBuffer getPayload() {
+        return payload;
+    }
+
+    /**
+     * Encodes a payload into a frame ready to be written to the peer.
+     *
+     * @param flags The flags of the frame.
+     * @param payload The payload to encode; its remaining bytes are copied.
+     * @return ByteBuffer containing the header followed by the payload.
+     */
+    public static ByteBuffer encode(byte flags, ByteBuffer payload) {
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_SIZE + payload.remaining());
+        frame.putInt(payload.remaining()).put(flags).put(payload.duplicate());
+        return frame.flip();
+    }
+
+    /**
+     * Encodes a payload into a frame by writing the header into the bytes preceding the payload in its buffer.
+     * Falls back to {@link #encode(byte, ByteBuffer)} if there is no room for the header.
+     *
+     * @param flags The flags of the frame.
+     * @param payload The payload to encode; when encoded in place, the buffer itself becomes the frame.
+     * @return ByteBuffer containing the header followed by the payload.
+     */
+    public static ByteBuffer encodeInPlace(byte flags, ByteBuffer payload) {
+        int start = payload.position() - HEADER_SIZE;
+        if (start < 0) return encode(flags, payload);
+        payload.putInt(start, payload.remaining()).put(start + Integer.BYTES, flags);
+        return payload.position(start);
+    }
+
+    /**
+     * Checks a payload length read from a frame header.
+     *
+     * @param length The payload length to check.
+     * @throws IOException if the length is negative or exceeds the allowed maximum.
+     */
+    public static void validateLength(int length) throws IOException {
+        if (length < 0 || length > MAX_PAYLOAD_SIZE) {
+            throw new StreamCorruptedException("Недопустимая длина кадра: " + length);
+        }
+    }
+}
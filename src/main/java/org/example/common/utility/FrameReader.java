@@ -0,0 +1,112 @@
+package org.example.common.utility;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reassembles frames from the bytes read from a non-blocking channel.
+ * Bytes are accumulated across reads until a whole frame has arrived,
+ * so a frame may be split over any number of reads and one read may contain several frames.
+ * The bytes are accumulated in a pooled buffer, and the payloads of complete frames are handed out
+ * as views of that buffer instead of copies.
+ * The buffer grows only as bytes actually arrive, so a frame header announcing a long payload allocates nothing by itself,
+ * and never beyond the size of the longest allowed frame: once it is full, reading stops until frames are extracted.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class FrameReader {
+
+    /**
+     * Initial capacity of the accumulation buffer.
+     */
+    private static final int INITIAL_CAPACITY = 8192;
+
+    /**
+     * Maximum capacity of the accumulation buffer, enough for the longest allowed frame.
+     */
+    private static final int MAX_CAPACITY = Frame.HEADER_SIZE + Frame.MAX_PAYLOAD_SIZE;
+
+    /**
+     * Pooled buffer accumulating the received bytes. Kept in write mode between calls.
+     */
+    private ByteBuffer buffer = BufferPool.acquire(INITIAL_CAPACITY);
+
+    /**
+     * Offset of the first accumulated byte which does not belong to an extracted frame.
+     */
+    private int readPosition = 0;
+
+    /**
+     * Reads the bytes currently available on the channel without blocking, as long as the buffer has room for them.
+     * Invalidates the payloads of the frames extracted before.
+     *
+     * @param channel The channel to read from.
+     * @return false if the peer has closed the connection, true otherwise.
+     * @throws IOException if an I/O error occurs during reading from the channel.
+     */
+    public boolean readFrom(ReadableByteChannel channel) throws IOException {
+        compact();
+        int read;
+        do {
+            if (!buffer.hasRemaining()) {
+                if (buffer.capacity() >= MAX_CAPACITY) return true;
+                grow();
+            }
+            read = channel.read(buffer);
+        } while (read > 0);
+        return read != -1;
+    }
+
+    /**
+     * Extracts the next complete frame from the accumulated bytes.
+     * The payload of the returned frame is a view of the accumulation buffer
+     * and stays valid only until the next call to this reader.
+     *
+     * @return The next frame, or null if no complete frame has arrived yet.
+     * @throws IOException if the frame header is corrupted.
+     */
+    public Frame nextFrame() throws IOException {
+        int available = buffer.position() - readPosition;
+        if (available < Frame.HEADER_SIZE) return null;
+        int length = buffer.getInt(readPosition);
+        Frame.validateLength(length);
+        int frameSize = Frame.HEADER_SIZE + length;
+        if (available < frameSize) return null;
+        byte flags = buffer.get(readPosition + Integer.BYTES);
+        ByteBuffer payload = buffer.slice(readPosition + Frame.HEADER_SIZE, length);
+        readPosition += frameSize;
+        return new Frame(flags, payload);
+    }
+
+    /**
+     * Returns the accumulation buffer to the pool. The reader must not be used afterwards.
+     */
+    public void release() {
+        BufferPool.release(buffer);
+        buffer = null;
+    }
+
+    /**
+     * Moves the bytes which do not belong to extracted frames to the start of the buffer.
+     */
+    private void compact() {
+        if (readPosition == 0) return;
+        buffer.flip().position(readPosition);
+        buffer.compact();
+        readPosition = 0;
+    }
+
+    /**
+     * Replaces the accumulation buffer with a pooled one twice as large, but not larger than allowed,
+     * keeping the accumulated bytes.
+     */
+    private void grow() {
+        ByteBuffer grown = BufferPool.acquire(Math.min(MAX_CAPACITY, buffer.capacity() * 2));
+        grown.put(buffer.flip());
+        BufferPool.release(buffer);
+        buffer = grown;
+    }
+}
@@ -0,0 +1,184 @@
+package org.example.common.utility;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+
+/**
+ * Represents the connection settings negotiated right after the client connects.
+ * The client sends the options it supports in the first frame of the connection,
+ * and the server answers with the subset of them it agrees to use.
+ * The client also names the wire format it prefers, and the server answers with the format both sides will use,
+ * falling back to Java serialization if it does not know the preferred one; peers which send no format use it as well.
+ * An overloaded server rejects the connection instead, telling the client when to retry.
+ * Handshake frames bypass the serialization session, so they can be exchanged before any message.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class Handshake {
+
+    /**
+     * Option bit of payload compression, see {@link CompressionManager}.
+     */
+    public static final byte OPTION_COMPRESSION = 1;
+
+    /**
+     * Option bit set by the server when it rejects the connection.
+     */
+    public static final byte OPTION_REJECTED = 2;
+
+    /**
+     * Set of option bits.
+     */
+    private final byte options;
+
+    /**
+     * Number of milliseconds after which a rejected client may reconnect.
+     */
+    private final int retryAfter;
+
+    /**
+     * Number of milliseconds between the heartbeats the server expects from an idle client, or 0 if none are expected.
+     */
+    private final int heartbeatInterval;
+
+    /**
+     * Identifier of the wire format offered or agreed on, see {@link CodecManager}.
+     */
+    private final byte codec;
+
+    /**
+     * Constructs a Handshake with the given options.
+     *
+     * @param options The set of option bits.
+     */
+    public Handshake(byte options) {
+        this(options, 0, 0, CodecManager.JAVA);
+    }
+
+    /**
+     * Constructs a Handshake with the given options offering the given wire format.
+     *
+     * @param options The set of option bits.
+     * @param codec The identifier of the preferred wire format.
+     */
+    public Handshake(byte options, byte codec) {
+        this(options, 0, 0, codec);
+    }
+
+    /**
+     * Constructs a Handshake with the given options, reconnection delay, heartbeat interval and wire format.
+     *
+     * @param options The set of option bits.
+     * @param retryAfter Number of milliseconds after which a rejected client may reconnect.
+     * @param heartbeatInterval Number of milliseconds between the heartbeats of an idle client.
+     * @param codec The identifier of the wire format.
+     */
+    private Handshake(byte options, int retryAfter, int heartbeatInterval, byte codec) {
+        this.options = options;
+        this.retryAfter = retryAfter;
+        this.heartbeatInterval = heartbeatInterval;
+        this.codec = codec;
+    }
+
+    /**
+     * Builds the answer of an overloaded server which does not admit the connection.
+     *
+     * @param retryAfter Number of milliseconds after which the client may reconnect.
+     * @return Handshake rejecting the connection.
+     */
+    public static Handshake rejection(int retryAfter) {
+        return new Handshake(OPTION_REJECTED, retryAfter, 0, CodecManager.JAVA);
+    }
+
+    /**
+     * Checks whether payload compression is offered or agreed on.
+     *
+     * @return true if the compression option is set, false otherwise.
+     */
+    public boolean isCompressionEnabled() {
+        return (options & OPTION_COMPRESSION) != 0;
+    }
+
+    /**
+     * Checks whether the server has rejected the connection.
+     *
+     * @return true if the rejection option is set, false otherwise.
+     */
+    public boolean isRejected() {
+        return (options & OPTION_REJECTED) != 0;
+    }
+
+    /**
+     * Retrieves the delay after which a rejected client may reconnect.
+     *
+     * @return Number of milliseconds to wait.
+     */
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Retrieves the interval of the heartbeats the server expects from an idle client.
+     *
+     * @return Number of milliseconds between heartbeats, or 0 if none are expected.
+     */
+    public int getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    /**
+     * Retrieves the wire format offered by the client or agreed on by the server.
+     *
+     * @return The identifier of the wire format, see {@link CodecManager}.
+     */
+    public byte getCodec() {
+        return codec;
+    }
+
+    /**
+     * Builds the answer of the server to this offer.
+     * The offered wire format is accepted if this version supports it, otherwise Java serialization is used.
+     *
+     * @param compressionAllowed Flag indicating whether the server allows compression.
+     * @param heartbeatInterval Number of milliseconds between the heartbeats expected from an idle client.
+     * @return Handshake containing the options both sides will use.
+     */
+    public Handshake accept(boolean compressionAllowed, int heartbeatInterval) {
+        byte accepted = 0;
+        if (compressionAllowed && isCompressionEnabled()) accepted |= OPTION_COMPRESSION;
+        return new Handshake(accepted, 0, heartbeatInterval, CodecManager.isSupported(codec) ? codec : CodecManager.JAVA);
+    }
+
+    /**
+     * Encodes the handshake into a frame ready to be written to the peer.
+     *
+     * @return ByteBuffer containing the handshake frame.
+     */
+    public ByteBuffer encode() {
+        ByteBuffer payload = ByteBuffer.allocate(2 * Byte.BYTES + 2 * Integer.BYTES)
+                .put(options).putInt(retryAfter).putInt(heartbeatInterval).put(codec);
+        return Frame.encode(Frame.FLAG_HANDSHAKE, payload.flip());
+    }
+
+    /**
+     * Decodes a handshake from a received frame.
+     *
+     * @param frame The received frame.
+     * @return The decoded Handshake.
+     * @throws IOException if the frame does not carry a handshake.
+     */
+    public static Handshake decode(Frame frame) throws IOException {
+        if (frame.getFlags() != Frame.FLAG_HANDSHAKE || !frame.getPayload().hasRemaining()) {
+            throw new StreamCorruptedException("Не удалось согласовать параметры соединения.");
+        }
+        ByteBuffer payload = frame.getPayload();
+        byte options = payload.get();
+        int retryAfter = payload.remaining() >= Integer.BYTES ? payload.getInt() : 0;
+        int heartbeatInterval = payload.remaining() >= Integer.BYTES ? payload.getInt() : 0;
+        byte codec = payload.hasRemaining() ? payload.get() : CodecManager.JAVA;
+        return new Handshake(options, retryAfter, heartbeatInterval, codec);
+    }
+}
@@ -0,0 +1,307 @@
+package org.example.common.utility;
+
+import org.example.common.collectionEntities.Car;
+import org.example.common.collectionEntities.Coordinates;
+import org.example.common.collectionEntities.HumanBeing;
+import org.example.common.collectionEntities.WeaponType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Encodes and decodes human beings in a compact hand-written binary form.
+ * Integers are written as variable-length quantities (zigzag-encoded when they may be negative),
+ * the weapon type as its ordinal, the creation date as seconds and nanoseconds since the epoch,
+ * and strings as length-prefixed UTF-8. All boolean fields and the presence of the optional fields
+ * share a single flags byte, so the coordinates and the car are written inline without class descriptors.
+ * A human being encoded this way typically takes a few dozen bytes instead of several hundred
+ * produced by default serialization.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class HumanBeingCodec {
+
+    /**
+     * Flag set when the human being is a real hero.
+     */
+    private static final int REAL_HERO = 1;
+
+    /**
+     * Flag set when the human being has a toothpick.
+     */
+    private static final int HAS_TOOTHPICK = 1 << 1;
+
+    /**
+     * Flag set when the creation date follows.
+     */
+    private static final int HAS_CREATION_DATE = 1 << 2;
+
+    /**
+     * Flag set when the waiting time follows.
+     */
+    private static final int HAS_MINUTES_OF_WAITING = 1 << 3;
+
+    /**
+     * Flag set when the weapon type follows.
+     */
+    private static final int HAS_WEAPON_TYPE = 1 << 4;
+
+    /**
+     * Flag set when the car follows.
+     */
+    private static final int HAS_CAR = 1 << 5;
+
+    /**
+     * Flag set when the car is cool.
+     */
+    private static final int COOL_CAR = 1 << 6;
+
+    /**
+     * Flag set when the coordinates follow.
+     */
+    private static final int HAS_COORDINATES = 1 << 7;
+
+    /**
+     * Weapon types indexed by their ordinals.
+     */
+    private static final WeaponType[] WEAPON_TYPES = WeaponType.values();
+
+    /**
+     * Writes a human being.
+     *
+     * @param out The destination of the encoded bytes.
+     * @param humanBeing The human being to encode.
+     * @throws IOException if an I/O error occurs while writing.
+     */
+    public static void write(DataOutput out, HumanBeing humanBeing) throws IOException {
+        Coordinates coordinates = humanBeing.getCoordinates();
+        Car car = humanBeing.getCar();
+        int flags = 0;
+        if (humanBeing.isRealHero()) flags |= REAL_HERO;
+        if (humanBeing.isHasToothpick()) flags |= HAS_TOOTHPICK;
+        if (humanBeing.getCreationDate() != null) flags |= HAS_CREATION_DATE;
+        if (humanBeing.getMinutesOfWaiting() != null) flags |= HAS_MINUTES_OF_WAITING;
+        if (humanBeing.getWeaponType() != null) flags |= HAS_WEAPON_TYPE;
+        if (car != null) flags |= HAS_CAR;
+        if (car != null && car.isCool()) flags |= COOL_CAR;
+        if (coordinates != null) flags |= HAS_COORDINATES;
+        out.writeByte(flags);
+
+        writeVarLong(out, zigzag(humanBeing.getId()));
+        writeString(out, humanBeing.getName());
+        if (coordinates != null) {
+            out.writeDouble(coordinates.getX());
+            writeVarLong(out, zigzag(coordinates.getY()));
+        }
+        if (humanBeing.getCreationDate() != null) {
+            LocalDateTime creationDate = humanBeing.getCreationDate();
+            writeVarLong(out, zigzag(creationDate.toEpochSecond(ZoneOffset.UTC)));
+            writeVarLong(out, creationDate.getNano());
+        }
+        writeVarLong(out, zigzag(humanBeing.getImpactSpeed()));
+        writeString(out, humanBeing.getSoundtrackName());
+        if (humanBeing.getMinutesOfWaiting() != null) out.writeDouble(humanBeing.getMinutesOfWaiting());
+        if (humanBeing.getWeaponType() != null) writeVarLong(out, humanBeing.getWeaponType().ordinal());
+        if (car != null) writeString(out, car.getName());
+    }
+
+    /**
+     * Reads a human being into an existing instance, replacing all of its fields.
+     *
+     * @param in The source of the encoded bytes.
+     * @param humanBeing The instance receiving the decoded fields.
+     * @throws IOException if an I/O error occurs while reading or the encoded data is malformed.
+     */
+    public static void read(DataInput in, HumanBeing humanBeing) throws IOException {
+        int flags = in.readUnsignedByte();
+
+        humanBeing.setId((int) unzigzag(readVarLong(in)));
+        humanBeing.setName(readString(in));
+        if ((flags & HAS_COORDINATES) != 0) {
+            double x = in.readDouble();
+            humanBeing.setCoordinates(new Coordinates.CoordinatesBuilder(x, unzigzag(readVarLong(in))).build());
+        } else {
+            humanBeing.setCoordinates(null);
+        }
+        if ((flags & HAS_CREATION_DATE) != 0) {
+            long epochSecond = unzigzag(readVarLong(in));
+            int nano = (int) readVarLong(in);
+            humanBeing.setCreationDate(LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+        } else {
+            humanBeing.setCreationDate(null);
+        }
+        humanBeing.setRealHero((flags & REAL_HERO) != 0);
+        humanBeing.setHasToothpick((flags & HAS_TOOTHPICK) != 0);
+        humanBeing.setImpactSpeed(unzigzag(readVarLong(in)));
+        humanBeing.setSoundtrackName(readString(in));
+        humanBeing.setMinutesOfWaiting((flags & HAS_MINUTES_OF_WAITING) != 0 ? in.readDouble() : null);
+        if ((flags & HAS_WEAPON_TYPE) != 0) {
+            long ordinal = readVarLong(in);
+            if (ordinal >= WEAPON_TYPES.length) throw new InvalidObjectException("Неизвестный тип оружия: " + ordinal);
+            humanBeing.setWeaponType(WEAPON_TYPES[(int) ordinal]);
+        } else {
+            humanBeing.setWeaponType(null);
+        }
+        if ((flags & HAS_CAR) != 0) {
+            humanBeing.setCar(new Car.CarBuilder(readString(in)).setCool((flags & COOL_CAR) != 0).build());
+        } else {
+            humanBeing.setCar(null);
+        }
+    }
+
+    /**
+     * Reads only the ID of an encoded human being.
+     *
+     * @param in The source of the encoded bytes.
+     * @return The ID.
+     * @throws IOException if an I/O error occurs while reading or the encoded data is malformed.
+     */
+    public static int readId(DataInput in) throws IOException {
+        in.readUnsignedByte();
+        return (int) unzigzag(readVarLong(in));
+    }
+
+    /**
+     * Reads only the name of an encoded human being, skipping the fields in front of it.
+     *
+     * @param in The source of the encoded bytes.
+     * @return The name.
+     * @throws IOException if an I/O error occurs while reading or the encoded data is malformed.
+     */
+    public static String readName(DataInput in) throws IOException {
+        readId(in);
+        return readString(in);
+    }
+
+    /**
+     * Reads only the car name of an encoded human being, skipping the fields in front of it without decoding them.
+     *
+     * @param in The source of the encoded bytes.
+     * @return The name of the car, or null if there is no car.
+     * @throws IOException if an I/O error occurs while reading or the encoded data is malformed.
+     */
+    public static String readCarName(DataInput in) throws IOException {
+        int flags = in.readUnsignedByte();
+        if ((flags & HAS_CAR) == 0) return null;
+        readVarLong(in);
+        skipString(in);
+        if ((flags & HAS_COORDINATES) != 0) {
+            in.skipBytes(Double.BYTES);
+            readVarLong(in);
+        }
+        if ((flags & HAS_CREATION_DATE) != 0) {
+            readVarLong(in);
+            readVarLong(in);
+        }
+        readVarLong(in);
+        skipString(in);
+        if ((flags & HAS_MINUTES_OF_WAITING) != 0) in.skipBytes(Double.BYTES);
+        if ((flags & HAS_WEAPON_TYPE) != 0) readVarLong(in);
+        return readString(in);
+    }
+
+    /**
+     * Writes a string as its UTF-8 length followed by its UTF-8 bytes.
+     * The length is shifted by one, so that zero denotes null.
+     *
+     * @param out The destination of the encoded bytes.
+     * @param value The string to write, may be null.
+     * @throws IOException if an I/O error occurs while writing.
+     */
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param in The source of the encoded bytes.
+     * @return The decoded string, or null.
+     * @throws IOException if an I/O error occurs while reading or the length is malformed.
+     */
+    static String readString(DataInput in) throws IOException {
+        long length = readVarLong(in);
+        if (length == 0) return null;
+        if (length - 1 > Frame.MAX_PAYLOAD_SIZE) throw new InvalidObjectException("Некорректная длина строки: " + (length - 1));
+        byte[] bytes = new byte[(int) (length - 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Skips a string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param in The source of the encoded bytes.
+     * @throws IOException if an I/O error occurs while reading or the string is truncated.
+     */
+    static void skipString(DataInput in) throws IOException {
+        long length = readVarLong(in);
+        if (length > 1 && in.skipBytes((int) Math.min(length - 1, Integer.MAX_VALUE)) < length - 1) throw new EOFException();
+    }
+
+    /**
+     * Writes an unsigned value seven bits at a time, least significant group first.
+     *
+     * @param out The destination of the encoded bytes.
+     * @param value The value to write, treated as unsigned.
+     * @throws IOException if an I/O error occurs while writing.
+     */
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads a value written by {@link #writeVarLong(DataOutput, long)}.
+     *
+     * @param in The source of the encoded bytes.
+     * @return The decoded value.
+     * @throws IOException if an I/O error occurs while reading or the value is longer than 64 bits.
+     */
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new InvalidObjectException("Некорректное число переменной длины.");
+    }
+
+    /**
+     * Maps a signed value to an unsigned one, so that values of small magnitude get short encodings.
+     *
+     * @param value The signed value.
+     * @return The zigzag-encoded value.
+     */
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Reverses {@link #zigzag(long)}.
+     *
+     * @param value The zigzag-encoded value.
+     * @return The signed value.
+     */
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -1,10 +1,14 @@
 package org.example.common.utility;
 
 import java.io.PrintStream;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * Utility class for managing console output, providing methods to display various types of messages.
  * This class simplifies the process of printing information, errors, and plain text to the console.
+ * In asynchronous mode messages are handed over to a single writer thread,
+ * so that threads serving clients never block on the console stream.
  *
  * @author Aerosolus
  * @version 1.0
@@ -17,13 +21,55 @@ public class PrintManager {
      */
     private static final PrintStream printStream = System.out;
 
+    /**
+     * Messages waiting to be printed by the writer thread in asynchronous mode.
+     */
+    private static final BlockingQueue<String> messageQueue = new LinkedBlockingQueue<>();
+
+    /**
+     * Flag indicating whether messages are printed by the writer thread.
+     */
+    private static volatile boolean asynchronous = false;
+
+    /**
+     * Writer thread printing the queued messages, or null while asynchronous output is off.
+     */
+    private static Thread writer;
+
+    /**
+     * Flag indicating whether the shutdown hook printing the queued messages has been registered.
+     */
+    private static boolean shutdownHookRegistered = false;
+
+    /**
+     * Switches asynchronous output on or off.
+     * The writer thread is started when asynchronous output is enabled,
+     * and the messages still queued at shutdown are printed before the JVM exits.
+     * Switching asynchronous output off stops the writer thread and prints the queued messages at once.
+     *
+     * @param enabled True to print messages from a separate writer thread, false to print them directly.
+     */
+    public static synchronized void setAsynchronous(boolean enabled) {
+        if (enabled && !asynchronous) {
+            writer = new Thread(PrintManager::writeMessages, "console-writer");
+            writer.setDaemon(true);
+            writer.start();
+            if (!shutdownHookRegistered) {
+                Runtime.getRuntime().addShutdownHook(new Thread(PrintManager::stopWriter));
+                shutdownHookRegistered = true;
+            }
+        }
+        asynchronous = enabled;
+        if (!enabled) stopWriter();
+    }
+
     /**
      * Prints an informational message to the console.
      *
      * @param message The message to be printed, typically used for logging.
      */
     public static void printInfoMessage(String message) {
-        printStream.println(message);
+        print(message);
     }
 
     /**
@@ -32,7 +78,7 @@ public class PrintManager {
      * @param message The error message to be displayed.
      */
     public static void printErr(String message) {
-        printStream.println("Ошибка: " + message);
+        print("Ошибка: " + message);
     }
 
     /**
@@ -45,4 +91,57 @@ public class PrintManager {
         return text;
     }
 
-}
\ No newline at end of file
+    /**
+     * Prints a line directly or queues it for the writer thread, depending on the current mode.
+     *
+     * @param line The line to print.
+     */
+    private static void print(String line) {
+        if (asynchronous) {
+            messageQueue.add(line);
+        } else {
+            printStream.println(line);
+        }
+    }
+
+    /**
+     * Body of the writer thread: prints queued messages in the order they were submitted.
+     */
+    private static void writeMessages() {
+        try {
+            while (true) {
+                printStream.println(messageQueue.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the writer thread and waits for it to print the message it has already taken,
+     * then prints the messages that are still queued, so that no message is printed twice or out of order.
+     */
+    private static synchronized void stopWriter() {
+        if (writer != null) {
+            writer.interrupt();
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        drainMessages();
+    }
+
+    /**
+     * Prints all messages that are still queued. Called only once the writer thread has stopped.
+     */
+    private static void drainMessages() {
+        String line;
+        while ((line = messageQueue.poll()) != null) {
+            printStream.println(line);
+        }
+        printStream.flush();
+    }
+}
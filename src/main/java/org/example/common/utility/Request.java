@@ -4,6 +4,7 @@ import org.example.common.DataManager;
 import org.example.common.collectionEntities.HumanBeing;
 
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * Represents a request object that encapsulates command information and parameters.
@@ -36,6 +37,21 @@ public class Request implements Serializable, DataManager {
      */
     private HumanBeing humanBeingArgument;
 
+    /**
+     * Requests of the commands executed as one batch, in execution order.
+     */
+    private List<Request> batch;
+
+    /**
+     * Correlation identifier, set by the client before sending and used to match the response to this request.
+     */
+    private long requestId;
+
+    /**
+     * Version of the collection already known to the client, or null if the client knows none.
+     */
+    private Long version;
+
     /**
      * Constructs a Request object with a given command name.
      *
@@ -108,6 +124,31 @@ public class Request implements Serializable, DataManager {
         this.humanBeingArgument = humanBeingArgument;
     }
 
+    /**
+     * Constructs a Request object carrying a batch of requests to be executed on the server in one pass.
+     *
+     * @param commandName Name of the command to be executed.
+     * @param batch Requests of the commands in the batch, in execution order.
+     */
+    public Request(String commandName, List<Request> batch) {
+        this.commandName = commandName;
+        this.batch = batch;
+    }
+
+    /**
+     * Constructs a Request object with all of its fields, as restored by a {@link org.example.common.Codec}.
+     *
+     * @param commandName Name of the command to be executed.
+     * @param argument Integer argument associated with the command.
+     * @param keyArgument Integer key argument associated with the command.
+     * @param humanBeingArgument HumanBeing object associated with the command.
+     * @param batch Requests of the commands in the batch, in execution order.
+     */
+    Request(String commandName, Integer argument, Integer keyArgument, HumanBeing humanBeingArgument, List<Request> batch) {
+        this(commandName, argument, keyArgument, humanBeingArgument);
+        this.batch = batch;
+    }
+
     /**
      * Retrieves the name of the command.
      *
@@ -144,6 +185,51 @@ public class Request implements Serializable, DataManager {
         return humanBeingArgument;
     }
 
+    /**
+     * Retrieves the requests of the commands executed as one batch.
+     *
+     * @return List of requests in execution order, or null if the request is not a batch.
+     */
+    public List<Request> getBatch() {
+        return batch;
+    }
+
+    /**
+     * Retrieves the correlation identifier of the request.
+     *
+     * @return The correlation identifier.
+     */
+    public long getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Sets the correlation identifier of the request.
+     *
+     * @param requestId The correlation identifier.
+     */
+    public void setRequestId(long requestId) {
+        this.requestId = requestId;
+    }
+
+    /**
+     * Retrieves the version of the collection already known to the client.
+     *
+     * @return The known version, or null if the client knows none.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the collection already known to the client.
+     *
+     * @param version The known version, or null if the client knows none.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Returns a string representation of the request data, including command name and relevant arguments.
      *
@@ -154,7 +240,9 @@ public class Request implements Serializable, DataManager {
         return "Имя команды для отправки: " + commandName
                 + (humanBeingArgument == null ? "" : ("\nДанные объекта HumanBeing для отправки:\n " + humanBeingArgument))
                 + (argument == null ? "" : ("\nЧисловой аргумент для отправки:\n " + argument))
-                + (keyArgument == null ? "" : ("\nАргумент-ключ команды для отправки:\n" + keyArgument));
+                + (keyArgument == null ? "" : ("\nАргумент-ключ команды для отправки:\n" + keyArgument))
+                + (version == null ? "" : ("\nИзвестная версия коллекции для отправки:\n" + version))
+                + (batch == null ? "" : ("\nКоличество команд в пакете для отправки:\n" + batch.size()));
     }
 
     /**
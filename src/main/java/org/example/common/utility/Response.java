@@ -5,6 +5,7 @@ import org.example.common.collectionEntities.HumanBeing;
 
 import java.io.Serializable;
 import java.util.LinkedHashMap;
+import java.util.List;
 
 /**
  * Represents a response object containing information for replying to a request.
@@ -32,6 +33,41 @@ public class Response implements Serializable, DataManager {
      */
     private LinkedHashMap<Integer, HumanBeing> responseCollection;
 
+    /**
+     * Responses to the commands of a batch request, in execution order.
+     */
+    private List<Response> batchResults;
+
+    /**
+     * Flag indicating that this response is a chunk of a longer response and more chunks follow.
+     */
+    private boolean partial;
+
+    /**
+     * Flag indicating that the response cached by the client for this request is still up to date.
+     */
+    private boolean notModified;
+
+    /**
+     * Number of milliseconds after which a rejected request may be repeated, or 0 if the request was not rejected.
+     */
+    private long retryAfter;
+
+    /**
+     * Correlation identifier, copied from the request this response answers.
+     */
+    private long requestId;
+
+    /**
+     * Keys removed from the collection since the version known to the client, or null if this is not a list of changes.
+     */
+    private List<Integer> removedKeys;
+
+    /**
+     * Version of the collection the response reflects, or 0 if it is unknown.
+     */
+    private long version;
+
     /**
      * Constructs a Response object with a given response message.
      *
@@ -81,6 +117,88 @@ public class Response implements Serializable, DataManager {
         this.responseCollection = responseCollection;
     }
 
+    /**
+     * Constructs a Response object with a given response message and the results of a batch of commands.
+     *
+     * @param responseMessage Message to be sent in response.
+     * @param batchResults Responses to the commands of the batch, in execution order.
+     */
+    public Response(String responseMessage, List<Response> batchResults) {
+        this.responseMessage = responseMessage;
+        this.batchResults = batchResults;
+    }
+
+    /**
+     * Constructs a Response object carrying one chunk of a response streamed in several parts.
+     *
+     * @param responseMessage Part of the message to be sent in response.
+     * @param partial true if more chunks follow this one, false if it is the last one.
+     */
+    public Response(String responseMessage, boolean partial) {
+        this.responseMessage = responseMessage;
+        this.partial = partial;
+    }
+
+    /**
+     * Constructs a Response object rejecting a request because the server is overloaded.
+     *
+     * @param responseMessage Message to be sent in response.
+     * @param retryAfter Number of milliseconds after which the request may be repeated.
+     */
+    public Response(String responseMessage, long retryAfter) {
+        this.responseMessage = responseMessage;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Constructs a Response object listing the changes of the collection since the version known to the client.
+     *
+     * @param responseMessage Message to be sent in response.
+     * @param responseCollection Inserted and updated elements by their keys.
+     * @param removedKeys Keys of the removed elements.
+     */
+    public Response(String responseMessage, LinkedHashMap<Integer, HumanBeing> responseCollection, List<Integer> removedKeys) {
+        this.responseMessage = responseMessage;
+        this.responseCollection = responseCollection;
+        this.removedKeys = removedKeys;
+    }
+
+    /**
+     * Constructs a Response object with all of its fields, as restored by a {@link org.example.common.Codec}.
+     *
+     * @param responseMessage Message to be sent in response.
+     * @param responseHumanBeing HumanBeing object to be included in the response.
+     * @param responseCollection Collection of HumanBeing objects to be included in the response.
+     * @param batchResults Results of the commands of a batch, in execution order.
+     * @param removedKeys Keys removed from the collection since the version known to the client.
+     * @param partial Flag indicating whether more chunks of the response follow.
+     * @param notModified Flag indicating whether the response cached by the client is still up to date.
+     * @param retryAfter Number of milliseconds after which a rejected request may be repeated.
+     */
+    Response(String responseMessage, HumanBeing responseHumanBeing, LinkedHashMap<Integer, HumanBeing> responseCollection,
+             List<Response> batchResults, List<Integer> removedKeys, boolean partial, boolean notModified, long retryAfter) {
+        this.responseMessage = responseMessage;
+        this.responseHumanBeing = responseHumanBeing;
+        this.responseCollection = responseCollection;
+        this.batchResults = batchResults;
+        this.removedKeys = removedKeys;
+        this.partial = partial;
+        this.notModified = notModified;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Builds the answer to a conditional request whose response, cached by the client, is still up to date.
+     * The answer carries no data; the client repeats its cached response instead.
+     *
+     * @return Response confirming the cached response.
+     */
+    public static Response notModified() {
+        Response response = new Response((String) null);
+        response.notModified = true;
+        return response;
+    }
+
     /**
      * Retrieves the message sent in response.
      *
@@ -109,6 +227,96 @@ public class Response implements Serializable, DataManager {
     }
 
 
+    /**
+     * Retrieves the responses to the commands of a batch request.
+     *
+     * @return List of responses in execution order, or null if the response does not answer a batch.
+     */
+    public List<Response> getBatchResults() {
+        return batchResults;
+    }
+
+    /**
+     * Checks whether more chunks of the response follow this one.
+     *
+     * @return true if this response is a non-final chunk, false otherwise.
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    /**
+     * Marks the response as a non-final or the final chunk, e.g. when it is streamed as part of a longer response.
+     *
+     * @param partial Flag indicating whether more chunks follow this one.
+     */
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+
+    /**
+     * Checks whether the response cached by the client for this request is still up to date.
+     *
+     * @return true if the client should repeat its cached response, false otherwise.
+     */
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    /**
+     * Retrieves the delay after which a rejected request may be repeated.
+     *
+     * @return Number of milliseconds to wait, or 0 if the request was not rejected.
+     */
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Retrieves the correlation identifier of the response.
+     *
+     * @return The correlation identifier.
+     */
+    public long getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Sets the correlation identifier of the response.
+     *
+     * @param requestId The correlation identifier.
+     */
+    public void setRequestId(long requestId) {
+        this.requestId = requestId;
+    }
+
+    /**
+     * Retrieves the keys removed from the collection since the version known to the client.
+     *
+     * @return List of removed keys, or null if this response does not list changes.
+     */
+    public List<Integer> getRemovedKeys() {
+        return removedKeys;
+    }
+
+    /**
+     * Retrieves the version of the collection the response reflects.
+     *
+     * @return The version, or 0 if it is unknown.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the collection the response reflects.
+     *
+     * @param version The version of the collection.
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     /**
      * Returns a string representation of the response data, including all relevant information.
      *
@@ -118,7 +326,22 @@ public class Response implements Serializable, DataManager {
     public String getData() {
         return (responseMessage == null ? "" : (getResponseMessage()))
                 + (responseHumanBeing == null ? "" : ("\nДанные объекта HumanBeing:\n" +  getResponseHumanBeing().toString()))
-                + (responseCollection == null ? "" : ("\nДанные коллекции:\n" + getResponseCollection()));
+                + (responseCollection == null ? "" : ("\nДанные коллекции:\n" + getResponseCollection()))
+                + (removedKeys == null ? "" : ("\nУдалённые ключи:\n" + removedKeys))
+                + (batchResults == null ? "" : batchResultsData());
+    }
+
+    /**
+     * Returns a string representation of the results of a batch, one command result after another.
+     *
+     * @return A formatted string containing the data of every batch result.
+     */
+    private String batchResultsData() {
+        StringBuilder sb = new StringBuilder();
+        for (Response result : batchResults) {
+            sb.append("\n").append(result.getData());
+        }
+        return sb.toString();
     }
 
     /**
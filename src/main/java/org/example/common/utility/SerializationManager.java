@@ -1,53 +1,249 @@
 package org.example.common.utility;
 
+import org.example.common.Codec;
 import org.example.common.DataManager;
 
 import java.io.*;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Manages serialization and deserialization of request and response objects.
- * Provides methods for converting between serialized byte buffers and object representations.
+ * Manages serialization and deserialization of request and response objects for a single connection
+ * with the standard Java object streams. This {@link Codec} is understood by every client and server version,
+ * so it is used whenever the peer does not negotiate another one.
+ * One object output stream and one object input stream are kept alive for the whole lifetime of the connection,
+ * so the stream header is transmitted only once instead of with every message.
+ * The output stream is reset at the start of every message, so the back-reference tables on both sides
+ * keep at most the objects of the latest message alive. The class descriptors survive the resets in tables of their own:
+ * a descriptor is transmitted in full the first time its class is used and as a number afterwards.
+ * Every serialized message becomes the payload of one frame, and every received frame payload holds exactly one message.
+ * Messages are serialized straight into pooled buffers with room for the frame header in front of them,
+ * so sending a message copies its bytes neither into an intermediate array nor into a separate frame buffer.
  *
  * @author Aerosolus
  * @version 1.0
  * @since 1.0
  */
-public class SerializationManager {
+public class SerializationManager implements Codec {
 
     /**
-     * Serializes a request object into a ByteBuffer.
+     * Stream collecting the bytes of the message being serialized.
+     */
+    private final ByteBufferOutputStream byteBufferOutputStream = new ByteBufferOutputStream(Frame.HEADER_SIZE);
+
+    /**
+     * Object output stream kept for the lifetime of the connection.
+     */
+    private final DescriptorCachingOutputStream objectOutputStream;
+
+    /**
+     * Stream feeding the payloads of received frames to the object input stream.
+     */
+    private final ByteBufferInputStream inputStream = new ByteBufferInputStream();
+
+    /**
+     * Object input stream kept for the lifetime of the connection.
+     * Created on the first read, because its constructor reads the stream header of the peer.
+     */
+    private DescriptorCachingInputStream objectInputStream;
+
+    /**
+     * Flag indicating whether a payload carrying the stream header has been produced.
+     */
+    private boolean headerTaken = false;
+
+    /**
+     * Flag indicating whether the last payload carries the stream header.
+     */
+    private boolean lastCarriesHeader;
+
+    /**
+     * Number of class descriptors written before the last payload.
+     */
+    private int descriptorsBeforeLast;
+
+    /**
+     * Constructs a SerializationManager for a connection.
+     *
+     * @throws IOException if the stream header cannot be written.
+     */
+    public SerializationManager() throws IOException {
+        this.objectOutputStream = new DescriptorCachingOutputStream(byteBufferOutputStream);
+    }
+
+    /**
+     * Retrieves the identifier of the Java serialization format.
+     *
+     * @return {@link CodecManager#JAVA}.
+     */
+    @Override
+    public byte getId() {
+        return CodecManager.JAVA;
+    }
+
+    /**
+     * Retrieves the name of the Java serialization format.
+     *
+     * @return The name of the format.
+     */
+    @Override
+    public String getName() {
+        return CodecManager.getName(CodecManager.JAVA);
+    }
+
+    /**
+     * Serializes an object into a pooled ByteBuffer.
+     * The first buffer produced for a connection also carries the stream header.
+     * The stream is reset before the object, so that the message does not refer back to earlier ones.
+     * The reset marker has to lead the message, because the peer reads it only when it starts reading an object.
      *
-     * @param request The request object to serialize.
-     * @return ByteBuffer containing the serialized request data.
+     * @param data The object to serialize.
+     * @return Pooled buffer containing the serialized data, ready to become a frame payload,
+     * with {@link Frame#HEADER_SIZE} free bytes in front of its position; see {@link Frame#encodeInPlace}.
      * @throws IOException if an I/O error occurs during serialization.
      */
-    public static ByteBuffer serializeRequest(DataManager request) throws IOException {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
-        objectOutputStream.writeObject(request);
+    @Override
+    public ByteBuffer encode(DataManager data) throws IOException {
+        lastCarriesHeader = !headerTaken;
+        headerTaken = true;
+        descriptorsBeforeLast = objectOutputStream.getDescriptorCount();
+        objectOutputStream.reset();
+        objectOutputStream.writeObject(data);
         objectOutputStream.flush();
-        // Create a byte buffer based on a byte array from a byte array
-        ByteBuffer bufToSend = ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
-        objectOutputStream.close();
-        byteArrayOutputStream.close();
-        return bufToSend;
+        return byteBufferOutputStream.takeMessage();
     }
 
     /**
-     * Deserializes a byte array representing a response object into a Response object.
+     * Forgets the payload returned by the last call to {@link #encode(DataManager)}, which is not going to be sent.
+     * The class descriptors first written in it are written in full again when they are next used,
+     * and the stream header it carried is put in front of the next payload.
+     */
+    @Override
+    public void discardLast() {
+        objectOutputStream.forgetDescriptors(descriptorsBeforeLast);
+        if (!lastCarriesHeader) return;
+        headerTaken = false;
+        byteBufferOutputStream.write((ObjectStreamConstants.STREAM_MAGIC >> 8) & 0xFF);
+        byteBufferOutputStream.write(ObjectStreamConstants.STREAM_MAGIC & 0xFF);
+        byteBufferOutputStream.write((ObjectStreamConstants.STREAM_VERSION >> 8) & 0xFF);
+        byteBufferOutputStream.write(ObjectStreamConstants.STREAM_VERSION & 0xFF);
+    }
+
+    /**
+     * Deserializes the object carried by a received frame payload.
      *
-     * @param acceptedBuf Byte array containing the serialized response data.
-     * @return Deserialized Response object.
+     * @param payload The payload of a received frame.
+     * @return Deserialized object.
      * @throws IOException if an I/O error occurs during deserialization.
      * @throws ClassNotFoundException if the class of the object cannot be found during deserialization.
      */
-    public static Response deSerializeResponse(byte[] acceptedBuf) throws IOException, ClassNotFoundException {
-        ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(acceptedBuf);
-        ObjectInputStream objectInputStream = new ObjectInputStream(byteArrayInputStream);
-        Response response = (Response) objectInputStream.readObject();
-        objectInputStream.close();
-        byteArrayInputStream.close();
-        return response;
+    @Override
+    public DataManager decode(ByteBuffer payload) throws IOException, ClassNotFoundException {
+        inputStream.setSource(payload);
+        if (objectInputStream == null) {
+            objectInputStream = new DescriptorCachingInputStream(inputStream);
+        }
+        return (DataManager) objectInputStream.readObject();
+    }
+
+    /**
+     * Object output stream remembering the class descriptors it has written across resets.
+     * A descriptor is preceded by its number; only a descriptor written for the first time follows its number.
+     */
+    private static class DescriptorCachingOutputStream extends ObjectOutputStream {
+
+        /**
+         * Numbers of the written class descriptors by class name.
+         */
+        private final Map<String, Integer> descriptorNumbers = new HashMap<>();
+
+        /**
+         * Constructs a DescriptorCachingOutputStream writing to the given stream.
+         *
+         * @param outputStream The stream receiving the serialized bytes.
+         * @throws IOException if the stream header cannot be written.
+         */
+        DescriptorCachingOutputStream(OutputStream outputStream) throws IOException {
+            super(outputStream);
+        }
+
+        /**
+         * Retrieves the number of class descriptors written so far.
+         *
+         * @return The number of written class descriptors.
+         */
+        int getDescriptorCount() {
+            return descriptorNumbers.size();
+        }
+
+        /**
+         * Forgets the class descriptors written after the given number of them, so that they are written in full again.
+         *
+         * @param count The number of class descriptors to keep.
+         */
+        void forgetDescriptors(int count) {
+            descriptorNumbers.values().removeIf(number -> number >= count);
+        }
+
+        /**
+         * Writes the number of a class descriptor, followed by the descriptor itself if it has not been written before.
+         *
+         * @param descriptor The class descriptor to write.
+         * @throws IOException if an I/O error occurs during writing.
+         */
+        @Override
+        protected void writeClassDescriptor(ObjectStreamClass descriptor) throws IOException {
+            Integer number = descriptorNumbers.get(descriptor.getName());
+            if (number != null) {
+                writeInt(number);
+                return;
+            }
+            writeInt(descriptorNumbers.size());
+            descriptorNumbers.put(descriptor.getName(), descriptorNumbers.size());
+            super.writeClassDescriptor(descriptor);
+        }
+    }
+
+    /**
+     * Object input stream reading the class descriptors written by {@link DescriptorCachingOutputStream}.
+     */
+    private static class DescriptorCachingInputStream extends ObjectInputStream {
+
+        /**
+         * Class descriptors read so far, by number.
+         */
+        private final List<ObjectStreamClass> descriptors = new ArrayList<>();
+
+        /**
+         * Constructs a DescriptorCachingInputStream reading from the given stream.
+         *
+         * @param inputStream The stream supplying the serialized bytes.
+         * @throws IOException if the stream header cannot be read.
+         */
+        DescriptorCachingInputStream(InputStream inputStream) throws IOException {
+            super(inputStream);
+        }
+
+        /**
+         * Reads the number of a class descriptor, followed by the descriptor itself if it is a new one.
+         *
+         * @return The class descriptor.
+         * @throws IOException if the number is unknown or an I/O error occurs during reading.
+         * @throws ClassNotFoundException if the class of a new descriptor cannot be found.
+         */
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+            int number = readInt();
+            if (number < descriptors.size() && number >= 0) return descriptors.get(number);
+            if (number != descriptors.size()) {
+                throw new StreamCorruptedException("Неизвестный номер описания класса: " + number);
+            }
+            ObjectStreamClass descriptor = super.readClassDescriptor();
+            descriptors.add(descriptor);
+            return descriptor;
+        }
     }
 }
@@ -0,0 +1,512 @@
+package org.example.common.utility;
+
+import org.example.common.Codec;
+import org.example.common.DataManager;
+import org.example.common.collectionEntities.Car;
+import org.example.common.collectionEntities.Coordinates;
+import org.example.common.collectionEntities.HumanBeing;
+import org.example.common.collectionEntities.WeaponType;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Human-readable UTF-8 wire format meant for debugging, so that the traffic can be read in a packet dump.
+ * Every object is written as a line with its type and an opening brace, one line per field and a closing brace:
+ * <pre>
+ * Request {
+ * requestId=1
+ * commandName=insert
+ * keyArgument=7
+ * humanBeingArgument HumanBeing {
+ * name=Ivan
+ * ...
+ * }
+ * }
+ * </pre>
+ * Fields holding null are omitted, nested objects are written in place, and line breaks and backslashes
+ * inside values are escaped. The format is several times larger and slower than {@link BinaryCodec}.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class TextCodec implements Codec {
+
+    /**
+     * Stream collecting the bytes of the message being encoded.
+     */
+    private final ByteBufferOutputStream byteBufferOutputStream = new ByteBufferOutputStream(Frame.HEADER_SIZE);
+
+    /**
+     * Retrieves the identifier of the text format.
+     *
+     * @return {@link CodecManager#TEXT}.
+     */
+    @Override
+    public byte getId() {
+        return CodecManager.TEXT;
+    }
+
+    /**
+     * Retrieves the name of the text format.
+     *
+     * @return The name of the format.
+     */
+    @Override
+    public String getName() {
+        return CodecManager.getName(CodecManager.TEXT);
+    }
+
+    /**
+     * Encodes a request or a response into a pooled ByteBuffer.
+     *
+     * @param data The request or response to encode.
+     * @return Pooled buffer containing the encoded message, with {@link Frame#HEADER_SIZE} free bytes in front of it.
+     * @throws IOException if the object is neither a request nor a response.
+     */
+    @Override
+    public ByteBuffer encode(DataManager data) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        if (data instanceof Request request) {
+            writeRequest(sb, request);
+        } else if (data instanceof Response response) {
+            writeResponse(sb, response);
+        } else {
+            throw new InvalidObjectException("Неподдерживаемый тип сообщения: " + data.getClass().getSimpleName());
+        }
+        byteBufferOutputStream.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+        return byteBufferOutputStream.takeMessage();
+    }
+
+    /**
+     * Decodes the request or response carried by a received frame payload.
+     *
+     * @param payload The payload of a received frame.
+     * @return The decoded request or response.
+     * @throws IOException if the payload is malformed.
+     */
+    @Override
+    public DataManager decode(ByteBuffer payload) throws IOException {
+        String[] lines = StandardCharsets.UTF_8.decode(payload).toString().split("\n");
+        int[] position = {0};
+        Node node = Node.parse(lines, position, lines.length == 0 ? "" : lines[0]);
+        if (position[0] != lines.length) throw new StreamCorruptedException("Лишние данные в конце сообщения.");
+        if (node.type.equals("Request")) return toRequest(node);
+        if (node.type.equals("Response")) return toResponse(node);
+        throw new StreamCorruptedException("Неизвестный тип сообщения: " + node.type);
+    }
+
+    /**
+     * Writes a request and the requests of its batch.
+     *
+     * @param sb The builder receiving the text.
+     * @param request The request to write.
+     */
+    private static void writeRequest(StringBuilder sb, Request request) {
+        sb.append("Request {\n");
+        writeField(sb, "requestId", request.getRequestId());
+        writeField(sb, "commandName", request.getCommandName());
+        writeField(sb, "argument", request.getArgument());
+        writeField(sb, "keyArgument", request.getKeyArgument());
+        writeField(sb, "version", request.getVersion());
+        if (request.getHumanBeingArgument() != null) {
+            sb.append("humanBeingArgument ");
+            writeHumanBeing(sb, request.getHumanBeingArgument());
+        }
+        if (request.getBatch() != null) {
+            writeField(sb, "batch", request.getBatch().size());
+            for (Request nested : request.getBatch()) {
+                sb.append("batch ");
+                writeRequest(sb, nested);
+            }
+        }
+        sb.append("}\n");
+    }
+
+    /**
+     * Writes a response and the responses of its batch.
+     *
+     * @param sb The builder receiving the text.
+     * @param response The response to write.
+     */
+    private static void writeResponse(StringBuilder sb, Response response) {
+        sb.append("Response {\n");
+        writeField(sb, "requestId", response.getRequestId());
+        writeField(sb, "responseMessage", response.getResponseMessage());
+        if (response.isPartial()) writeField(sb, "partial", true);
+        if (response.isNotModified()) writeField(sb, "notModified", true);
+        if (response.getRetryAfter() != 0) writeField(sb, "retryAfter", response.getRetryAfter());
+        if (response.getVersion() != 0) writeField(sb, "version", response.getVersion());
+        if (response.getRemovedKeys() != null) {
+            StringBuilder keys = new StringBuilder();
+            for (Integer key : response.getRemovedKeys()) {
+                if (keys.length() > 0) keys.append(',');
+                keys.append(key);
+            }
+            writeField(sb, "removedKeys", keys);
+        }
+        if (response.getResponseHumanBeing() != null) {
+            sb.append("responseHumanBeing ");
+            writeHumanBeing(sb, response.getResponseHumanBeing());
+        }
+        if (response.getResponseCollection() != null) {
+            writeField(sb, "responseCollection", response.getResponseCollection().size());
+            for (Map.Entry<Integer, HumanBeing> entry : response.getResponseCollection().entrySet()) {
+                sb.append("responseCollection[").append(entry.getKey()).append("] ");
+                writeHumanBeing(sb, entry.getValue());
+            }
+        }
+        if (response.getBatchResults() != null) {
+            writeField(sb, "batchResults", response.getBatchResults().size());
+            for (Response nested : response.getBatchResults()) {
+                sb.append("batchResults ");
+                writeResponse(sb, nested);
+            }
+        }
+        sb.append("}\n");
+    }
+
+    /**
+     * Writes a human being together with its coordinates and car.
+     *
+     * @param sb The builder receiving the text.
+     * @param humanBeing The human being to write.
+     */
+    private static void writeHumanBeing(StringBuilder sb, HumanBeing humanBeing) {
+        sb.append("HumanBeing {\n");
+        writeField(sb, "id", humanBeing.getId());
+        writeField(sb, "name", humanBeing.getName());
+        if (humanBeing.getCoordinates() != null) {
+            sb.append("coordinates Coordinates {\n");
+            writeField(sb, "x", humanBeing.getCoordinates().getX());
+            writeField(sb, "y", humanBeing.getCoordinates().getY());
+            sb.append("}\n");
+        }
+        writeField(sb, "creationDate", humanBeing.getCreationDate());
+        writeField(sb, "realHero", humanBeing.isRealHero());
+        writeField(sb, "hasToothpick", humanBeing.isHasToothpick());
+        writeField(sb, "impactSpeed", humanBeing.getImpactSpeed());
+        writeField(sb, "soundtrackName", humanBeing.getSoundtrackName());
+        writeField(sb, "minutesOfWaiting", humanBeing.getMinutesOfWaiting());
+        writeField(sb, "weaponType", humanBeing.getWeaponType());
+        if (humanBeing.getCar() != null) {
+            sb.append("car Car {\n");
+            writeField(sb, "name", humanBeing.getCar().getName());
+            writeField(sb, "cool", humanBeing.getCar().isCool());
+            sb.append("}\n");
+        }
+        sb.append("}\n");
+    }
+
+    /**
+     * Writes a field as a {@code name=value} line, escaping line breaks and backslashes. Null values are omitted.
+     *
+     * @param sb The builder receiving the text.
+     * @param name The name of the field.
+     * @param value The value of the field.
+     */
+    private static void writeField(StringBuilder sb, String name, Object value) {
+        if (value == null) return;
+        sb.append(name).append('=');
+        String text = value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                sb.append("\\\\");
+            } else if (c == '\n') {
+                sb.append("\\n");
+            } else if (c == '\r') {
+                sb.append("\\r");
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('\n');
+    }
+
+    /**
+     * Builds a request from its parsed text.
+     *
+     * @param node The parsed request.
+     * @return The decoded request.
+     * @throws IOException if a field is malformed.
+     */
+    private static Request toRequest(Node node) throws IOException {
+        List<Request> batch = null;
+        if (node.fields.containsKey("batch")) {
+            batch = new ArrayList<>();
+            for (Node nested : node.children("batch", "Request")) {
+                batch.add(toRequest(nested));
+            }
+        }
+        Node humanBeing = node.child("humanBeingArgument", "HumanBeing");
+        Request request = new Request(node.string("commandName"), node.integer("argument"), node.integer("keyArgument"),
+                humanBeing == null ? null : toHumanBeing(humanBeing), batch);
+        request.setRequestId(node.number("requestId", 0));
+        if (node.fields.containsKey("version")) request.setVersion(node.number("version", 0));
+        return request;
+    }
+
+    /**
+     * Builds a response from its parsed text.
+     *
+     * @param node The parsed response.
+     * @return The decoded response.
+     * @throws IOException if a field is malformed.
+     */
+    private static Response toResponse(Node node) throws IOException {
+        LinkedHashMap<Integer, HumanBeing> collection = null;
+        if (node.fields.containsKey("responseCollection")) {
+            collection = new LinkedHashMap<>();
+            for (Map.Entry<String, Node> child : node.children) {
+                String name = child.getKey();
+                if (!name.startsWith("responseCollection[") || !name.endsWith("]")) continue;
+                try {
+                    collection.put(Integer.parseInt(name.substring("responseCollection[".length(), name.length() - 1)),
+                            toHumanBeing(child.getValue()));
+                } catch (NumberFormatException e) {
+                    throw new StreamCorruptedException("Некорректный ключ элемента коллекции: " + name);
+                }
+            }
+        }
+        List<Response> batchResults = null;
+        if (node.fields.containsKey("batchResults")) {
+            batchResults = new ArrayList<>();
+            for (Node nested : node.children("batchResults", "Response")) {
+                batchResults.add(toResponse(nested));
+            }
+        }
+        List<Integer> removedKeys = null;
+        String removed = node.string("removedKeys");
+        if (removed != null) {
+            removedKeys = new ArrayList<>();
+            for (String key : removed.isEmpty() ? new String[0] : removed.split(",")) {
+                try {
+                    removedKeys.add(Integer.parseInt(key));
+                } catch (NumberFormatException e) {
+                    throw new StreamCorruptedException("Некорректный удалённый ключ: " + key);
+                }
+            }
+        }
+        Node humanBeing = node.child("responseHumanBeing", "HumanBeing");
+        Response response = new Response(node.string("responseMessage"), humanBeing == null ? null : toHumanBeing(humanBeing),
+                collection, batchResults, removedKeys, Boolean.parseBoolean(node.string("partial")),
+                Boolean.parseBoolean(node.string("notModified")), node.number("retryAfter", 0));
+        response.setRequestId(node.number("requestId", 0));
+        response.setVersion(node.number("version", 0));
+        return response;
+    }
+
+    /**
+     * Builds a human being from its parsed text.
+     *
+     * @param node The parsed human being.
+     * @return The decoded human being.
+     * @throws IOException if a field is malformed.
+     */
+    private static HumanBeing toHumanBeing(Node node) throws IOException {
+        HumanBeing humanBeing = new HumanBeing();
+        try {
+            humanBeing.setId((int) node.number("id", 0));
+            humanBeing.setName(node.string("name"));
+            Node coordinates = node.child("coordinates", "Coordinates");
+            if (coordinates != null) {
+                humanBeing.setCoordinates(new Coordinates.CoordinatesBuilder(Double.parseDouble(coordinates.string("x")),
+                        coordinates.number("y", 0)).build());
+            }
+            String creationDate = node.string("creationDate");
+            if (creationDate != null) humanBeing.setCreationDate(LocalDateTime.parse(creationDate));
+            humanBeing.setRealHero(Boolean.parseBoolean(node.string("realHero")));
+            humanBeing.setHasToothpick(Boolean.parseBoolean(node.string("hasToothpick")));
+            humanBeing.setImpactSpeed(node.number("impactSpeed", 0));
+            humanBeing.setSoundtrackName(node.string("soundtrackName"));
+            String minutesOfWaiting = node.string("minutesOfWaiting");
+            if (minutesOfWaiting != null) humanBeing.setMinutesOfWaiting(Double.parseDouble(minutesOfWaiting));
+            String weaponType = node.string("weaponType");
+            if (weaponType != null) humanBeing.setWeaponType(WeaponType.valueOf(weaponType));
+            Node car = node.child("car", "Car");
+            if (car != null) {
+                humanBeing.setCar(new Car.CarBuilder(car.string("name")).setCool(Boolean.parseBoolean(car.string("cool"))).build());
+            }
+        } catch (NullPointerException | IllegalArgumentException | DateTimeParseException e) {
+            throw new StreamCorruptedException("Некорректные данные объекта HumanBeing: " + e.getMessage());
+        }
+        return humanBeing;
+    }
+
+    /**
+     * Parsed object of the text format: its type, its scalar fields and its nested objects in order.
+     */
+    private static class Node {
+
+        /**
+         * Type written in front of the opening brace.
+         */
+        private final String type;
+
+        /**
+         * Unescaped values of the scalar fields by name.
+         */
+        private final Map<String, String> fields = new HashMap<>();
+
+        /**
+         * Nested objects with the names of the fields holding them, in order of appearance.
+         */
+        private final List<Map.Entry<String, Node>> children = new ArrayList<>();
+
+        /**
+         * Constructs an empty Node of the given type.
+         *
+         * @param type The type of the object.
+         */
+        private Node(String type) {
+            this.type = type;
+        }
+
+        /**
+         * Parses the object whose opening line has just been read, up to and including its closing brace.
+         *
+         * @param lines All lines of the message.
+         * @param position Single-element array holding the index of the opening line; advanced past the closing brace.
+         * @param header The opening line without the field name in front of it.
+         * @return The parsed object.
+         * @throws StreamCorruptedException if the text is malformed.
+         */
+        private static Node parse(String[] lines, int[] position, String header) throws StreamCorruptedException {
+            if (!header.endsWith(" {")) throw new StreamCorruptedException("Ожидалось начало объекта: " + header);
+            Node node = new Node(header.substring(0, header.length() - 2));
+            position[0]++;
+            while (position[0] < lines.length) {
+                String line = lines[position[0]];
+                if (line.equals("}")) {
+                    position[0]++;
+                    return node;
+                }
+                int equals = line.indexOf('=');
+                int space = line.indexOf(' ');
+                if (equals > 0 && (space < 0 || equals < space)) {
+                    node.fields.put(line.substring(0, equals), unescape(line.substring(equals + 1)));
+                    position[0]++;
+                } else if (space > 0) {
+                    node.children.add(Map.entry(line.substring(0, space), parse(lines, position, line.substring(space + 1))));
+                } else {
+                    throw new StreamCorruptedException("Некорректная строка сообщения: " + line);
+                }
+            }
+            throw new StreamCorruptedException("Сообщение оборвано.");
+        }
+
+        /**
+         * Reverses the escaping of a field value.
+         *
+         * @param value The escaped value.
+         * @return The original value.
+         * @throws StreamCorruptedException if the value contains an unknown escape sequence.
+         */
+        private static String unescape(String value) throws StreamCorruptedException {
+            if (value.indexOf('\\') < 0) return value;
+            StringBuilder sb = new StringBuilder(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char next = ++i < value.length() ? value.charAt(i) : 0;
+                if (next == '\\') {
+                    sb.append('\\');
+                } else if (next == 'n') {
+                    sb.append('\n');
+                } else if (next == 'r') {
+                    sb.append('\r');
+                } else {
+                    throw new StreamCorruptedException("Некорректная экранированная последовательность: " + value);
+                }
+            }
+            return sb.toString();
+        }
+
+        /**
+         * Retrieves the value of a scalar field.
+         *
+         * @param name The name of the field.
+         * @return The value, or null if the field is absent.
+         */
+        private String string(String name) {
+            return fields.get(name);
+        }
+
+        /**
+         * Retrieves the value of an integer field.
+         *
+         * @param name The name of the field.
+         * @return The value, or null if the field is absent.
+         * @throws StreamCorruptedException if the value is not an integer.
+         */
+        private Integer integer(String name) throws StreamCorruptedException {
+            return fields.containsKey(name) ? (int) number(name, 0) : null;
+        }
+
+        /**
+         * Retrieves the value of a long field.
+         *
+         * @param name The name of the field.
+         * @param defaultValue The value used if the field is absent.
+         * @return The value of the field.
+         * @throws StreamCorruptedException if the value is not a number.
+         */
+        private long number(String name, long defaultValue) throws StreamCorruptedException {
+            String value = fields.get(name);
+            if (value == null) return defaultValue;
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new StreamCorruptedException("Некорректное число в поле " + name + ": " + value);
+            }
+        }
+
+        /**
+         * Retrieves the single nested object held by a field.
+         *
+         * @param name The name of the field.
+         * @param type The expected type of the object.
+         * @return The nested object, or null if the field is absent.
+         * @throws StreamCorruptedException if the object has another type.
+         */
+        private Node child(String name, String type) throws StreamCorruptedException {
+            List<Node> nodes = children(name, type);
+            return nodes.isEmpty() ? null : nodes.get(0);
+        }
+
+        /**
+         * Retrieves all nested objects held by fields with the given name, in order of appearance.
+         *
+         * @param name The name of the fields.
+         * @param type The expected type of the objects.
+         * @return The nested objects.
+         * @throws StreamCorruptedException if an object has another type.
+         */
+        private List<Node> children(String name, String type) throws StreamCorruptedException {
+            List<Node> nodes = new ArrayList<>();
+            for (Map.Entry<String, Node> child : children) {
+                if (!child.getKey().equals(name)) continue;
+                if (!child.getValue().type.equals(type)) {
+                    throw new StreamCorruptedException("Ожидался объект " + type + " в поле " + name);
+                }
+                nodes.add(child.getValue());
+            }
+            return nodes;
+        }
+    }
+}
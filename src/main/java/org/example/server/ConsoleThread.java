@@ -2,6 +2,9 @@ package org.example.server;
 
 import org.example.common.collectionEntities.HumanBeing;
 import org.example.common.utility.PrintManager;
+import org.example.server.utility.AdmissionController;
+import org.example.server.utility.CodecStatistics;
+import org.example.server.utility.ConnectionReaper;
 
 import java.util.LinkedHashMap;
 import java.util.NoSuchElementException;
@@ -9,7 +12,7 @@ import java.util.Scanner;
 
 /**
  * Represents a console thread for server operations.
- * This thread handles user input and executes commands related to saving and exiting the server application.
+ * This thread handles user input and executes commands related to saving, monitoring and exiting the server application.
  *
  * @author Aerosolus
  * @version 1.0
@@ -40,12 +43,16 @@ public class ConsoleThread extends Thread{
             while (running) {
                 String line = scanner.nextLine();
                 if ("save".equalsIgnoreCase(line.toLowerCase().trim())) {
-                    ServerApplication.fileManager.writeCollection(ServerApplication.collectionManager.getCollection());
+                    ServerApplication.collectionManager.writeTo(ServerApplication.fileManager);
+                } else if ("stats".equalsIgnoreCase(line.toLowerCase().trim())) {
+                    PrintManager.printInfoMessage(AdmissionController.getStatistics() + "\n" + ConnectionReaper.getStatistics()
+                            + "\n" + CodecStatistics.getStatistics());
                 } else if ("exit".equalsIgnoreCase(line.toLowerCase().trim())) {
-                    PrintManager.printInfoMessage("Работа сервера завершена.");
+                    running = false;
+                    ServerApplication.shutdown();
                     System.exit(0);
                 } else {
-                    PrintManager.printErr("Такой команды не существует. Напишите 'save' или 'exit'.");
+                    PrintManager.printErr("Такой команды не существует. Напишите 'save', 'stats' или 'exit'.");
                 }
             }
         } catch (NoSuchElementException e) {
@@ -0,0 +1,247 @@
+package org.example.server;
+
+import org.example.common.utility.PrintManager;
+import org.example.common.utility.Request;
+import org.example.common.utility.Response;
+import org.example.server.exceptions.DisconnectException;
+import org.example.server.utility.ConnectionReaper;
+import org.example.server.utility.ServerSocketChannelIOManager;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a selector-based event loop serving many client connections on a single thread.
+ * Accepted channels are handed over to the loop, which multiplexes their reads and writes
+ * so that an idle client costs neither a thread nor a blocked stack.
+ * The loop periodically sweeps its connections and closes the ones which have been silent for too long.
+ * At shutdown the loop stops reading requests, finishes writing the pending responses until the deadline
+ * and closes its connections.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class EventLoop extends Thread {
+
+    /**
+     * Selector watching the channels of this loop.
+     */
+    private final Selector selector;
+
+    /**
+     * Accepted channels waiting to be registered with the selector.
+     */
+    private final Queue<SocketChannel> pendingChannels = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The {@link System#nanoTime()} until which pending responses are written at shutdown.
+     */
+    private volatile long shutdownDeadline;
+
+    /**
+     * Constructs a new EventLoop with its own selector.
+     *
+     * @param number Ordinal number of the loop, used in the thread name.
+     * @throws IOException if the selector cannot be opened.
+     */
+    public EventLoop(int number) throws IOException {
+        super("event-loop-" + number);
+        this.selector = Selector.open();
+        setDaemon(true);
+    }
+
+    /**
+     * Hands an accepted channel over to this loop.
+     * The channel is registered by the loop thread itself on its next iteration.
+     *
+     * @param channel The accepted client channel.
+     */
+    public void addChannel(SocketChannel channel) {
+        pendingChannels.add(channel);
+        selector.wakeup();
+    }
+
+    /**
+     * Asks the loop to stop once its current iteration is finished.
+     * The server must already be marked as not running.
+     *
+     * @param deadline The {@link System#nanoTime()} until which pending responses are written.
+     */
+    public void shutdown(long deadline) {
+        shutdownDeadline = deadline;
+        selector.wakeup();
+    }
+
+    /**
+     * Runs the loop, processing ready channels until the server stops, then drains and closes the channels.
+     */
+    @Override
+    public void run() {
+        long nextSweep = System.nanoTime();
+        while (ServerApplication.running) {
+            try {
+                selector.select(ConnectionReaper.SWEEP_INTERVAL_MILLIS);
+                registerPendingChannels();
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    processKey(key);
+                }
+                long now = System.nanoTime();
+                if (now - nextSweep >= 0) {
+                    sweepIdleChannels(now);
+                    nextSweep = now + TimeUnit.MILLISECONDS.toNanos(ConnectionReaper.SWEEP_INTERVAL_MILLIS);
+                }
+            } catch (IOException e) {
+                PrintManager.printErr(e.getMessage());
+            }
+        }
+        drainChannels();
+    }
+
+    /**
+     * Writes the pending responses of all channels until there are none left or the shutdown deadline passes,
+     * then closes the channels and the selector. No more requests are read.
+     */
+    private void drainChannels() {
+        try {
+            while (true) {
+                int busyChannels = 0;
+                for (SelectionKey key : selector.keys()) {
+                    if (!key.isValid()) continue;
+                    ServerSocketChannelIOManager socketIOManager = (ServerSocketChannelIOManager) key.attachment();
+                    try {
+                        socketIOManager.flush();
+                    } catch (IOException e) {
+                        closeQuietly(socketIOManager);
+                        continue;
+                    }
+                    if (socketIOManager.isBusy()) {
+                        key.interestOps(SelectionKey.OP_WRITE);
+                        busyChannels++;
+                    } else {
+                        closeQuietly(socketIOManager);
+                    }
+                }
+                long remaining = shutdownDeadline - System.nanoTime();
+                if (busyChannels == 0 || remaining <= 0) break;
+                selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+                selector.selectedKeys().clear();
+            }
+            for (SelectionKey key : selector.keys()) {
+                if (key.isValid()) closeQuietly((ServerSocketChannelIOManager) key.attachment());
+            }
+            SocketChannel channel;
+            while ((channel = pendingChannels.poll()) != null) {
+                channel.close();
+            }
+            selector.close();
+        } catch (IOException e) {
+            PrintManager.printErr(e.getMessage());
+        }
+    }
+
+    /**
+     * Registers all channels handed over since the previous iteration.
+     *
+     * @throws IOException if a channel cannot be switched to non-blocking mode.
+     */
+    private void registerPendingChannels() throws IOException {
+        SocketChannel channel;
+        while ((channel = pendingChannels.poll()) != null) {
+            channel.configureBlocking(false);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new ServerSocketChannelIOManager(key));
+        }
+    }
+
+    /**
+     * Closes the channels which have been silent for longer than the idle timeout.
+     * Ready channels are processed before the sweep, so traffic which has arrived in the meantime is never missed.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     */
+    private void sweepIdleChannels(long now) {
+        for (SelectionKey key : selector.keys()) {
+            if (!key.isValid()) continue;
+            ServerSocketChannelIOManager socketIOManager = (ServerSocketChannelIOManager) key.attachment();
+            if (socketIOManager.isExpired(now)) {
+                PrintManager.printInfoMessage("Клиент не отвечает, соединение закрыто.");
+                ConnectionReaper.recordReaped();
+                closeQuietly(socketIOManager);
+            }
+        }
+    }
+
+    /**
+     * Processes a single ready key: flushes pending responses and serves every complete request.
+     * Requests are served only while no earlier response is still being written, so responses keep their order;
+     * meanwhile the channel is not watched for reading, so the requests sent ahead wait in the socket buffer.
+     *
+     * @param key The ready selection key.
+     */
+    private void processKey(SelectionKey key) {
+        ServerSocketChannelIOManager socketIOManager = (ServerSocketChannelIOManager) key.attachment();
+        try {
+            if (key.isValid() && key.isWritable()) {
+                socketIOManager.flush();
+            }
+            boolean open = true;
+            if (key.isValid() && key.isReadable()) {
+                open = socketIOManager.readAvailable();
+            }
+            Request request;
+            while (!socketIOManager.isBusy() && (request = (Request) socketIOManager.receive()) != null) {
+                if (request.getCommandName().equals("exit")) {
+                    PrintManager.printInfoMessage("Отключение клиента.");
+                    socketIOManager.close();
+                    return;
+                }
+                if (!ServerApplication.beginRequest()) {
+                    Response response = ServerApplication.shutdownResponse();
+                    response.setRequestId(request.getRequestId());
+                    socketIOManager.send(response);
+                    return;
+                }
+                try {
+                    socketIOManager.sendStream(ServerApplication.handleRequest(request));
+                } finally {
+                    ServerApplication.endRequest();
+                }
+                PrintManager.printInfoMessage("Сервер отправил ответ клиенту.");
+            }
+            if (!open) {
+                PrintManager.printInfoMessage("Клиент внезапно отключился.");
+                socketIOManager.close();
+            }
+        } catch (DisconnectException e) {
+            closeQuietly(socketIOManager);
+            PrintManager.printErr(e.getMessage());
+            ServerApplication.stop(1);
+        } catch (IOException | ClassNotFoundException e) {
+            PrintManager.printInfoMessage("Клиент внезапно отключился.");
+            closeQuietly(socketIOManager);
+        }
+    }
+
+    /**
+     * Closes a client channel, reporting a failure instead of propagating it.
+     *
+     * @param socketIOManager The manager of the channel to close.
+     */
+    private static void closeQuietly(ServerSocketChannelIOManager socketIOManager) {
+        try {
+            socketIOManager.close();
+        } catch (IOException e) {
+            PrintManager.printErr("Ошибка при закрытии сокета: " + e.getMessage());
+        }
+    }
+}
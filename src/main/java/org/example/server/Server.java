@@ -5,10 +5,12 @@ import org.example.server.utility.FileManager;
 
 import java.io.IOException;
 import java.net.BindException;
-import java.net.ServerSocket;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
 import java.util.Locale;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
+import java.util.concurrent.Executors;
 
 /**
  * Main class responsible for launching the server application.
@@ -26,9 +28,14 @@ public class Server {
     static String fileName;
 
     /**
-     * ServerSocket object used for listening to incoming client connections.
+     * ServerSocketChannel object used for listening to incoming client connections.
      */
-    private static ServerSocket serverSocket;
+    private static ServerSocketChannel serverChannel;
+
+    /**
+     * Mode in which the server serves its client connections.
+     */
+    private static ServerMode serverMode;
 
     /**
      * Entry point of the server application.
@@ -39,12 +46,22 @@ public class Server {
      */
     public static void main(String[] args) {
         try {
+            PrintManager.setAsynchronous(true);
             fileName = FileManager.getFileName();
             inputPort();
+            inputMode();
             ServerApplication.fileManager.readCollection();
+            // Registered only after the collection is loaded, so a failed start never overwrites the file
+            Runtime.getRuntime().addShutdownHook(new Thread(ServerApplication::shutdown, "shutdown-hook"));
             ConsoleThread consoleThread = new ConsoleThread();
             consoleThread.start();
-            ServerApplication.startServer(args, serverSocket);
+            switch (serverMode) {
+                case SELECTOR -> ServerApplication.startSelectorServer(serverChannel);
+                case VIRTUAL_THREADS -> ServerApplication.startServer(args, serverChannel.socket(),
+                        ServerApplication.newVirtualThreadExecutor());
+                default -> ServerApplication.startServer(args, serverChannel.socket(),
+                        Executors.newCachedThreadPool());
+            }
         } catch (IOException e) {
             PrintManager.printErr(e.getMessage());
         }
@@ -68,7 +85,7 @@ public class Server {
                     int portInt = Integer.parseInt(port);
                     if (portInt > 0 && portInt <= 65535) {
                         ServerApplication.PORT = portInt;
-                        serverSocket = new ServerSocket(portInt);
+                        serverChannel = ServerSocketChannel.open().bind(new InetSocketAddress(portInt));
                     } else {
                         PrintManager.printErr("Число не входит в установленные пределы, повторите ввод.");
                         inputPort();
@@ -78,7 +95,7 @@ public class Server {
                     inputPort();
                 }
             } else if ("y".equals(s)) {
-                serverSocket = new ServerSocket(ServerApplication.PORT);
+                serverChannel = ServerSocketChannel.open().bind(new InetSocketAddress(ServerApplication.PORT));
             } else {
                 PrintManager.printErr("Вы ввели недопустимый символ, попробуйте еще раз.");
                 inputPort();
@@ -97,4 +114,28 @@ public class Server {
             inputPort();
         }
     }
+
+    /**
+     * Prompts the user for the mode in which client connections are served.
+     */
+    private static void inputMode() {
+        Scanner scanner = ServerApplication.scanner;
+        PrintManager.printInfoMessage("Выберите режим обслуживания клиентов: [t] - поток на каждого клиента, [s] - селектор NIO, [v] - виртуальный поток на каждого клиента");
+        try {
+            String s = scanner.nextLine().trim().toLowerCase(Locale.ROOT);
+            if ("t".equals(s)) {
+                serverMode = ServerMode.THREAD_POOL;
+            } else if ("s".equals(s)) {
+                serverMode = ServerMode.SELECTOR;
+            } else if ("v".equals(s)) {
+                serverMode = ServerMode.VIRTUAL_THREADS;
+            } else {
+                PrintManager.printErr("Вы ввели недопустимый символ, попробуйте еще раз.");
+                inputMode();
+            }
+        } catch (NoSuchElementException e) {
+            PrintManager.printErr("Принудительное завершение работы.");
+            System.exit(1);
+        }
+    }
 }
@@ -7,13 +7,23 @@ import org.example.server.commands.*;
 import org.example.server.exceptions.DisconnectException;
 import org.example.server.utility.*;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Collections;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manages server operations, including connection setup, command execution, and client communication.
@@ -42,9 +52,39 @@ public class ServerApplication {
     public static CollectionManager collectionManager = new CollectionManager();
 
     /**
-     * Flag indicating whether the server is running.
+     * Flag indicating whether the server is running. Cleared once the shutdown has started.
      */
-    public static boolean running = true;
+    public static volatile boolean running = true;
+
+    /**
+     * Flag indicating whether the shutdown sequence has already been started.
+     */
+    private static final AtomicBoolean shutdownStarted = new AtomicBoolean();
+
+    /**
+     * Listening socket or channel, closed at shutdown to stop accepting connections.
+     */
+    private static volatile Closeable acceptor;
+
+    /**
+     * Event loops of the selector mode, or null in the other modes.
+     */
+    private static volatile EventLoop[] eventLoops;
+
+    /**
+     * Client sockets served by dedicated threads, closed at shutdown once their requests are finished.
+     */
+    private static final Set<Socket> clientSockets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of requests being executed or answered right now.
+     */
+    private static final AtomicInteger activeRequests = new AtomicInteger();
+
+    /**
+     * Monitor notified when the last active request is finished.
+     */
+    private static final Object requestsLock = new Object();
 
     /**
      * Command manager containing a list of commands for processing client requests.
@@ -64,7 +104,8 @@ public class ServerApplication {
             new PrintAscendingCommand(collectionManager),
             new PrintDescendingCommand(collectionManager),
             new UpdateCommand(collectionManager),
-            new PrintFieldDescendingCarCommand(collectionManager)
+            new PrintFieldDescendingCarCommand(collectionManager),
+            new ShowSinceCommand(collectionManager)
     );
 
     /**
@@ -74,17 +115,25 @@ public class ServerApplication {
 
     /**
      * Starts the server, initiating continuous listening for client connections.
+     * Every accepted connection is served by a separate task of the given executor.
+     * Connections beyond the limit are rejected without holding up the accepting thread, so the number of tasks stays bounded.
      *
      * @param args Command-line arguments.
      * @param serverSocket ServerSocket object listening on the specified port.
+     * @param executorService Executor running one task per client connection.
      * @throws IOException if input/output problems occur.
      */
-    static void startServer(String[] args, ServerSocket serverSocket) throws IOException {
+    static void startServer(String[] args, ServerSocket serverSocket, ExecutorService executorService) throws IOException {
+        acceptor = serverSocket;
         try {
             PrintManager.printInfoMessage("Сервер запущен.");
-            ExecutorService executorService = Executors.newCachedThreadPool();
             while (running) {
                 Socket clientSocket = serverSocket.accept();
+                if (!AdmissionController.tryAdmitConnection()) {
+                    AdmissionController.reject(clientSocket);
+                    continue;
+                }
+                clientSockets.add(clientSocket);
                 executorService.submit(() -> {
                     try {
                         startSelectorLoop(clientSocket, serverSocket);
@@ -92,16 +141,206 @@ public class ServerApplication {
                         PrintManager.printErr("Connection reset");
                     } catch (IOException | ClassNotFoundException | InterruptedException e) {
                         PrintManager.printErr(e.getMessage());
+                    } finally {
+                        clientSockets.remove(clientSocket);
+                        AdmissionController.releaseConnection();
                     }
                 });
             }
         } catch (IOException e) {
-            PrintManager.printErr("Не удается принять клиентское соединение: " + e.getMessage());
+            // Closing the listening socket at shutdown is expected
+            if (running) PrintManager.printErr("Не удается принять клиентское соединение: " + e.getMessage());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task.
+     * Falls back to a cached thread pool when the running Java version has no virtual threads.
+     *
+     * @return Executor running every task on its own virtual thread if possible.
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            // Looked up reflectively so that the server still runs on Java versions without virtual threads
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            PrintManager.printErr("Виртуальные потоки не поддерживаются этой версией Java. Используется пул потоков.");
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Starts the server in selector mode, multiplexing all client connections
+     * over a fixed set of event loops, one per available processor core.
+     *
+     * @param serverChannel ServerSocketChannel listening on the specified port.
+     * @throws IOException if the event loops cannot be created.
+     */
+    static void startSelectorServer(ServerSocketChannel serverChannel) throws IOException {
+        acceptor = serverChannel;
+        int loopsAmount = Runtime.getRuntime().availableProcessors();
+        EventLoop[] eventLoops = new EventLoop[loopsAmount];
+        for (int i = 0; i < loopsAmount; i++) {
+            eventLoops[i] = new EventLoop(i);
+            eventLoops[i].start();
+        }
+        ServerApplication.eventLoops = eventLoops;
+        try {
+            PrintManager.printInfoMessage("Сервер запущен. Количество циклов обработки событий: " + loopsAmount + ".");
+            int next = 0;
+            while (running) {
+                SocketChannel clientChannel = serverChannel.accept();
+                if (!AdmissionController.tryAdmitConnection()) {
+                    AdmissionController.reject(clientChannel.socket());
+                    continue;
+                }
+                eventLoops[next].addChannel(clientChannel);
+                next = (next + 1) % loopsAmount;
+            }
+        } catch (IOException e) {
+            // Closing the listening channel at shutdown is expected
+            if (running) PrintManager.printErr("Не удается принять клиентское соединение: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Marks the start of processing of a client request.
+     * Every successful call must be paired with {@link #endRequest()} once the response has been handed to the socket.
+     *
+     * @return true if the request may be processed, false if the server is shutting down.
+     */
+    public static boolean beginRequest() {
+        activeRequests.incrementAndGet();
+        if (running) return true;
+        endRequest();
+        return false;
+    }
+
+    /**
+     * Marks the end of processing of a client request.
+     */
+    public static void endRequest() {
+        if (activeRequests.decrementAndGet() == 0) {
+            synchronized (requestsLock) {
+                requestsLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Builds the response to a request received while the server is shutting down.
+     *
+     * @return Response telling the client that the request has not been executed.
+     */
+    public static Response shutdownResponse() {
+        return new Response("Сервер завершает работу, запрос не выполнен.");
+    }
+
+    /**
+     * Starts the shutdown sequence on a separate thread and terminates the JVM once it is complete.
+     * Returns at once, so it may be called from a thread the sequence waits for.
+     *
+     * @param status Exit status of the JVM.
+     */
+    public static void stop(int status) {
+        new Thread(() -> {
+            shutdown();
+            System.exit(status);
+        }, "shutdown").start();
+    }
+
+    /**
+     * Shuts the server down gracefully. Only the first call has an effect.
+     * Stops accepting connections, lets the requests being executed finish and their responses be written
+     * until the shutdown deadline, closes the client connections and saves the collection.
+     * Also run by the JVM shutdown hook, so the collection is saved on SIGTERM as well.
+     */
+    public static void shutdown() {
+        if (!shutdownStarted.compareAndSet(false, true)) return;
+        PrintManager.setAsynchronous(false);
+        PrintManager.printInfoMessage("Завершение работы сервера...");
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ServerSettings.SHUTDOWN_TIMEOUT_MILLIS);
+        running = false;
+        try {
+            if (acceptor != null) acceptor.close();
+        } catch (IOException e) {
+            PrintManager.printErr("Ошибка при закрытии сокета: " + e.getMessage());
+        }
+        try {
+            awaitActiveRequests(deadline);
+            EventLoop[] loops = eventLoops;
+            if (loops != null) {
+                for (EventLoop eventLoop : loops) {
+                    eventLoop.shutdown(deadline);
+                }
+                for (EventLoop eventLoop : loops) {
+                    eventLoop.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (activeRequests.get() > 0) {
+            PrintManager.printErr("Не все запросы завершены до истечения времени ожидания: " + activeRequests.get() + ".");
+        }
+        for (Socket socket : clientSockets) {
+            closeSocket(socket);
+        }
+        collectionManager.writeTo(fileManager);
+        PrintManager.printInfoMessage("Работа сервера завершена.");
+    }
+
+    /**
+     * Waits until no request is being processed or the deadline passes.
+     *
+     * @param deadline The {@link System#nanoTime()} after which waiting is abandoned.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    private static void awaitActiveRequests(long deadline) throws InterruptedException {
+        synchronized (requestsLock) {
+            long remaining;
+            while (activeRequests.get() > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(requestsLock, remaining);
+            }
+        }
+    }
+
+    /**
+     * Executes the command requested by a client and builds the response to it.
+     * Long listings are produced lazily as a sequence of bounded-size chunks.
+     * Every chunk carries the correlation identifier of the request, so that a client
+     * with several outstanding requests can match responses to them.
+     * Chunks which do not report a collection version themselves are stamped with the version read before
+     * the command was executed, which never claims more changes than the response actually reflects.
+     * A request beyond the limit of simultaneously executed requests is answered at once with a busy response.
+     * An admitted request counts against the limit until the last chunk of its response has been sent
+     * or the returned stream is closed.
+     *
+     * @param request The client request.
+     * @return Stream of the chunks of the response to the client request; the caller must close it if abandoned.
+     * @throws DisconnectException if issues occur during disconnection initialization.
+     */
+    public static ResponseStream handleRequest(Request request) throws DisconnectException {
+        long version = collectionManager.getVersion();
+        if (!AdmissionController.tryAdmitRequest()) {
+            return new ResponseStream(Collections.singletonList(AdmissionController.busyResponse()).iterator(),
+                    request.getRequestId(), version, false);
+        }
+        try {
+            Command command = commandManager.initCommand(request);
+            return new ResponseStream(RequsetCreator.buildStream(command, request), request.getRequestId(), version, true);
+        } catch (RuntimeException | DisconnectException e) {
+            AdmissionController.releaseRequest();
+            throw e;
         }
     }
 
     /**
      * Initiates a loop for processing client requests continuously.
+     * The loop ends once the connection is closed by the client or because it has been idle for too long;
+     * reading from a silent connection fails after the idle timeout, so a vanished client never holds the thread forever.
      *
      * @param socket Client socket for connection.
      * @param serverSocket Server socket for accepting client connections.
@@ -110,8 +349,11 @@ public class ServerApplication {
      * @throws InterruptedException if the thread is interrupted while waiting for client response.
      */
     private static void startSelectorLoop(Socket socket, ServerSocket serverSocket) throws IOException, ClassNotFoundException, InterruptedException {
-        while (socket.isConnected()) {
-            startIteratorLoop(socket, serverSocket);
+        socket.setSoTimeout(ServerSettings.IDLE_TIMEOUT_MILLIS);
+        socket.setKeepAlive(true);
+        ServerSocketIOManager socketIOManager = new ServerSocketIOManager(socket);
+        while (!socket.isClosed()) {
+            startIteratorLoop(socket, serverSocket, socketIOManager);
         }
     }
 
@@ -120,45 +362,58 @@ public class ServerApplication {
      *
      * @param socket Client socket for connection.
      * @param serverSocket Server socket for accepting client connections.
+     * @param socketIOManager Input/output manager of the client connection.
      * @throws IOException if input/output problems occur with sockets.
      * @throws ClassNotFoundException if the class of an object read from the stream is not found.
      */
-    private static void startIteratorLoop(Socket socket, ServerSocket serverSocket) throws IOException, ClassNotFoundException {
-        boolean isClientDisconnected = false;
+    private static void startIteratorLoop(Socket socket, ServerSocket serverSocket, ServerSocketIOManager socketIOManager) throws IOException, ClassNotFoundException {
         try {
-            ServerSocketIOManager socketIOManager = new ServerSocketIOManager(socket);
             Request request = (Request) socketIOManager.receive();
-            Command command = ServerApplication.commandManager.initCommand(request);
             if (request.getCommandName().equals("exit")) {
                 PrintManager.printInfoMessage("Отключение клиента.");
+                closeSocket(socket);
+            } else if (!beginRequest()) {
+                Response response = shutdownResponse();
+                response.setRequestId(request.getRequestId());
+                socketIOManager.send(response);
+                closeSocket(socket);
+            } else {
+                ResponseStream responses = null;
                 try {
-                    socket.close();
-                } catch (IOException e) {
-                    PrintManager.printErr("Ошибка при закрытии сокета: " + e.getMessage());
+                    responses = handleRequest(request);
+                    while (responses.hasNext()) {
+                        socketIOManager.send(responses.next());
+                    }
+                } finally {
+                    if (responses != null) responses.close();
+                    endRequest();
                 }
-            } else {
-                Response response = RequsetCreator.build(command, request);
-                socketIOManager.send(response);
                 PrintManager.printInfoMessage("Сервер отправил ответ клиенту.");
             }
         } catch (DisconnectException e) {
-            socket.close();
-            serverSocket.close();
             PrintManager.printErr(e.getMessage());
-            PrintManager.printInfoMessage("Работа сервера завершена.");
-            System.exit(1);
+            stop(1);
+        } catch (SocketTimeoutException e) {
+            PrintManager.printInfoMessage("Клиент не отвечает, соединение закрыто.");
+            ConnectionReaper.recordReaped();
+            closeSocket(socket);
         } catch (IOException e) {
-            if (e.getMessage().equals("Connection reset")) {
-                isClientDisconnected = true;
-                PrintManager.printInfoMessage("Клиент внезапно отключился."); }
-        } finally {
-            if (isClientDisconnected) {
-                try {
-                    socket.close();
-                } catch (IOException e) {
-                    PrintManager.printInfoMessage("Ошибка при закрытии сокета: " + e.getMessage());
-                }
-            }
+            // At shutdown the socket is closed by the server itself
+            if (running) PrintManager.printInfoMessage("Клиент внезапно отключился.");
+            closeSocket(socket);
+        }
+    }
+
+    /**
+     * Closes a client socket, reporting a failure instead of propagating it.
+     *
+     * @param socket The client socket to close.
+     */
+    private static void closeSocket(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            PrintManager.printErr("Ошибка при закрытии сокета: " + e.getMessage());
         }
     }
 }
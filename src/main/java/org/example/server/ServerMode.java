@@ -0,0 +1,27 @@
+package org.example.server;
+
+/**
+ * Enumeration of the ways the server can serve its client connections.
+ * The mode is chosen once at startup and determines how accepted connections are dispatched.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public enum ServerMode {
+
+    /**
+     * Every accepted connection is served by its own thread taken from a cached thread pool.
+     */
+    THREAD_POOL,
+
+    /**
+     * All connections are multiplexed over a fixed set of selector-based event loops, one per processor core.
+     */
+    SELECTOR,
+
+    /**
+     * Every accepted connection is served by its own virtual thread with plain blocking I/O.
+     */
+    VIRTUAL_THREADS
+}
@@ -39,7 +39,7 @@ public class ClearCommand extends Command {
      */
     @Override
     public Response execute(Request request) {
-        if (collectionManager.getCollection().isEmpty())
+        if (collectionManager.isEmpty())
             return new Response(PrintManager.getPlainText("Коллекция пуста."));
         else {
             collectionManager.clearCollection();
@@ -3,6 +3,9 @@ package org.example.server.commands;
 import org.example.common.utility.Request;
 import org.example.common.utility.Response;
 
+import java.util.Collections;
+import java.util.Iterator;
+
 /**
  * Abstract base class for commands.
  * Defines common structure and behavior for all commands in the system.
@@ -50,6 +53,29 @@ public abstract class Command {
      */
     public abstract Response execute(Request request);
 
+    /**
+     * Executes the command, producing its response as a sequence of chunks.
+     * Commands producing long listings override this method to stream bounded-size chunks,
+     * all other commands answer with a single response.
+     *
+     * @param request User's request to execute the command.
+     * @return Iterator over the chunks of the server's response; only the last chunk is not partial.
+     */
+    public Iterator<Response> executeStreaming(Request request) {
+        return Collections.singletonList(execute(request)).iterator();
+    }
+
+    /**
+     * Checks whether the response of the command depends on nothing but the version of the collection,
+     * so that a client may cache it and repeat it while the collection stays unchanged.
+     * Read-only commands override this method.
+     *
+     * @return true if the response may be cached by the client, false otherwise.
+     */
+    public boolean isCacheable() {
+        return false;
+    }
+
     /**
      * Retrieves the name of the command.
      *
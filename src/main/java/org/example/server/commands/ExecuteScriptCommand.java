@@ -3,10 +3,23 @@ package org.example.server.commands;
 import org.example.common.utility.PrintManager;
 import org.example.common.utility.Request;
 import org.example.common.utility.Response;
+import org.example.server.exceptions.DisconnectException;
+import org.example.server.utility.CommandManager;
+import org.example.server.utility.RequsetCreator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Represents the "execute_script" command for running scripts from specified files.
  * This class extends the {@code Command} functionality to execute external scripts.
+ * The client parses the script and sends its commands as one batch,
+ * which is executed here in a single pass without a network round trip per command.
+ * The responses of the commands are streamed one after another as chunks of the response to the script,
+ * so that listings inside a script are sent in bounded-size chunks just as they are outside of it.
  *
  * @author Aerosolus
  * @version 1.0
@@ -24,13 +37,138 @@ public class ExecuteScriptCommand extends Command {
     }
 
     /**
-     * Executes the script specified in the request.
+     * Executes every command of the batch carried by the request, in order, collecting their whole responses into one.
+     * The server sends scripts through {@link #executeStreaming(Request)} instead, which does not render
+     * the listings of the script in one piece.
      *
-     * @param request The user's request containing the script file path.
-     * @return A Response object with the result message of the command execution.
+     * @param request The user's request containing the batch of script commands.
+     * @return A Response object with the results of all commands of the batch.
      */
     @Override
     public Response execute(Request request) {
-        return new Response(PrintManager.getPlainText("Исполнение скрипта."));
+        List<Request> batch = request.getBatch();
+        if (batch == null) return new Response(PrintManager.getPlainText("Исполнение скрипта."));
+        List<Response> results = new ArrayList<>(batch.size());
+        for (Request scriptRequest : batch) {
+            results.add(executeScriptCommand(scriptRequest));
+        }
+        return new Response(PrintManager.getPlainText("Исполнение скрипта. Выполнено команд: " + results.size() + "."), results);
+    }
+
+    /**
+     * Executes the commands of the batch one by one as their responses are sent.
+     * The first chunk reports the number of commands, and the chunks of every command follow it in order.
+     *
+     * @param request The user's request containing the batch of script commands.
+     * @return Iterator over the chunks of the responses of all commands of the batch; only the last chunk is not partial.
+     */
+    @Override
+    public Iterator<Response> executeStreaming(Request request) {
+        List<Request> batch = request.getBatch();
+        if (batch == null || batch.isEmpty()) return Collections.singletonList(execute(request)).iterator();
+        return new ScriptStream(batch);
+    }
+
+    /**
+     * Executes a single command of the batch.
+     *
+     * @param scriptRequest The request of the command.
+     * @return The response of the command, or a response describing why the command was not executed.
+     */
+    private Response executeScriptCommand(Request scriptRequest) {
+        Command command = CommandManager.AVAILABLE_COMMANDS.get(scriptRequest.getCommandName());
+        if (command == null || command == this || scriptRequest.getCommandName().equals("exit")) {
+            return new Response(PrintManager.getPlainText("Команда " + scriptRequest.getCommandName() + " не может быть исполнена в скрипте."));
+        }
+        try {
+            return RequsetCreator.build(command, scriptRequest);
+        } catch (DisconnectException e) {
+            return new Response(PrintManager.getPlainText(e.getMessage()));
+        }
+    }
+
+    /**
+     * Executes a single command of the batch, producing its response as a sequence of chunks.
+     *
+     * @param scriptRequest The request of the command.
+     * @return Iterator over the chunks of the response of the command, or over a single response describing
+     * why the command was not executed.
+     */
+    private Iterator<Response> streamScriptCommand(Request scriptRequest) {
+        Command command = CommandManager.AVAILABLE_COMMANDS.get(scriptRequest.getCommandName());
+        if (command == null || command == this || scriptRequest.getCommandName().equals("exit")) {
+            return Collections.singletonList(executeScriptCommand(scriptRequest)).iterator();
+        }
+        return command.executeStreaming(scriptRequest);
+    }
+
+    /**
+     * Chunks of the response to a script: a header followed by the chunks of the responses of its commands.
+     * A command is executed only once the chunks of the previous one have been taken.
+     * Every chunk but the last chunk of the last command is marked as partial.
+     */
+    private class ScriptStream implements Iterator<Response> {
+
+        /**
+         * Requests of the commands of the script.
+         */
+        private final List<Request> batch;
+
+        /**
+         * Index of the next command to execute.
+         */
+        private int nextCommand = 0;
+
+        /**
+         * Chunks of the response of the command being sent, or null before the first command is executed.
+         */
+        private Iterator<Response> current;
+
+        /**
+         * Flag indicating whether the header has been produced.
+         */
+        private boolean started = false;
+
+        /**
+         * Constructs a ScriptStream over the commands of a non-empty script.
+         *
+         * @param batch The requests of the commands of the script.
+         */
+        ScriptStream(List<Request> batch) {
+            this.batch = batch;
+        }
+
+        /**
+         * Checks whether more chunks follow, executing the next command once the chunks of the previous one are exhausted.
+         *
+         * @return true if more chunks follow, false otherwise.
+         */
+        @Override
+        public boolean hasNext() {
+            if (!started) return true;
+            while (current == null || !current.hasNext()) {
+                if (nextCommand == batch.size()) return false;
+                current = streamScriptCommand(batch.get(nextCommand++));
+            }
+            return true;
+        }
+
+        /**
+         * Takes the next chunk of the response to the script.
+         *
+         * @return The header or the next chunk of the response of a command.
+         * @throws NoSuchElementException if the last chunk has already been produced.
+         */
+        @Override
+        public Response next() {
+            if (!started) {
+                started = true;
+                return new Response(PrintManager.getPlainText("Исполнение скрипта. Команд в скрипте: " + batch.size() + "."), true);
+            }
+            if (!hasNext()) throw new NoSuchElementException();
+            Response response = current.next();
+            response.setPartial(current.hasNext() || nextCommand < batch.size());
+            return response;
+        }
     }
 }
@@ -40,4 +40,14 @@ public class HelpCommand extends Command {
         sb = new StringBuilder(sb.substring(0, sb.length() - 1));
         return new Response(PrintManager.getPlainText("Доступные команды:\n") + sb);
     }
+
+    /**
+     * Allows the client to cache the response; the list of commands never changes while the server runs.
+     *
+     * @return Always true.
+     */
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
 }
@@ -40,4 +40,14 @@ public class InfoCommand extends Command {
     public Response execute(Request request) {
         return new Response(collectionManager.collectionInfo());
     }
+
+    /**
+     * Allows the client to cache the response, which changes only together with the collection.
+     *
+     * @return Always true.
+     */
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
 }
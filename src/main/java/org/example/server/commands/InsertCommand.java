@@ -41,10 +41,9 @@ public class InsertCommand extends Command {
     public Response execute(Request request) {
         PrintManager.printInfoMessage(request.getCommandName());
         Integer key = request.getKeyArgument();
-        if (collectionManager.containsKey(key)) {
+        if (!collectionManager.insert(key, request.getHumanBeingArgument())) {
             return new Response(PrintManager.getPlainText("В коллекции уже присутствует элемент с таким ключом! Добавление запрещено."));
         } else {
-            collectionManager.addToCollection(request.getKeyArgument(), request.getHumanBeingArgument());
             return new Response(PrintManager.getPlainText("Объект HumanBeing был добавлен в коллекцию и получил значение поля id, равное " + request.getHumanBeingArgument().getId() + "."));
         }
     }
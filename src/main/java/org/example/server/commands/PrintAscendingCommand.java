@@ -3,8 +3,12 @@ package org.example.server.commands;
 import org.example.common.utility.PrintManager;
 import org.example.common.utility.Request;
 import org.example.common.utility.Response;
+import org.example.server.utility.ChunkedListing;
 import org.example.server.utility.CollectionManager;
 
+import java.util.Collections;
+import java.util.Iterator;
+
 /**
  * Represents the "print_ascending" command for displaying elements of the collection in ascending order.
  * This class extends the {@code Command} functionality to output collection items sorted by some criteria.
@@ -39,9 +43,32 @@ public class PrintAscendingCommand extends Command {
      */
     @Override
     public Response execute(Request request) {
-        if (collectionManager.getCollection().isEmpty())
+        if (collectionManager.isEmpty())
             return new Response(PrintManager.getPlainText("Коллекция пуста."));
         else
             return new Response(collectionManager.printCollectionAscending());
     }
+
+    /**
+     * Executes the print_ascending command, streaming the listing in bounded-size chunks.
+     *
+     * @param request The user's request to view the collection.
+     * @return Iterator over the chunks of the listing.
+     */
+    @Override
+    public Iterator<Response> executeStreaming(Request request) {
+        if (collectionManager.isEmpty())
+            return Collections.singletonList(new Response(PrintManager.getPlainText("Коллекция пуста."))).iterator();
+        return new ChunkedListing("\n", collectionManager.getAscendingEntries());
+    }
+
+    /**
+     * Allows the client to cache the response, which changes only together with the collection.
+     *
+     * @return Always true.
+     */
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
 }
@@ -40,11 +40,11 @@ public class RemoveGreaterKeyCommand extends Command {
     @Override
     public Response execute(Request request) {
         Integer key = request.getArgument();
-        if (collectionManager.getCollection().isEmpty())
+        if (collectionManager.isEmpty())
             return new Response(PrintManager.getPlainText("Коллекция пуста."));
         else {
-            collectionManager.removeGreaterKey(key);
-        return new Response(PrintManager.getPlainText("Были удалены все элементы, ключ которых превышает заданный."));
+            int removed = collectionManager.removeGreaterKey(key);
+            return new Response(PrintManager.getPlainText("Были удалены все элементы, ключ которых превышает заданный. Удалено элементов: " + removed + "."));
         }
     }
 }
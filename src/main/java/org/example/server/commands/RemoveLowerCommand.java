@@ -41,11 +41,11 @@ public class RemoveLowerCommand extends Command {
     @Override
     public Response execute(Request request) {
         HumanBeing humanBeing = request.getHumanBeingArgument();
-        if (collectionManager.getCollection().isEmpty())
+        if (collectionManager.isEmpty())
             return new Response(PrintManager.getPlainText("Коллекция пуста."));
         else {
-            collectionManager.removeLower(humanBeing);
-        return new Response(PrintManager.getPlainText("Были удалены все элементы, которые меньше, чем заданный."));
+            int removed = collectionManager.removeLower(humanBeing);
+            return new Response(PrintManager.getPlainText("Были удалены все элементы, которые меньше, чем заданный. Удалено элементов: " + removed + "."));
         }
     }
 }
@@ -42,11 +42,11 @@ public class RemoveLowerKeyCommand extends Command {
     @Override
     public Response execute(Request request) {
         Integer key = request.getArgument();
-        if (collectionManager.getCollection().isEmpty())
+        if (collectionManager.isEmpty())
             return new Response(PrintManager.getPlainText("Коллекция пуста."));
         else {
-            collectionManager.removeLowerKey(key);
-        return new Response(PrintManager.getPlainText("Были удалены все элементы, ключ которых меньше, чем заданный."));
+            int removed = collectionManager.removeLowerKey(key);
+            return new Response(PrintManager.getPlainText("Были удалены все элементы, ключ которых меньше, чем заданный. Удалено элементов: " + removed + "."));
         }
     }
 }
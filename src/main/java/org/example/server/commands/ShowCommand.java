@@ -2,8 +2,11 @@ package org.example.server.commands;
 
 import org.example.common.utility.Request;
 import org.example.common.utility.Response;
+import org.example.server.utility.ChunkedListing;
 import org.example.server.utility.CollectionManager;
 
+import java.util.Iterator;
+
 /**
  * Represents the "show" command for displaying all elements of the collection.
  * This class extends the {@code Command} functionality to output all collection elements in a string representation.
@@ -40,4 +43,25 @@ public class ShowCommand extends Command {
     public Response execute(Request request) {
         return new Response(collectionManager.showSortedCollection());
     }
+
+    /**
+     * Executes the show command, streaming the listing in bounded-size chunks.
+     *
+     * @param request The user's request to view the collection.
+     * @return Iterator over the chunks of the listing.
+     */
+    @Override
+    public Iterator<Response> executeStreaming(Request request) {
+        return new ChunkedListing("\n", collectionManager.getSortedEntries());
+    }
+
+    /**
+     * Allows the client to cache the response, which changes only together with the collection.
+     *
+     * @return Always true.
+     */
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
 }
@@ -0,0 +1,115 @@
+package org.example.server.commands;
+
+import org.example.common.collectionEntities.HumanBeing;
+import org.example.common.utility.Request;
+import org.example.common.utility.Response;
+import org.example.server.utility.ChunkedListing;
+import org.example.server.utility.CollectionManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Represents the "show_since" command for displaying only the changes of the collection since a given version.
+ * Clients polling the collection send the version of their previous listing and receive the inserted and updated
+ * elements and the keys of the removed ones. If the change log of the server no longer reaches back
+ * to that version, the whole collection is listed instead.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ * @see Command
+ */
+public class ShowSinceCommand extends Command {
+
+    /**
+     * The manager responsible for handling the collection operations.
+     */
+    private final CollectionManager collectionManager;
+
+    /**
+     * Creates a new ShowSinceCommand instance.
+     *
+     * @param collectionManager The CollectionManager instance to use for tracking the changes of the collection.
+     */
+    public ShowSinceCommand(CollectionManager collectionManager) {
+        super("show_since", "вывести изменения коллекции начиная с указанной версии", 1);
+        this.collectionManager = collectionManager;
+    }
+
+    /**
+     * Executes the show_since command, returning the changes since the version known to the client.
+     *
+     * @param request The user's request carrying the known version of the collection.
+     * @return A Response object containing the changes, or the whole collection if they are unknown.
+     */
+    @Override
+    public Response execute(Request request) {
+        // The version is read before the elements, so that changes made meanwhile are sent again rather than lost
+        long version = collectionManager.getVersion();
+        Response response = changes(request, version);
+        if (response == null) {
+            response = new Response(ChunkedListing.render(fullListingHeader(request, version), collectionManager.getSortedEntries()));
+            response.setVersion(version);
+        }
+        return response;
+    }
+
+    /**
+     * Executes the show_since command, streaming the whole collection in bounded-size chunks if the changes are unknown.
+     *
+     * @param request The user's request carrying the known version of the collection.
+     * @return Iterator over the chunks of the response.
+     */
+    @Override
+    public Iterator<Response> executeStreaming(Request request) {
+        long version = collectionManager.getVersion();
+        Response response = changes(request, version);
+        if (response != null) return Collections.singletonList(response).iterator();
+        return new ChunkedListing(fullListingHeader(request, version), collectionManager.getSortedEntries(), version);
+    }
+
+    /**
+     * Builds the response listing the changes since the version known to the client.
+     *
+     * @param request The user's request carrying the known version of the collection.
+     * @param version The version of the collection read before the changes.
+     * @return Response with the changed elements and removed keys, or null if the changes are unknown.
+     */
+    private Response changes(Request request, long version) {
+        if (request.getVersion() == null) return null;
+        Set<Integer> changedKeys = collectionManager.getChangedKeysSince(request.getVersion());
+        if (changedKeys == null) return null;
+        LinkedHashMap<Integer, HumanBeing> changed = new LinkedHashMap<>();
+        List<Integer> removedKeys = new ArrayList<>();
+        for (Integer key : changedKeys) {
+            HumanBeing humanBeing = collectionManager.getByKey(key);
+            if (humanBeing != null) {
+                changed.put(key, humanBeing);
+            } else {
+                removedKeys.add(key);
+            }
+        }
+        Response response = new Response("Изменения коллекции с версии " + request.getVersion()
+                + " по версию " + version + ": добавлено или обновлено " + changed.size()
+                + ", удалено " + removedKeys.size() + ".", changed, removedKeys);
+        response.setVersion(version);
+        return response;
+    }
+
+    /**
+     * Builds the text preceding the whole collection sent instead of the unknown changes.
+     *
+     * @param request The user's request carrying the known version of the collection.
+     * @param version The version of the collection read before the listing.
+     * @return The header of the listing.
+     */
+    private String fullListingHeader(Request request, long version) {
+        return "Изменения с версии " + request.getVersion() + " неизвестны, коллекция версии "
+                + version + " целиком:\n";
+    }
+}
@@ -41,19 +41,18 @@ public class UpdateCommand extends Command {
     @Override
     public Response execute(Request request) {
         Integer id = request.getArgument();
-        if (!collectionManager.containsId(id))
-            return new Response(PrintManager.getPlainText("Объекта HumanBeing с таким id не существует."));
-        else {
-            HumanBeing oldHumanBeing = collectionManager.getById(id);
+        CollectionManager.UpdateResult result = CollectionManager.UpdateResult.NO_SUCH_ID;
+        if (id != null) {
             HumanBeing updatedHumanBeing = request.getHumanBeingArgument();
-            Integer key = request.getKeyArgument();
-            if (!(collectionManager.containsKey(key) && !collectionManager.getByKey(key).equals(oldHumanBeing))) {
-                updatedHumanBeing.setId(id);
-                collectionManager.update(key, updatedHumanBeing);
-                return new Response(PrintManager.getPlainText("Данные объекта HumanBeing были обновлены."));
-            } else {
-                return new Response(PrintManager.getPlainText("Использование такого ключа запрещено. Объект HumanBeing не обновлен."));
-            }
+            updatedHumanBeing.setId(id);
+            // Checking the ID and the key and replacing the element happen as one step
+            result = collectionManager.tryUpdate(request.getKeyArgument(), updatedHumanBeing);
         }
+        if (result == CollectionManager.UpdateResult.NO_SUCH_ID)
+            return new Response(PrintManager.getPlainText("Объекта HumanBeing с таким id не существует."));
+        else if (result == CollectionManager.UpdateResult.KEY_TAKEN)
+            return new Response(PrintManager.getPlainText("Использование такого ключа запрещено. Объект HumanBeing не обновлен."));
+        else
+            return new Response(PrintManager.getPlainText("Данные объекта HumanBeing были обновлены."));
     }
 }
@@ -0,0 +1,171 @@
+package org.example.server.utility;
+
+import org.example.common.utility.Frame;
+import org.example.common.utility.Handshake;
+import org.example.common.utility.Response;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the amount of work the server takes on at the same time.
+ * Connections and requests beyond the limits from {@link ServerSettings} are rejected at once
+ * with an explicit advice to retry later, so that the admitted clients keep getting answers without delay
+ * instead of all of them slowing down under overload.
+ * Rejected work is counted for monitoring.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class AdmissionController {
+
+    /**
+     * Number of milliseconds the rejecting thread waits for the handshake of a rejected client.
+     */
+    private static final int REJECTION_TIMEOUT_MILLIS = 100;
+
+    /**
+     * Maximum number of rejected connections waiting to be answered. Further ones are closed without an answer.
+     */
+    private static final int MAX_PENDING_REJECTIONS = 256;
+
+    /**
+     * Thread answering rejected connections, so that the accepting thread never waits for a rejected client.
+     */
+    private static final ExecutorService rejector = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_PENDING_REJECTIONS), runnable -> {
+                Thread thread = new Thread(runnable, "rejector");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Permits for simultaneously served connections.
+     */
+    private static final Semaphore connections = new Semaphore(ServerSettings.MAX_CONNECTIONS);
+
+    /**
+     * Permits for simultaneously executed requests.
+     */
+    private static final Semaphore requests = new Semaphore(ServerSettings.MAX_IN_FLIGHT_REQUESTS);
+
+    /**
+     * Number of connections rejected since the server start.
+     */
+    private static final AtomicLong rejectedConnections = new AtomicLong();
+
+    /**
+     * Number of requests rejected since the server start.
+     */
+    private static final AtomicLong rejectedRequests = new AtomicLong();
+
+    /**
+     * Tries to admit a new connection.
+     * A rejected connection is counted; the caller must close it with {@link #reject(Socket)}.
+     *
+     * @return true if the connection is admitted and must later be released, false if it is rejected.
+     */
+    public static boolean tryAdmitConnection() {
+        if (connections.tryAcquire()) return true;
+        rejectedConnections.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Releases the permit of a closed connection.
+     */
+    public static void releaseConnection() {
+        connections.release();
+    }
+
+    /**
+     * Tries to admit a request for execution.
+     * A rejected request is counted; the caller must answer it with {@link #busyResponse()}.
+     *
+     * @return true if the request is admitted and must later be released, false if it is rejected.
+     */
+    public static boolean tryAdmitRequest() {
+        if (requests.tryAcquire()) return true;
+        rejectedRequests.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Releases the permit of an executed request.
+     */
+    public static void releaseRequest() {
+        requests.release();
+    }
+
+    /**
+     * Builds the response to a rejected request.
+     *
+     * @return Response advising the client to repeat the request later.
+     */
+    public static Response busyResponse() {
+        return new Response("Сервер перегружен, повторите запрос через " + ServerSettings.RETRY_AFTER_MILLIS + " мс.",
+                ServerSettings.RETRY_AFTER_MILLIS);
+    }
+
+    /**
+     * Rejects a connection which has not been admitted and closes it. Returns at once:
+     * the rejection is answered by a separate thread, and if too many rejections are waiting already,
+     * the connection is closed without an answer. Either way the client will reconnect.
+     *
+     * @param socket The socket of the rejected connection.
+     */
+    public static void reject(Socket socket) {
+        try {
+            rejector.execute(() -> answerRejection(socket));
+        } catch (RejectedExecutionException e) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Sends the rejection to a client and closes its socket.
+     * The handshake of the client is consumed before closing, so that closing the socket does not reset
+     * the connection before the client has read the rejection. Failures are ignored, the client will reconnect anyway.
+     *
+     * @param socket The socket of the rejected connection.
+     */
+    private static void answerRejection(Socket socket) {
+        try (socket) {
+            ByteBuffer frame = Handshake.rejection(ServerSettings.RETRY_AFTER_MILLIS).encode();
+            socket.getOutputStream().write(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+            socket.setSoTimeout(REJECTION_TIMEOUT_MILLIS);
+            DataInputStream inputStream = new DataInputStream(socket.getInputStream());
+            int length = inputStream.readInt();
+            Frame.validateLength(length);
+            inputStream.skipNBytes(Byte.BYTES + length);
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Returns the counters of admitted and rejected work.
+     *
+     * @return A formatted string containing the counters.
+     */
+    public static String getStatistics() {
+        return "Активные соединения: " + (ServerSettings.MAX_CONNECTIONS - connections.availablePermits())
+                + " из " + ServerSettings.MAX_CONNECTIONS + "\n"
+                + "Исполняемые запросы: " + (ServerSettings.MAX_IN_FLIGHT_REQUESTS - requests.availablePermits())
+                + " из " + ServerSettings.MAX_IN_FLIGHT_REQUESTS + "\n"
+                + "Отклонено соединений: " + rejectedConnections.get() + "\n"
+                + "Отклонено запросов: " + rejectedRequests.get();
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.server.utility;
+
+import org.example.common.collectionEntities.HumanBeing;
+import org.example.common.utility.Response;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Renders an ordered listing of collection entries as a sequence of bounded-size responses.
+ * Each chunk is rendered only when it is requested, and the entries are taken from an iterator as the chunk is rendered,
+ * so neither the text nor the elements of the whole listing ever have to be held in memory.
+ * Every chunk but the last one is marked as partial; printing the chunks one per line
+ * produces exactly the same text as printing the listing rendered in one piece.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class ChunkedListing implements Iterator<Response> {
+
+    /**
+     * Number of characters after which a chunk is completed.
+     */
+    public static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Entries of the listing in output order.
+     */
+    private final Iterator<Map.Entry<Integer, HumanBeing>> entries;
+
+    /**
+     * Text preceding the first entry.
+     */
+    private final String header;
+
+    /**
+     * Version of the collection the entries were taken from, or 0 if it is not reported.
+     */
+    private final long version;
+
+    /**
+     * Flag indicating whether the first chunk, which starts with the header, has been produced.
+     */
+    private boolean started = false;
+
+    /**
+     * Flag indicating whether the last chunk has been produced.
+     */
+    private boolean finished = false;
+
+    /**
+     * Constructs a ChunkedListing of the given entries.
+     *
+     * @param header Text preceding the first entry.
+     * @param entries Entries of the listing in output order.
+     */
+    public ChunkedListing(String header, Iterator<Map.Entry<Integer, HumanBeing>> entries) {
+        this(header, entries, 0);
+    }
+
+    /**
+     * Constructs a ChunkedListing of the given entries, reporting the version of the collection with every chunk.
+     *
+     * @param header Text preceding the first entry.
+     * @param entries Entries of the listing in output order.
+     * @param version Version of the collection the entries were taken from.
+     */
+    public ChunkedListing(String header, Iterator<Map.Entry<Integer, HumanBeing>> entries, long version) {
+        this.header = header;
+        this.entries = entries;
+        this.version = version;
+    }
+
+    /**
+     * Renders the whole listing in one piece.
+     *
+     * @param header Text preceding the first entry.
+     * @param entries Entries of the listing in output order.
+     * @return A string representation of the listing.
+     */
+    public static String render(String header, Iterator<Map.Entry<Integer, HumanBeing>> entries) {
+        StringBuilder sb = new StringBuilder(header);
+        while (entries.hasNext()) {
+            appendEntry(sb, entries.next());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Checks whether more chunks follow.
+     *
+     * @return true if the last chunk has not been produced yet.
+     */
+    @Override
+    public boolean hasNext() {
+        return !finished;
+    }
+
+    /**
+     * Renders the next chunk of the listing.
+     *
+     * @return Response carrying the next chunk.
+     * @throws NoSuchElementException if the last chunk has already been produced.
+     */
+    @Override
+    public Response next() {
+        if (finished) throw new NoSuchElementException();
+        StringBuilder sb = new StringBuilder(started ? "" : header);
+        started = true;
+        while (entries.hasNext()) {
+            appendEntry(sb, entries.next());
+            if (sb.length() >= CHUNK_SIZE && entries.hasNext()) {
+                // The line break ending the chunk is added back when the chunk is printed
+                sb.setLength(sb.length() - 1);
+                return chunk(sb.toString(), true);
+            }
+        }
+        finished = true;
+        return chunk(sb.toString(), false);
+    }
+
+    /**
+     * Builds a chunk of the listing.
+     *
+     * @param text The text of the chunk.
+     * @param partial Flag indicating whether more chunks follow.
+     * @return Response carrying the chunk.
+     */
+    private Response chunk(String text, boolean partial) {
+        Response response = new Response(text, partial);
+        response.setVersion(version);
+        return response;
+    }
+
+    /**
+     * Appends a single entry of the listing as a separate line.
+     *
+     * @param sb The builder receiving the line.
+     * @param entry The entry to append.
+     */
+    private static void appendEntry(StringBuilder sb, Map.Entry<Integer, HumanBeing> entry) {
+        sb.append(entry.getKey()).append(" : ").append(entry.getValue()).append("\n");
+    }
+}
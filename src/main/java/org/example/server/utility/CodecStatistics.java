@@ -0,0 +1,132 @@
+package org.example.server.utility;
+
+import org.example.common.Codec;
+import org.example.common.DataManager;
+import org.example.common.utility.CodecManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measures the wire formats used by the connections of the server.
+ * For every format it counts the connections which have agreed on it, the encoded and decoded messages,
+ * their bytes before compression and the time spent encoding and decoding them,
+ * so the formats can be compared under the real load.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class CodecStatistics {
+
+    /**
+     * Number of connections by format.
+     */
+    private static final AtomicLongArray connections = new AtomicLongArray(CodecManager.getCount());
+
+    /**
+     * Number of encoded messages by format.
+     */
+    private static final AtomicLongArray encodedMessages = new AtomicLongArray(CodecManager.getCount());
+
+    /**
+     * Number of bytes of the encoded messages by format.
+     */
+    private static final AtomicLongArray encodedBytes = new AtomicLongArray(CodecManager.getCount());
+
+    /**
+     * Nanoseconds spent encoding messages by format.
+     */
+    private static final AtomicLongArray encodingNanos = new AtomicLongArray(CodecManager.getCount());
+
+    /**
+     * Number of decoded messages by format.
+     */
+    private static final AtomicLongArray decodedMessages = new AtomicLongArray(CodecManager.getCount());
+
+    /**
+     * Number of bytes of the decoded messages by format.
+     */
+    private static final AtomicLongArray decodedBytes = new AtomicLongArray(CodecManager.getCount());
+
+    /**
+     * Nanoseconds spent decoding messages by format.
+     */
+    private static final AtomicLongArray decodingNanos = new AtomicLongArray(CodecManager.getCount());
+
+    /**
+     * Records a connection which has agreed on a format.
+     *
+     * @param codec The format of the connection.
+     */
+    public static void recordConnection(Codec codec) {
+        connections.incrementAndGet(codec.getId());
+    }
+
+    /**
+     * Encodes a message, recording its size and the time spent.
+     *
+     * @param codec The format of the connection.
+     * @param data The message to encode.
+     * @return Pooled buffer containing the encoded message, as returned by {@link Codec#encode(DataManager)}.
+     * @throws IOException if the message cannot be encoded.
+     */
+    public static ByteBuffer encode(Codec codec, DataManager data) throws IOException {
+        long start = System.nanoTime();
+        ByteBuffer payload = codec.encode(data);
+        encodingNanos.addAndGet(codec.getId(), System.nanoTime() - start);
+        encodedMessages.incrementAndGet(codec.getId());
+        encodedBytes.addAndGet(codec.getId(), payload.remaining());
+        return payload;
+    }
+
+    /**
+     * Decodes a message, recording its size and the time spent.
+     *
+     * @param codec The format of the connection.
+     * @param payload The payload of a received frame.
+     * @return The decoded message.
+     * @throws IOException if the payload cannot be decoded.
+     * @throws ClassNotFoundException if the class of the encoded object cannot be found.
+     */
+    public static DataManager decode(Codec codec, ByteBuffer payload) throws IOException, ClassNotFoundException {
+        int size = payload.remaining();
+        long start = System.nanoTime();
+        DataManager data = codec.decode(payload);
+        decodingNanos.addAndGet(codec.getId(), System.nanoTime() - start);
+        decodedMessages.incrementAndGet(codec.getId());
+        decodedBytes.addAndGet(codec.getId(), size);
+        return data;
+    }
+
+    /**
+     * Returns the counters of every format which has served at least one connection.
+     *
+     * @return A formatted string containing the counters.
+     */
+    public static String getStatistics() {
+        StringBuilder sb = new StringBuilder("Форматы сообщений:");
+        for (byte id = 0; id < CodecManager.getCount(); id++) {
+            if (connections.get(id) == 0 && encodedMessages.get(id) == 0 && decodedMessages.get(id) == 0) continue;
+            sb.append("\n").append(CodecManager.getName(id)).append(": соединений ").append(connections.get(id))
+                    .append(", отправлено ").append(encodedMessages.get(id)).append(" сообщений (")
+                    .append(encodedBytes.get(id)).append(" байт, ").append(average(encodingNanos.get(id), encodedMessages.get(id)))
+                    .append(" мкс в среднем), получено ").append(decodedMessages.get(id)).append(" сообщений (")
+                    .append(decodedBytes.get(id)).append(" байт, ").append(average(decodingNanos.get(id), decodedMessages.get(id)))
+                    .append(" мкс в среднем)");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Computes the average time per message in microseconds.
+     *
+     * @param nanos Total number of nanoseconds.
+     * @param messages Number of messages.
+     * @return Average number of microseconds, or 0 if there were no messages.
+     */
+    private static long average(long nanos, long messages) {
+        return messages == 0 ? 0 : nanos / messages / 1000;
+    }
+}
@@ -4,12 +4,23 @@ import org.example.common.collectionEntities.HumanBeing;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * Manages a collection of HumanBeing objects.
  * Provides methods for adding, removing, updating, and querying the collection.
  * Handles serialization and deserialization of the collection to/from CSV files.
+ * Every change of the collection increments its version and is remembered in a bounded change log,
+ * so that clients which have seen an earlier version can be sent only the keys changed since then.
+ * An index from the IDs of the elements to their keys is kept alongside the collection,
+ * so that elements are found by ID in constant time, together with the set of used IDs,
+ * so that a new ID is allocated in constant time, the keys in ascending order,
+ * so that the elements of a key range are removed without scanning the others,
+ * and the keys ordered by the names and by the car names of their elements, so that sorted listings are read without sorting.
+ * The orderings are {@link OrderedKeys} arrays which read the names from the storage, so no index allocates objects per element;
+ * names are compared as the storage keeps them case-folded, so no comparison lowercases a name.
+ * All methods are safe to call from several threads: the collection is guarded by a read/write lock,
+ * and compound operations such as {@link #insert} and {@link #tryUpdate} check and change it as one step.
  *
  * @author Aerosolus
  * @version 1.0
@@ -18,29 +29,178 @@ import java.util.stream.Collectors;
 public class CollectionManager {
 
     /**
-     * The underlying map storing HumanBeing objects with unique integer IDs.
+     * Number of elements a listing reads from the storage at a time.
      */
-    private LinkedHashMap<Integer, HumanBeing> humanBeingCollection;
+    private static final int LISTING_BATCH_SIZE = 256;
+
+    /**
+     * Lock guarding the collection, the indexes and the change log.
+     * Changes take the write lock; reads take the read lock, so they run in parallel with each other,
+     * and the cheapest reads are made optimistically without locking at all.
+     */
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * The underlying storage of HumanBeing objects by their integer keys.
+     */
+    private CollectionStorage humanBeingCollection;
+
+    /**
+     * Index of the keys of the elements by their IDs, kept consistent with {@link #humanBeingCollection}.
+     */
+    private final IntIntMap keysById = new IntIntMap();
+
+    /**
+     * IDs used by the elements of the collection, kept consistent with {@link #keysById}.
+     */
+    private final BitSet usedIds = new BitSet();
+
+    /**
+     * The smallest positive ID not used by any element, given to the next element added by {@link #insert}.
+     */
+    private int firstFreeId = 1;
+
+    /**
+     * Keys of the collection in ascending order, kept consistent with {@link #humanBeingCollection}.
+     */
+    private final OrderedKeys sortedKeys = new OrderedKeys(Integer::compare);
+
+    /**
+     * Keys of the collection ordered by the names of their elements, compared the way
+     * {@link HumanBeing#compareTo(HumanBeing)} compares them, and by key among equal names,
+     * kept consistent with {@link #humanBeingCollection}.
+     */
+    private final OrderedKeys byName = new OrderedKeys(this::compareNames);
+
+    /**
+     * Keys of the collection in descending order of the car names of their elements
+     * and in insertion order among equal car names, kept consistent with {@link #humanBeingCollection}.
+     */
+    private final OrderedKeys byCarDescending = new OrderedKeys(this::compareCarsDescending);
+
+    /**
+     * Flag indicating whether an element is being added to or removed from the orderings,
+     * in which case its fields are read once into the probe fields instead of on every comparison.
+     */
+    private boolean probing = false;
+
+    /**
+     * Key of the element being added to or removed from the orderings.
+     */
+    private int probeKey;
+
+    /**
+     * Case-folded name of the element being added to or removed from the orderings.
+     */
+    private String probeName;
+
+    /**
+     * Car name of the element being added to or removed from the orderings, as returned by {@link #carName(int)}.
+     */
+    private String probeCarName;
+
+    /**
+     * Position of the element being added to or removed from the orderings.
+     */
+    private int probePosition;
 
     /**
      * The date when the collection was initialized.
      */
     private final Date dateOfInitialization = new Date();
 
+    /**
+     * Version of the collection, incremented by every change.
+     * Counting starts from the start time in microseconds, so versions keep growing across server restarts
+     * and a version seen by a client before a restart is never mistaken for a current one.
+     */
+    private volatile long version = System.currentTimeMillis() * 1000;
+
+    /**
+     * Versions of the remembered changes, in a ring buffer of {@link ServerSettings#CHANGE_LOG_SIZE} entries.
+     */
+    private final long[] changeVersions = new long[ServerSettings.CHANGE_LOG_SIZE];
+
+    /**
+     * Keys affected by the remembered changes, parallel to {@link #changeVersions}.
+     */
+    private final int[] changeKeys = new int[ServerSettings.CHANGE_LOG_SIZE];
+
+    /**
+     * Index of the oldest remembered change in the ring buffer.
+     */
+    private int changeLogStart = 0;
+
+    /**
+     * Number of remembered changes.
+     */
+    private int changeLogSize = 0;
+
+    /**
+     * The oldest version the changes since which are all remembered.
+     */
+    private long oldestLoggedVersion = version;
+
     /**
      * Default constructor for CollectionManager.
      */
     public CollectionManager() {
-        humanBeingCollection = new LinkedHashMap<>();
+        humanBeingCollection = createStorage();
+    }
+
+    /**
+     * Creates an empty storage for the elements of the collection of the kind chosen by {@link ServerSettings#STORAGE}.
+     *
+     * @return A new CollectionStorage.
+     */
+    public static CollectionStorage createStorage() {
+        if (ServerSettings.STORAGE.equals("columnar")) return new ColumnarStorage();
+        if (ServerSettings.STORAGE.equals("offheap")) return new OffHeapStorage();
+        return new IntHashStorage();
+    }
+
+    /**
+     * Checks whether the collection is empty, reading optimistically without blocking writers.
+     *
+     * @return true if the collection has no elements, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
     }
 
     /**
-     * Gets the current collection of HumanBeing objects.
+     * Returns the number of elements, reading optimistically and retrying under the read lock
+     * only if a change has intervened.
      *
-     * @return The current collection of HumanBeing objects.
+     * @return The number of elements.
      */
-    public LinkedHashMap<Integer, HumanBeing> getCollection() {
-        return humanBeingCollection;
+    private int size() {
+        long stamp = lock.tryOptimisticRead();
+        int size = humanBeingCollection.size();
+        if (lock.validate(stamp)) return size;
+        stamp = lock.readLock();
+        try {
+            return humanBeingCollection.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Writes the collection to its file. The storage is copied under the read lock, so that the saved state is consistent,
+     * and the copy is written after the lock has been released, so that changes wait for the copy but not for the file.
+     *
+     * @param fileManager The FileManager writing the file.
+     */
+    public void writeTo(FileManager fileManager) {
+        CollectionStorage snapshot;
+        long stamp = lock.readLock();
+        try {
+            snapshot = humanBeingCollection.copy();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        fileManager.writeCollection(snapshot);
     }
 
     /**
@@ -48,50 +208,149 @@ public class CollectionManager {
      *
      * @param humanBeings The new collection of HumanBeing objects.
      */
-    public void setHumanBeingCollection(LinkedHashMap<Integer, HumanBeing> humanBeings) {
-        humanBeingCollection = humanBeings;
+    public void setHumanBeingCollection(CollectionStorage humanBeings) {
+        long stamp = lock.writeLock();
+        try {
+            humanBeingCollection = humanBeings;
+            clearIndexes();
+            int[] keys = new int[humanBeingCollection.size()];
+            String[] names = new String[keys.length];
+            String[] carNames = new String[keys.length];
+            int count = 0;
+            CollectionStorage.Cursor cursor = humanBeingCollection.cursor();
+            while (cursor.next()) {
+                int key = cursor.key();
+                keys[count] = key;
+                names[count] = humanBeingCollection.getFoldedName(key);
+                carNames[count] = carName(key);
+                count++;
+                int id = humanBeingCollection.getId(key);
+                keysById.put(id, key);
+                useId(id);
+            }
+            // The keys are sorted all at once by the fields read above, instead of reading them on every comparison;
+            // the cursor walks in insertion order, so the indexes of the keys follow it
+            sortedKeys.setAll(keys, count, (i, j) -> Integer.compare(keys[i], keys[j]));
+            byName.setAll(keys, count, (i, j) -> {
+                int result = names[i].compareTo(names[j]);
+                return result != 0 ? result : Integer.compare(keys[i], keys[j]);
+            });
+            byCarDescending.setAll(keys, count, (i, j) -> {
+                int result = carNames[j].compareTo(carNames[i]);
+                return result != 0 ? result : Integer.compare(i, j);
+            });
+            resetChangeLog();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
-     * Returns a string with collection's class, date of creation and size.
+     * Retrieves the current version of the collection.
      *
-     * @return A formatted string with collection information.
+     * @return The version of the collection.
      */
-    public String collectionInfo() {
-        return "Тип коллекции: " + humanBeingCollection.getClass().getName() + "\n"
-                + "Дата инициализации: " + dateOfInitialization + "\n"
-                + "Количество элементов: " + humanBeingCollection.size();
+    public long getVersion() {
+        return version;
     }
 
     /**
-     * Adds a HumanBeing object to the collection with a given key.
+     * Returns the keys changed since the given version: inserted, updated or removed, in order of their last change.
+     * A key which is still in the collection has been inserted or updated, any other key has been removed.
      *
-     * @param key The key of the HumanBeing object.
-     * @param humanBeing The HumanBeing object to add.
+     * @param sinceVersion The version of the collection known to the client.
+     * @return Set of changed keys, or null if the change log no longer reaches back to the given version
+     * or the version is unknown, in which case the client needs the whole collection.
      */
-    public void addToCollection(Integer key, HumanBeing humanBeing) {
-        humanBeing.setCreationDate(LocalDateTime.now());
-        humanBeingCollection.put(key, humanBeing);
+    public Set<Integer> getChangedKeysSince(long sinceVersion) {
+        long stamp = lock.readLock();
+        try {
+            if (sinceVersion < oldestLoggedVersion || sinceVersion > version) return null;
+            LinkedHashSet<Integer> keys = new LinkedHashSet<>();
+            for (int i = 0; i < changeLogSize; i++) {
+                int index = (changeLogStart + i) % changeKeys.length;
+                if (changeVersions[index] <= sinceVersion) continue;
+                // Re-inserting moves the key to the position of its last change
+                keys.remove(changeKeys[index]);
+                keys.add(changeKeys[index]);
+            }
+            return keys;
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     /**
-     * Retrieves a HumanBeing object from the collection by its ID.
+     * Records a change of the element with the given key, incrementing the version of the collection.
+     * The oldest change is forgotten once the change log is full.
      *
-     * @param id The ID of the HumanBeing object to retrieve.
-     * @return The HumanBeing object with the matching ID, or null if not found.
+     * @param key The key of the inserted, updated or removed element.
      */
-    public HumanBeing getById(int id) {
-        return humanBeingCollection.values().stream().filter(v -> v.getId().equals(id)).findFirst().get();
+    private void recordChange(int key) {
+        version++;
+        if (changeLogSize == changeKeys.length) {
+            oldestLoggedVersion = changeVersions[changeLogStart];
+            changeLogStart = (changeLogStart + 1) % changeKeys.length;
+            changeLogSize--;
+        }
+        int index = (changeLogStart + changeLogSize) % changeKeys.length;
+        changeVersions[index] = version;
+        changeKeys[index] = key;
+        changeLogSize++;
     }
 
     /**
-     * Checks if the collection contains a HumanBeing object with the given ID.
+     * Forgets all remembered changes after the whole collection has been replaced or cleared,
+     * so that every client asking for changes receives the whole collection.
+     */
+    private void resetChangeLog() {
+        version++;
+        changeLogStart = 0;
+        changeLogSize = 0;
+        oldestLoggedVersion = version;
+    }
+
+    /**
+     * Returns a string with collection's class, date of creation and size.
      *
-     * @param id The ID to check for in the collection.
-     * @return True if the collection contains a HumanBeing object with the given ID, false otherwise.
+     * @return A formatted string with collection information.
      */
-    public boolean containsId(Integer id) {
-        return humanBeingCollection.values().stream().anyMatch(v -> v.getId().equals(id));
+    public String collectionInfo() {
+        long stamp = lock.tryOptimisticRead();
+        String type = humanBeingCollection.getClass().getName();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                type = humanBeingCollection.getClass().getName();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return "Тип коллекции: " + type + "\n"
+                + "Дата инициализации: " + dateOfInitialization + "\n"
+                + "Количество элементов: " + size();
+    }
+
+    /**
+     * Adds a HumanBeing object to the collection with a given key if the key is free,
+     * giving it a new ID, as one atomic step.
+     *
+     * @param key The key of the HumanBeing object.
+     * @param humanBeing The HumanBeing object to add.
+     * @return true if the object has been added, false if the key is taken.
+     */
+    public boolean insert(Integer key, HumanBeing humanBeing) {
+        long stamp = lock.writeLock();
+        try {
+            if (humanBeingCollection.containsKey(key)) return false;
+            humanBeing.setId(firstFreeId);
+            humanBeing.setCreationDate(LocalDateTime.now());
+            put(key, humanBeing);
+            recordChange(key);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -101,7 +360,12 @@ public class CollectionManager {
      * @return True if the collection contains a key-value pair with the given key, false otherwise.
      */
     public boolean containsKey(Integer key) {
-        return humanBeingCollection.containsKey(key);
+        long stamp = lock.readLock();
+        try {
+            return key != null && humanBeingCollection.containsKey(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     /**
@@ -110,57 +374,127 @@ public class CollectionManager {
      * @param key The key of the HumanBeing object to remove.
      */
     public void remove(Integer key) {
+        long stamp = lock.writeLock();
+        try {
+            if (humanBeingCollection.containsKey(key)) removeEntry(key);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes an element present in the collection from the collection and the indexes, recording the change.
+     *
+     * @param key The key of the element to remove.
+     */
+    private void removeEntry(Integer key) {
+        unindex(key);
         humanBeingCollection.remove(key);
+        recordChange(key);
     }
 
     /**
      * Clears all elements from the collection.
      */
     public void clearCollection() {
-        humanBeingCollection.clear();
+        long stamp = lock.writeLock();
+        try {
+            humanBeingCollection.clear();
+            clearIndexes();
+            resetChangeLog();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
      * Removes all HumanBeing objects from the collection that are less than the given object.
      *
      * @param humanBeing The HumanBeing object to compare against.
+     * @return The number of removed elements.
      */
-    public void removeLower(HumanBeing humanBeing) {
-        // Name field in its natural form, especially, is used in comparison
-        humanBeingCollection.entrySet().removeIf(e -> e.getValue().compareTo(humanBeing) < 0);
+    public int removeLower(HumanBeing humanBeing) {
+        long stamp = lock.writeLock();
+        try {
+            // Elements are compared by name, so the lower ones are a prefix of the name order
+            String name = humanBeing.getName().toLowerCase();
+            int count = byName.countWhile(key -> humanBeingCollection.getFoldedName(key).compareTo(name) < 0);
+            return removeRange(byName, 0, count);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
      * Removes all HumanBeing objects from the collection that have keys greater than the given value.
      *
      * @param key The key to compare against.
+     * @return The number of removed elements.
      */
-    public void removeGreaterKey(Integer key) {
-        humanBeingCollection.entrySet().removeIf(e -> e.getKey() > key);
+    public int removeGreaterKey(Integer key) {
+        long stamp = lock.writeLock();
+        try {
+            int count = sortedKeys.countWhile(sortedKey -> sortedKey <= key);
+            return removeRange(sortedKeys, count, sortedKeys.size());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
      * Removes all HumanBeing objects from the collection that have keys less than the given value.
      *
      * @param key The key to compare against.
+     * @return The number of removed elements.
      */
-    public void removeLowerKey(Integer key) {
-        humanBeingCollection.entrySet().removeIf(e -> e.getKey() < key);
+    public int removeLowerKey(Integer key) {
+        long stamp = lock.writeLock();
+        try {
+            return removeRange(sortedKeys, 0, sortedKeys.countWhile(sortedKey -> sortedKey < key));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
-     * Gets the key corresponding to a specific ID in the collection.
+     * Removes the elements of a range of an ordering, so that only the elements of the range are read.
+     * Each key is removed from the other orderings while its element is still stored, so that its fields can be compared,
+     * and the range is then dropped from its own ordering block by block, without comparing keys.
      *
-     * @param id The ID to find the key for.
-     * @return The key corresponding to the given ID, or null if not found.
+     * @param ordering The ordering the range belongs to.
+     * @param from The first position of the range.
+     * @param to The position after the last one of the range.
+     * @return The number of removed elements.
      */
-    public Integer getKeyById(int id) {
-        for (Map.Entry<Integer, HumanBeing> entry : humanBeingCollection.entrySet()) {
-            if (entry.getValue().getId() == id) {
-                return entry.getKey();
+    private int removeRange(OrderedKeys ordering, int from, int to) {
+        for (int key : ordering.copy(from, to)) {
+            int id = humanBeingCollection.getId(key);
+            if (ordering != sortedKeys) sortedKeys.remove(key);
+            startProbe(key);
+            try {
+                if (ordering != byName) byName.remove(key);
+                byCarDescending.remove(key);
+            } finally {
+                probing = false;
             }
+            keysById.remove(id);
+            freeId(id);
+            humanBeingCollection.remove(key);
+            recordChange(key);
         }
-        return null;
+        ordering.removeRange(from, to);
+        return to - from;
+    }
+
+    /**
+     * Gets the key corresponding to a specific ID; the caller holds the lock.
+     *
+     * @param id The ID to find the key for.
+     * @return The key corresponding to the given ID, or null if not found.
+     */
+    private Integer keyOf(int id) {
+        if (!keysById.containsKey(id)) return null;
+        return keysById.get(id, 0);
     }
 
     /**
@@ -170,56 +504,140 @@ public class CollectionManager {
      * @return The HumanBeing object associated with the given key, or null if not found.
      */
     public HumanBeing getByKey(Integer key) {
-        return humanBeingCollection.get(key);
+        long stamp = lock.readLock();
+        try {
+            return key == null ? null : humanBeingCollection.get(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Updates an element in the collection if the ID belongs to an element
+     * and the key is free or already belongs to that element, as one atomic step.
+     *
+     * @param key The new key of the element.
+     * @param humanBeing The updated HumanBeing object carrying the ID of the element to update.
+     * @return The outcome of the update.
+     */
+    public UpdateResult tryUpdate(Integer key, HumanBeing humanBeing) {
+        long stamp = lock.writeLock();
+        try {
+            Integer oldKey = keyOf(humanBeing.getId());
+            if (oldKey == null) return UpdateResult.NO_SUCH_ID;
+            if (humanBeingCollection.containsKey(key) && !key.equals(oldKey)) return UpdateResult.KEY_TAKEN;
+            replace(key, humanBeing);
+            return UpdateResult.UPDATED;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
-     * Updates an element in the collection with the specified ID.
+     * Replaces the element with the ID of the given one by it, moving it under the given key;
+     * the caller holds the write lock.
      *
-     * @param key        The ID of the HumanBeing object to update.
+     * @param key The new key of the element.
      * @param humanBeing The updated HumanBeing object.
      */
-    public void update(Integer key, HumanBeing humanBeing) {
+    private void replace(Integer key, HumanBeing humanBeing) {
         humanBeing.setCreationDate(LocalDateTime.now());
-        humanBeingCollection.remove(getKeyById(humanBeing.getId()));
-        humanBeingCollection.put(key, humanBeing);
+        Integer oldKey = keyOf(humanBeing.getId());
+        if (oldKey != null) {
+            unindex(oldKey);
+            humanBeingCollection.remove(oldKey);
+        }
+        put(key, humanBeing);
+        if (oldKey != null && !oldKey.equals(key)) recordChange(oldKey);
+        recordChange(key);
     }
 
     /**
-     * Displays the contents of the collection sorted alphabetically by HumanBeing name.
-     * This method sorts the collection based on the names of the HumanBeing objects
-     * and returns a formatted string representation of the sorted collection.
+     * Puts an element into the collection and the indexes.
+     * The element previously stored under the key, if any, is dropped from the indexes first.
      *
-     * @return A string representation of the sorted collection, ordered by HumanBeing names.
+     * @param key The key of the element.
+     * @param humanBeing The element to put.
      */
-    public String showSortedCollection() {
-        // Name is used in comparison as название
-        // Convert LinkedHashMap entries to List
-        List<Map.Entry<Integer, HumanBeing>> list = new ArrayList<>(humanBeingCollection.entrySet());
-
-        // Sort the List based on the values' names
-        Collections.sort(list, Map.Entry.comparingByValue());
-
-        // Create a new sorted LinkedHashMap
-        LinkedHashMap<Integer, HumanBeing> sortedMap = new LinkedHashMap<>();
+    private void put(Integer key, HumanBeing humanBeing) {
+        if (humanBeingCollection.containsKey(key)) unindex(key);
+        humanBeingCollection.put(key, humanBeing);
+        index(key);
+    }
 
-        // Add the sorted entries back to the new LinkedHashMap
-        for (Map.Entry<Integer, HumanBeing> entry : list) {
-            sortedMap.put(entry.getKey(), entry.getValue());
+    /**
+     * Adds an element stored in the collection to the indexes.
+     *
+     * @param key The key of the element.
+     */
+    private void index(int key) {
+        int id = humanBeingCollection.getId(key);
+        sortedKeys.add(key);
+        startProbe(key);
+        try {
+            byName.add(key);
+            byCarDescending.add(key);
+        } finally {
+            probing = false;
         }
+        keysById.put(id, key);
+        useId(id);
+    }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("\n");
+    /**
+     * Drops an element from the indexes before it is removed from the collection or replaced,
+     * reading its indexed fields from the storage without building the element.
+     *
+     * @param key The key of the element.
+     */
+    private void unindex(int key) {
+        int id = humanBeingCollection.getId(key);
+        sortedKeys.remove(key);
+        startProbe(key);
+        try {
+            byName.remove(key);
+            byCarDescending.remove(key);
+        } finally {
+            probing = false;
+        }
+        keysById.remove(id);
+        freeId(id);
+    }
 
-        // Iterate through map entries
-        for (Map.Entry<Integer, HumanBeing> entry : sortedMap.entrySet()) {
+    /**
+     * Empties the indexes.
+     */
+    private void clearIndexes() {
+        sortedKeys.clear();
+        byName.clear();
+        byCarDescending.clear();
+        keysById.clear();
+        usedIds.clear();
+        firstFreeId = 1;
+    }
 
-            // Append key-value pair
-            sb.append(entry.getKey()).append(" : ").append(entry.getValue());
-            sb.append("\n");
+    /**
+     * Displays the contents of the collection sorted alphabetically by HumanBeing name.
+     * The elements are read in the order of the name index, without sorting.
+     *
+     * @return A string representation of the sorted collection, ordered by HumanBeing names.
+     */
+    public String showSortedCollection() {
+        return ChunkedListing.render("\n", getSortedEntries());
+    }
 
+    /**
+     * Returns the entries of the collection sorted alphabetically by HumanBeing name.
+     *
+     * @return Iterator over the collection entries, ordered by HumanBeing names.
+     */
+    public Iterator<Map.Entry<Integer, HumanBeing>> getSortedEntries() {
+        long stamp = lock.readLock();
+        try {
+            return entriesOf(byName, false);
+        } finally {
+            lock.unlockRead(stamp);
         }
-        return sb.toString();
     }
 
     /**
@@ -228,27 +646,21 @@ public class CollectionManager {
      * @return A string representation of the sorted collection.
      */
     public String printCollectionAscending() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("\n");
-
-        Map<Integer, HumanBeing> sortedMap = humanBeingCollection.entrySet().stream()
-                .sorted(Map.Entry.comparingByValue())
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        LinkedHashMap::new
-                ));
-
-        // Iterate through map entries
-        for (Map.Entry<Integer, HumanBeing> entry : sortedMap.entrySet()) {
-
-            // Append key-value pair
-            sb.append(entry.getKey()).append(" : ").append(entry.getValue());
-            sb.append("\n");
+        return ChunkedListing.render("\n", getAscendingEntries());
+    }
 
+    /**
+     * Returns the entries of the collection in ascending order based on the HumanBeing objects themselves.
+     *
+     * @return Iterator over the collection entries in ascending order.
+     */
+    public Iterator<Map.Entry<Integer, HumanBeing>> getAscendingEntries() {
+        long stamp = lock.readLock();
+        try {
+            return entriesOf(byName, false);
+        } finally {
+            lock.unlockRead(stamp);
         }
-        return sb.toString();
     }
 
     /**
@@ -257,28 +669,33 @@ public class CollectionManager {
      * @return A string representation of the sorted collection.
      */
     public String printCollectionDescending() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("\n");
-
-        // Sort the entries based on keys in descending order and collect them into a new LinkedHashMap
-        Map<Integer, HumanBeing> sortedMap = humanBeingCollection.entrySet().stream()
-                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        LinkedHashMap::new
-                ));
-
-        // Iterate through map entries
-        for (Map.Entry<Integer, HumanBeing> entry : sortedMap.entrySet()) {
-
-            // Append key-value pair
-            sb.append(entry.getKey()).append(" : ").append(entry.getValue());
-            sb.append("\n");
+        return ChunkedListing.render("\n", getDescendingEntries());
+    }
 
+    /**
+     * Returns the entries of the collection in descending order based on the HumanBeing objects themselves.
+     *
+     * @return Iterator over the collection entries in descending order.
+     */
+    public Iterator<Map.Entry<Integer, HumanBeing>> getDescendingEntries() {
+        long stamp = lock.readLock();
+        try {
+            return entriesOf(byName, true);
+        } finally {
+            lock.unlockRead(stamp);
         }
-        return sb.toString();
+    }
+
+    /**
+     * Starts a listing of the collection in the order of an ordering; the caller holds the read lock.
+     * Only the keys are copied, the elements are read as the listing is walked.
+     *
+     * @param ordering The ordering of the keys.
+     * @param descending Flag indicating whether the ordering is walked backwards.
+     * @return Iterator over the collection entries in the order of the ordering.
+     */
+    private Iterator<Map.Entry<Integer, HumanBeing>> entriesOf(OrderedKeys ordering, boolean descending) {
+        return new ListingIterator(ordering.copy(0, ordering.size()), descending);
     }
 
     /**
@@ -287,49 +704,228 @@ public class CollectionManager {
      * @return A string representation of the sorted collection based on car names.
      */
     public String printFieldDescendingCar() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("\n");
-
-        // Sort the entries based on car fields in descending order and collect them into a new LinkedHashMap
-        Map<Integer, HumanBeing> sortedMap = humanBeingCollection.entrySet().stream()
-                .sorted(Map.Entry.comparingByValue((entry, anotherEntry) ->
-                        anotherEntry.getCar().getName().compareTo(entry.getCar().getName())))
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        LinkedHashMap::new
-                ));
-
-        // Iterate through map entries
-        for (Map.Entry<Integer, HumanBeing> entry : sortedMap.entrySet()) {
-
-            // Append key-value pair
-            sb.append(entry.getKey()).append(" : ").append(entry.getValue());
-            sb.append("\n");
+        return ChunkedListing.render("\n", getCarDescendingEntries());
+    }
 
+    /**
+     * Returns the entries of the collection sorted by car names in descending order.
+     *
+     * @return Iterator over the collection entries in descending order of car names.
+     */
+    public Iterator<Map.Entry<Integer, HumanBeing>> getCarDescendingEntries() {
+        long stamp = lock.readLock();
+        try {
+            return entriesOf(byCarDescending, false);
+        } finally {
+            lock.unlockRead(stamp);
         }
-        return sb.toString();
     }
 
     /**
-     * Generates a new ID for a HumanBeing object.
+     * Compares two stored elements by their names, ignoring case the way {@link HumanBeing#compareTo(HumanBeing)} does,
+     * and by their keys if the names are equal.
      *
-     * @return A new unique ID for a HumanBeing object.
+     * @param key1 The key of the first element.
+     * @param key2 The key of the second element.
+     * @return A negative number, zero or a positive number as the first element goes before, with or after the second one.
      */
-    public Integer generateId() {
-        int count = 0;
-        int id = 1;
-        while (count != humanBeingCollection.size()) {
-            for (HumanBeing humanBeing : humanBeingCollection.values()) {
-                count++;
-                if (humanBeing.getId() == id) {
-                    id++;
-                    count = 0;
-                    break;
+    private int compareNames(int key1, int key2) {
+        int result = foldedName(key1).compareTo(foldedName(key2));
+        return result != 0 ? result : Integer.compare(key1, key2);
+    }
+
+    /**
+     * Compares two stored elements by their car names in descending order,
+     * and by their positions in insertion order if the car names are equal.
+     * Elements without a car go together with those whose car has an empty name.
+     *
+     * @param key1 The key of the first element.
+     * @param key2 The key of the second element.
+     * @return A negative number, zero or a positive number as the first element goes before, with or after the second one.
+     */
+    private int compareCarsDescending(int key1, int key2) {
+        int result = carName(key2).compareTo(carName(key1));
+        return result != 0 ? result : Integer.compare(position(key1), position(key2));
+    }
+
+    /**
+     * Reads the fields of an element which is about to be added to or removed from the orderings,
+     * so that comparing it with the other elements reads only their fields from the storage.
+     *
+     * @param key The key of the stored element.
+     */
+    private void startProbe(int key) {
+        probeName = humanBeingCollection.getFoldedName(key);
+        probeCarName = carName(key);
+        probePosition = humanBeingCollection.getPosition(key);
+        probeKey = key;
+        probing = true;
+    }
+
+    /**
+     * Retrieves the case-folded name a stored element is ordered by, as folded by the storage when the element was stored.
+     *
+     * @param key The key of the element.
+     * @return The name of the element in lower case.
+     */
+    private String foldedName(int key) {
+        if (probing && key == probeKey) return probeName;
+        return humanBeingCollection.getFoldedName(key);
+    }
+
+    /**
+     * Retrieves the car name a stored element is ordered by.
+     *
+     * @param key The key of the element.
+     * @return The name of the car of the element, or an empty string if it has no car.
+     */
+    private String carName(int key) {
+        if (probing && key == probeKey) return probeCarName;
+        String name = humanBeingCollection.getCarName(key);
+        return name == null ? "" : name;
+    }
+
+    /**
+     * Retrieves the position a stored element is ordered by among the elements with the same car name.
+     *
+     * @param key The key of the element.
+     * @return The position of the element in insertion order.
+     */
+    private int position(int key) {
+        if (probing && key == probeKey) return probePosition;
+        return humanBeingCollection.getPosition(key);
+    }
+
+    /**
+     * Marks the ID of an element added to the collection as used.
+     *
+     * @param id The ID of the added element.
+     */
+    private void useId(int id) {
+        if (id <= 0) return;
+        usedIds.set(id);
+        if (id == firstFreeId) firstFreeId = usedIds.nextClearBit(firstFreeId);
+    }
+
+    /**
+     * Marks the ID of an element removed from the collection as free.
+     *
+     * @param id The ID of the removed element.
+     */
+    private void freeId(int id) {
+        if (id <= 0) return;
+        usedIds.clear(id);
+        if (id < firstFreeId) firstFreeId = id;
+    }
+
+    /**
+     * Iterator over the entries of a listing which reads the elements from the storage a batch at a time under the read lock,
+     * so that a listing holds its keys, but never all of its elements at once, and writers are let in between the batches.
+     * An element removed after the listing has been started is skipped, and a changed element is listed as it is
+     * when its batch is read.
+     */
+    private final class ListingIterator implements Iterator<Map.Entry<Integer, HumanBeing>> {
+
+        /**
+         * Keys of the listing in the order of the ordering it was started from.
+         */
+        private final int[] keys;
+
+        /**
+         * Flag indicating whether the keys are walked backwards.
+         */
+        private final boolean descending;
+
+        /**
+         * Number of keys whose elements have been read.
+         */
+        private int read = 0;
+
+        /**
+         * Entries of the batch read last.
+         */
+        private final List<Map.Entry<Integer, HumanBeing>> batch = new ArrayList<>(LISTING_BATCH_SIZE);
+
+        /**
+         * Index of the next entry of the batch to return.
+         */
+        private int next = 0;
+
+        /**
+         * Creates an iterator over the elements of the given keys.
+         *
+         * @param keys Keys of the listing.
+         * @param descending Flag indicating whether the keys are walked backwards.
+         */
+        private ListingIterator(int[] keys, boolean descending) {
+            this.keys = keys;
+            this.descending = descending;
+        }
+
+        /**
+         * Checks whether more entries follow, reading the next batch if the current one is exhausted.
+         *
+         * @return true if more entries follow, false otherwise.
+         */
+        @Override
+        public boolean hasNext() {
+            while (next == batch.size()) {
+                if (read == keys.length) return false;
+                readBatch();
+            }
+            return true;
+        }
+
+        /**
+         * Returns the next entry of the listing.
+         *
+         * @return The next entry.
+         * @throws NoSuchElementException if the listing is exhausted.
+         */
+        @Override
+        public Map.Entry<Integer, HumanBeing> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return batch.get(next++);
+        }
+
+        /**
+         * Reads the elements of the next {@link #LISTING_BATCH_SIZE} keys which are still in the collection.
+         */
+        private void readBatch() {
+            batch.clear();
+            next = 0;
+            int end = Math.min(read + LISTING_BATCH_SIZE, keys.length);
+            long stamp = lock.readLock();
+            try {
+                for (; read < end; read++) {
+                    int key = keys[descending ? keys.length - 1 - read : read];
+                    HumanBeing humanBeing = humanBeingCollection.get(key);
+                    if (humanBeing != null) batch.add(new AbstractMap.SimpleImmutableEntry<>(key, humanBeing));
                 }
+            } finally {
+                lock.unlockRead(stamp);
             }
         }
-        return id;
     }
-}
\ No newline at end of file
+
+    /**
+     * Outcome of {@link #tryUpdate(Integer, HumanBeing)}.
+     */
+    public enum UpdateResult {
+
+        /**
+         * The element has been updated.
+         */
+        UPDATED,
+
+        /**
+         * No element has the given ID.
+         */
+        NO_SUCH_ID,
+
+        /**
+         * The key belongs to another element.
+         */
+        KEY_TAKEN
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.server.utility;
+
+import org.example.common.collectionEntities.HumanBeing;
+
+/**
+ * Interface for the storage of the elements of the collection by their integer keys.
+ * Implementations keep the elements in insertion order; replacing the element of a present key keeps its position.
+ * Keys are passed as primitive ints, so that implementations need not box them.
+ * The fields the indexes of the collection are ordered by are read one at a time, and changes return no elements,
+ * so that implementations which do not keep HumanBeing objects build them only when an element is read.
+ * Names are also kept case-folded, as the collection compares them, so that no comparison lowercases a name.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public interface CollectionStorage {
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return The number of elements.
+     */
+    int size();
+
+    /**
+     * Checks whether the storage holds no elements.
+     *
+     * @return true if the storage is empty, false otherwise.
+     */
+    boolean isEmpty();
+
+    /**
+     * Checks whether an element is stored under a key.
+     *
+     * @param key The key to check.
+     * @return true if an element is stored under the key, false otherwise.
+     */
+    boolean containsKey(int key);
+
+    /**
+     * Retrieves the element stored under a key.
+     *
+     * @param key The key of the element.
+     * @return The element, or null if no element is stored under the key.
+     */
+    HumanBeing get(int key);
+
+    /**
+     * Retrieves the position of the element stored under a key in insertion order.
+     * Positions change when an implementation squeezes out the holes left by removed elements,
+     * but the order of the positions of the stored elements never does.
+     *
+     * @param key The key of a stored element.
+     * @return The position of the element.
+     */
+    int getPosition(int key);
+
+    /**
+     * Retrieves the ID of the element stored under a key without building the element.
+     *
+     * @param key The key of a stored element.
+     * @return The ID of the element.
+     */
+    int getId(int key);
+
+    /**
+     * Retrieves the name of the element stored under a key without building the element.
+     *
+     * @param key The key of a stored element.
+     * @return The name of the element.
+     */
+    String getName(int key);
+
+    /**
+     * Retrieves the name of the element stored under a key in lower case, the way the collection orders elements by name.
+     * The folded name is kept alongside the element when it is stored, so that comparing names folds nothing.
+     *
+     * @param key The key of a stored element.
+     * @return The name of the element in lower case.
+     */
+    String getFoldedName(int key);
+
+    /**
+     * Retrieves the car name of the element stored under a key without building the element.
+     *
+     * @param key The key of a stored element.
+     * @return The name of the car of the element, or null if it has no car.
+     */
+    String getCarName(int key);
+
+    /**
+     * Stores an element under a key, replacing the element previously stored under it.
+     *
+     * @param key The key of the element.
+     * @param humanBeing The element to store.
+     */
+    void put(int key, HumanBeing humanBeing);
+
+    /**
+     * Removes the element stored under a key.
+     *
+     * @param key The key of the element.
+     * @return true if an element was stored under the key, false otherwise.
+     */
+    boolean remove(int key);
+
+    /**
+     * Removes all elements.
+     */
+    void clear();
+
+    /**
+     * Creates a copy of the storage holding the same elements in the same order,
+     * which later changes of either storage do not affect.
+     *
+     * @return A new storage of the same kind.
+     */
+    CollectionStorage copy();
+
+    /**
+     * Creates a cursor over the elements in insertion order.
+     * The storage must not be changed while the cursor is in use.
+     *
+     * @return A new Cursor positioned before the first element.
+     */
+    Cursor cursor();
+
+    /**
+     * Cursor walking over the elements of a storage.
+     */
+    interface Cursor {
+
+        /**
+         * Moves to the next element.
+         *
+         * @return true if the cursor is at an element, false if there are no more elements.
+         */
+        boolean next();
+
+        /**
+         * Retrieves the key of the current element.
+         *
+         * @return The key of the current element.
+         */
+        int key();
+
+        /**
+         * Retrieves the current element.
+         *
+         * @return The current element.
+         */
+        HumanBeing value();
+    }
+}
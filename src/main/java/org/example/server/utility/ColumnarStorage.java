@@ -0,0 +1,550 @@
+package org.example.server.utility;
+
+import org.example.common.collectionEntities.Car;
+import org.example.common.collectionEntities.Coordinates;
+import org.example.common.collectionEntities.HumanBeing;
+import org.example.common.collectionEntities.WeaponType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Stores the elements of the collection column by column in primitive arrays, one array per field,
+ * with the strings replaced by codes of a {@link StringDictionary}.
+ * An element occupies one row of every column instead of a graph of objects with a coordinates object,
+ * a car object, a boxed number, a date object and strings, so scans over a field read one contiguous array.
+ * A HumanBeing object is built only when an element is read, and stored elements are copied into the columns,
+ * so changing an object obtained from the storage does not change the stored element.
+ * The indexes of the collection read the IDs, names and car names straight from their columns,
+ * and changes build no objects, so keeping the indexes up to date and walking them touches no other field.
+ * Rows are kept in insertion order, with the same hole handling as {@link IntHashStorage}.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class ColumnarStorage implements CollectionStorage {
+
+    /**
+     * Initial length of the columns.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Flag set for the rows holding an element; rows of removed elements are holes.
+     */
+    private static final byte PRESENT = 1;
+
+    /**
+     * Flag set when the element is a real hero.
+     */
+    private static final byte REAL_HERO = 1 << 1;
+
+    /**
+     * Flag set when the element has a toothpick.
+     */
+    private static final byte HAS_TOOTHPICK = 1 << 2;
+
+    /**
+     * Flag set when the element has coordinates.
+     */
+    private static final byte HAS_COORDINATES = 1 << 3;
+
+    /**
+     * Flag set when the element has a creation date.
+     */
+    private static final byte HAS_CREATION_DATE = 1 << 4;
+
+    /**
+     * Flag set when the element has the minutes of waiting.
+     */
+    private static final byte HAS_MINUTES_OF_WAITING = 1 << 5;
+
+    /**
+     * Flag set when the element has a car.
+     */
+    private static final byte HAS_CAR = 1 << 6;
+
+    /**
+     * Flag set when the car of the element is cool.
+     */
+    private static final byte COOL_CAR = (byte) (1 << 7);
+
+    /**
+     * Weapon types by ordinal, cached to avoid copying the values array on every read.
+     */
+    private static final WeaponType[] WEAPON_TYPES = WeaponType.values();
+
+    /**
+     * Dictionary of the names, soundtrack names and car names.
+     */
+    private final StringDictionary dictionary;
+
+    /**
+     * Positions of the rows by the keys of their elements.
+     */
+    private final IntIntMap positions;
+
+    /**
+     * Flags of the rows.
+     */
+    private byte[] flags;
+
+    /**
+     * Keys of the elements.
+     */
+    private int[] keys;
+
+    /**
+     * IDs of the elements.
+     */
+    private int[] ids;
+
+    /**
+     * Dictionary codes of the names.
+     */
+    private int[] names;
+
+    /**
+     * Dictionary codes of the names in lower case; the same as the codes of the names for names already in lower case.
+     */
+    private int[] foldedNames;
+
+    /**
+     * X coordinates.
+     */
+    private double[] xs;
+
+    /**
+     * Y coordinates.
+     */
+    private long[] ys;
+
+    /**
+     * Creation dates as seconds since the epoch in UTC.
+     */
+    private long[] creationSeconds;
+
+    /**
+     * Nanoseconds of the creation dates.
+     */
+    private int[] creationNanos;
+
+    /**
+     * Impact speeds.
+     */
+    private long[] impactSpeeds;
+
+    /**
+     * Dictionary codes of the soundtrack names.
+     */
+    private int[] soundtrackNames;
+
+    /**
+     * Minutes of waiting.
+     */
+    private double[] minutesOfWaiting;
+
+    /**
+     * Ordinals of the weapon types; -1 for no weapon type.
+     */
+    private byte[] weaponTypes;
+
+    /**
+     * Dictionary codes of the car names.
+     */
+    private int[] carNames;
+
+    /**
+     * Number of used rows, including holes.
+     */
+    private int end;
+
+    /**
+     * Number of elements.
+     */
+    private int size;
+
+    /**
+     * Creates an empty storage.
+     */
+    public ColumnarStorage() {
+        dictionary = new StringDictionary();
+        positions = new IntIntMap();
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a copy of a storage.
+     *
+     * @param source The storage to copy.
+     */
+    private ColumnarStorage(ColumnarStorage source) {
+        dictionary = source.dictionary.copy();
+        positions = source.positions.copy();
+        flags = source.flags.clone();
+        keys = source.keys.clone();
+        ids = source.ids.clone();
+        names = source.names.clone();
+        foldedNames = source.foldedNames.clone();
+        xs = source.xs.clone();
+        ys = source.ys.clone();
+        creationSeconds = source.creationSeconds.clone();
+        creationNanos = source.creationNanos.clone();
+        impactSpeeds = source.impactSpeeds.clone();
+        soundtrackNames = source.soundtrackNames.clone();
+        minutesOfWaiting = source.minutesOfWaiting.clone();
+        weaponTypes = source.weaponTypes.clone();
+        carNames = source.carNames.clone();
+        end = source.end;
+        size = source.size;
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return The number of elements.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the storage holds no elements.
+     *
+     * @return true if the storage is empty, false otherwise.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks whether an element is stored under a key, looking the key up in the index.
+     *
+     * @param key The key to check.
+     * @return true if an element is stored under the key, false otherwise.
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return positions.containsKey(key);
+    }
+
+    /**
+     * Builds the element stored under a key from its row.
+     *
+     * @param key The key of the element.
+     * @return A new HumanBeing equal to the stored element, or null if no element is stored under the key.
+     */
+    @Override
+    public HumanBeing get(int key) {
+        int position = positions.get(key, -1);
+        return position < 0 ? null : materialize(position);
+    }
+
+    /**
+     * Retrieves the position of the element stored under a key in the columns, looking the key up in the index.
+     *
+     * @param key The key of a stored element.
+     * @return The position of the element.
+     */
+    @Override
+    public int getPosition(int key) {
+        return positions.get(key, -1);
+    }
+
+    /**
+     * Reads the ID of the element stored under a key from the ID column.
+     *
+     * @param key The key of a stored element.
+     * @return The ID of the element.
+     */
+    @Override
+    public int getId(int key) {
+        return ids[positions.get(key, -1)];
+    }
+
+    /**
+     * Reads the name of the element stored under a key from the name column.
+     *
+     * @param key The key of a stored element.
+     * @return The name of the element.
+     */
+    @Override
+    public String getName(int key) {
+        return dictionary.get(names[positions.get(key, -1)]);
+    }
+
+    /**
+     * Reads the name of the element stored under a key in lower case from the folded name column.
+     *
+     * @param key The key of a stored element.
+     * @return The name of the element in lower case.
+     */
+    @Override
+    public String getFoldedName(int key) {
+        return dictionary.get(foldedNames[positions.get(key, -1)]);
+    }
+
+    /**
+     * Reads the car name of the element stored under a key from the car name column.
+     *
+     * @param key The key of a stored element.
+     * @return The name of the car of the element, or null if it has no car.
+     */
+    @Override
+    public String getCarName(int key) {
+        return dictionary.get(carNames[positions.get(key, -1)]);
+    }
+
+    /**
+     * Stores an element under a key. A new key gets a new row at the end of the columns,
+     * the row of a present key is overwritten.
+     *
+     * @param key The key of the element.
+     * @param humanBeing The element to store.
+     */
+    @Override
+    public void put(int key, HumanBeing humanBeing) {
+        int position = positions.get(key, -1);
+        if (position >= 0) {
+            releaseStrings(position);
+        } else {
+            if (end == keys.length) makeRoom();
+            position = end++;
+            keys[position] = key;
+            positions.put(key, position);
+            size++;
+        }
+        write(position, humanBeing);
+    }
+
+    /**
+     * Removes the element stored under a key, leaving a hole at its row.
+     *
+     * @param key The key of the element.
+     * @return true if an element was stored under the key, false otherwise.
+     */
+    @Override
+    public boolean remove(int key) {
+        int position = positions.get(key, -1);
+        if (position < 0) return false;
+        releaseStrings(position);
+        flags[position] = 0;
+        positions.remove(key);
+        size--;
+        if (end > INITIAL_CAPACITY && size * 2 < end) compact();
+        return true;
+    }
+
+    /**
+     * Removes all elements, releasing the columns.
+     */
+    @Override
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        dictionary.clear();
+        positions.clear();
+        end = 0;
+        size = 0;
+    }
+
+    /**
+     * Copies the columns, the dictionary and the index, building no objects per element.
+     *
+     * @return A new ColumnarStorage holding the same elements in the same order.
+     */
+    @Override
+    public ColumnarStorage copy() {
+        return new ColumnarStorage(this);
+    }
+
+    /**
+     * Creates a cursor walking over the rows and skipping the holes. Every element is built when it is read.
+     *
+     * @return A new Cursor positioned before the first element.
+     */
+    @Override
+    public Cursor cursor() {
+        return new Cursor() {
+            private int position = -1;
+
+            @Override
+            public boolean next() {
+                do {
+                    position++;
+                } while (position < end && flags[position] == 0);
+                return position < end;
+            }
+
+            @Override
+            public int key() {
+                return keys[position];
+            }
+
+            @Override
+            public HumanBeing value() {
+                return materialize(position);
+            }
+        };
+    }
+
+    /**
+     * Copies the fields of an element into a row.
+     *
+     * @param position The row.
+     * @param humanBeing The element.
+     */
+    private void write(int position, HumanBeing humanBeing) {
+        Coordinates coordinates = humanBeing.getCoordinates();
+        Car car = humanBeing.getCar();
+        LocalDateTime creationDate = humanBeing.getCreationDate();
+        byte rowFlags = PRESENT;
+        if (humanBeing.isRealHero()) rowFlags |= REAL_HERO;
+        if (humanBeing.isHasToothpick()) rowFlags |= HAS_TOOTHPICK;
+        if (coordinates != null) rowFlags |= HAS_COORDINATES;
+        if (creationDate != null) rowFlags |= HAS_CREATION_DATE;
+        if (humanBeing.getMinutesOfWaiting() != null) rowFlags |= HAS_MINUTES_OF_WAITING;
+        if (car != null) rowFlags |= HAS_CAR;
+        if (car != null && car.isCool()) rowFlags |= COOL_CAR;
+        flags[position] = rowFlags;
+        ids[position] = humanBeing.getId();
+        names[position] = dictionary.acquire(humanBeing.getName());
+        foldedNames[position] = dictionary.acquire(humanBeing.getName().toLowerCase());
+        xs[position] = coordinates == null ? 0 : coordinates.getX();
+        ys[position] = coordinates == null ? 0 : coordinates.getY();
+        creationSeconds[position] = creationDate == null ? 0 : creationDate.toEpochSecond(ZoneOffset.UTC);
+        creationNanos[position] = creationDate == null ? 0 : creationDate.getNano();
+        impactSpeeds[position] = humanBeing.getImpactSpeed();
+        soundtrackNames[position] = dictionary.acquire(humanBeing.getSoundtrackName());
+        minutesOfWaiting[position] = humanBeing.getMinutesOfWaiting() == null ? 0 : humanBeing.getMinutesOfWaiting();
+        weaponTypes[position] = humanBeing.getWeaponType() == null ? -1 : (byte) humanBeing.getWeaponType().ordinal();
+        carNames[position] = car == null ? StringDictionary.NULL : dictionary.acquire(car.getName());
+    }
+
+    /**
+     * Builds a HumanBeing object from a row.
+     *
+     * @param position The row.
+     * @return The element of the row.
+     */
+    private HumanBeing materialize(int position) {
+        byte rowFlags = flags[position];
+        HumanBeing humanBeing = new HumanBeing();
+        humanBeing.setId(ids[position]);
+        humanBeing.setName(dictionary.get(names[position]));
+        if ((rowFlags & HAS_COORDINATES) != 0)
+            humanBeing.setCoordinates(new Coordinates.CoordinatesBuilder(xs[position], ys[position]).build());
+        if ((rowFlags & HAS_CREATION_DATE) != 0)
+            humanBeing.setCreationDate(LocalDateTime.ofEpochSecond(creationSeconds[position], creationNanos[position], ZoneOffset.UTC));
+        humanBeing.setRealHero((rowFlags & REAL_HERO) != 0);
+        humanBeing.setHasToothpick((rowFlags & HAS_TOOTHPICK) != 0);
+        humanBeing.setImpactSpeed(impactSpeeds[position]);
+        humanBeing.setSoundtrackName(dictionary.get(soundtrackNames[position]));
+        if ((rowFlags & HAS_MINUTES_OF_WAITING) != 0) humanBeing.setMinutesOfWaiting(minutesOfWaiting[position]);
+        if (weaponTypes[position] >= 0) humanBeing.setWeaponType(WEAPON_TYPES[weaponTypes[position]]);
+        if ((rowFlags & HAS_CAR) != 0)
+            humanBeing.setCar(new Car.CarBuilder(dictionary.get(carNames[position])).setCool((rowFlags & COOL_CAR) != 0).build());
+        return humanBeing;
+    }
+
+    /**
+     * Releases the dictionary codes referenced by a row.
+     *
+     * @param position The row.
+     */
+    private void releaseStrings(int position) {
+        dictionary.release(names[position]);
+        dictionary.release(foldedNames[position]);
+        dictionary.release(soundtrackNames[position]);
+        dictionary.release(carNames[position]);
+    }
+
+    /**
+     * Makes room for a new row at the end of the full columns,
+     * squeezing out the holes if there are many of them and growing the columns otherwise.
+     */
+    private void makeRoom() {
+        if (size * 2 < end) {
+            compact();
+        } else {
+            resize(keys.length * 2);
+        }
+    }
+
+    /**
+     * Moves the rows over the holes, keeping their order, and updates their positions in the index.
+     */
+    private void compact() {
+        int to = 0;
+        for (int from = 0; from < end; from++) {
+            if (flags[from] == 0) continue;
+            if (from != to) {
+                flags[to] = flags[from];
+                keys[to] = keys[from];
+                ids[to] = ids[from];
+                names[to] = names[from];
+                foldedNames[to] = foldedNames[from];
+                xs[to] = xs[from];
+                ys[to] = ys[from];
+                creationSeconds[to] = creationSeconds[from];
+                creationNanos[to] = creationNanos[from];
+                impactSpeeds[to] = impactSpeeds[from];
+                soundtrackNames[to] = soundtrackNames[from];
+                minutesOfWaiting[to] = minutesOfWaiting[from];
+                weaponTypes[to] = weaponTypes[from];
+                carNames[to] = carNames[from];
+                positions.put(keys[to], to);
+            }
+            to++;
+        }
+        Arrays.fill(flags, to, end, (byte) 0);
+        end = to;
+    }
+
+    /**
+     * Allocates empty columns with the given number of rows.
+     *
+     * @param capacity The number of rows.
+     */
+    private void allocate(int capacity) {
+        flags = new byte[capacity];
+        keys = new int[capacity];
+        ids = new int[capacity];
+        names = new int[capacity];
+        foldedNames = new int[capacity];
+        xs = new double[capacity];
+        ys = new long[capacity];
+        creationSeconds = new long[capacity];
+        creationNanos = new int[capacity];
+        impactSpeeds = new long[capacity];
+        soundtrackNames = new int[capacity];
+        minutesOfWaiting = new double[capacity];
+        weaponTypes = new byte[capacity];
+        carNames = new int[capacity];
+    }
+
+    /**
+     * Copies the columns into columns with the given number of rows.
+     *
+     * @param capacity The new number of rows.
+     */
+    private void resize(int capacity) {
+        flags = Arrays.copyOf(flags, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        foldedNames = Arrays.copyOf(foldedNames, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        creationSeconds = Arrays.copyOf(creationSeconds, capacity);
+        creationNanos = Arrays.copyOf(creationNanos, capacity);
+        impactSpeeds = Arrays.copyOf(impactSpeeds, capacity);
+        soundtrackNames = Arrays.copyOf(soundtrackNames, capacity);
+        minutesOfWaiting = Arrays.copyOf(minutesOfWaiting, capacity);
+        weaponTypes = Arrays.copyOf(weaponTypes, capacity);
+        carNames = Arrays.copyOf(carNames, capacity);
+    }
+}
@@ -42,6 +42,7 @@ public class CommandManager {
      * @param printAscendingCommand Command for printing elements in ascending order
      * @param printDescendingCommand Command for printing elements in descending order
      * @param printFieldDescendingCarCommand Command for printing the car field values in descending order
+     * @param showSinceCommand Command for printing the changes of the collection since a given version
      */
     public CommandManager(Command helpCommand,
                           Command infoCommand,
@@ -57,7 +58,8 @@ public class CommandManager {
                           Command removeLowerKeyCommand,
                           Command printAscendingCommand,
                           Command printDescendingCommand,
-                          Command printFieldDescendingCarCommand
+                          Command printFieldDescendingCarCommand,
+                          Command showSinceCommand
     ) {
         AVAILABLE_COMMANDS.put(helpCommand.getName(), helpCommand);
         AVAILABLE_COMMANDS.put(infoCommand.getName(), infoCommand);
@@ -74,6 +76,7 @@ public class CommandManager {
         AVAILABLE_COMMANDS.put(printAscendingCommand.getName(), printAscendingCommand);
         AVAILABLE_COMMANDS.put(printDescendingCommand.getName(), printDescendingCommand);
         AVAILABLE_COMMANDS.put(printFieldDescendingCarCommand.getName(), printFieldDescendingCarCommand);
+        AVAILABLE_COMMANDS.put(showSinceCommand.getName(), showSinceCommand);
     }
 
     /**
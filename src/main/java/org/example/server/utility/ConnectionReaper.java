@@ -0,0 +1,78 @@
+package org.example.server.utility;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detects and accounts for client connections which have gone silent.
+ * A connection without any traffic, heartbeats included, for {@link ServerSettings#IDLE_TIMEOUT_MILLIS}
+ * is considered dead, e.g. because the client crashed or the network dropped it without closing the socket.
+ * Clients are asked during the handshake to send heartbeats often enough to never hit the timeout while alive.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class ConnectionReaper {
+
+    /**
+     * Idle timeout of a connection in nanoseconds.
+     */
+    private static final long IDLE_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(ServerSettings.IDLE_TIMEOUT_MILLIS);
+
+    /**
+     * Number of milliseconds between the heartbeats expected from an idle client.
+     * Several heartbeats fit into the idle timeout, so a single delayed one does not get a live client reaped.
+     */
+    public static final int HEARTBEAT_INTERVAL_MILLIS = Math.max(1, ServerSettings.IDLE_TIMEOUT_MILLIS / 3);
+
+    /**
+     * Number of milliseconds between sweeps over the connections of an event loop.
+     */
+    public static final long SWEEP_INTERVAL_MILLIS = Math.max(1, ServerSettings.IDLE_TIMEOUT_MILLIS / 4);
+
+    /**
+     * Number of connections closed because of the idle timeout since the server start.
+     */
+    private static final AtomicLong reapedConnections = new AtomicLong();
+
+    /**
+     * Number of heartbeats received since the server start.
+     */
+    private static final AtomicLong receivedHeartbeats = new AtomicLong();
+
+    /**
+     * Checks whether a connection has been silent for longer than the idle timeout.
+     *
+     * @param lastActivity The {@link System#nanoTime()} of the last traffic on the connection.
+     * @param now The current {@link System#nanoTime()}.
+     * @return true if the connection must be closed, false otherwise.
+     */
+    public static boolean isExpired(long lastActivity, long now) {
+        return now - lastActivity > IDLE_TIMEOUT_NANOS;
+    }
+
+    /**
+     * Counts a connection closed because of the idle timeout.
+     */
+    public static void recordReaped() {
+        reapedConnections.incrementAndGet();
+    }
+
+    /**
+     * Counts a received heartbeat.
+     */
+    public static void recordHeartbeat() {
+        receivedHeartbeats.incrementAndGet();
+    }
+
+    /**
+     * Returns the counters of idle connection handling.
+     *
+     * @return A formatted string containing the counters.
+     */
+    public static String getStatistics() {
+        return "Закрыто неактивных соединений: " + reapedConnections.get() + "\n"
+                + "Получено сигналов активности: " + receivedHeartbeats.get();
+    }
+}
@@ -8,9 +8,12 @@ import org.example.common.utility.PrintManager;
 import org.example.server.ServerApplication;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.NoSuchElementException;
 
 /**
@@ -85,27 +88,54 @@ public class FileManager {
 
 
     /**
-     * Writes the given map of HumanBeing objects to a CSV file.
+     * Writes the given storage of HumanBeing objects to a CSV file.
+     * The collection is first written to a temporary file next to the target one, which then replaces the target,
+     * so a crash during saving never leaves a truncated file behind.
+     * If writing or replacing fails, the temporary file is deleted.
      *
-     * @param humanBeings Map of HumanBeing objects to be written to the file.
+     * @param humanBeings Storage of HumanBeing objects to be written to the file.
      */
-    public void writeCollection(LinkedHashMap<Integer, HumanBeing> humanBeings) {
+    public void writeCollection(CollectionStorage humanBeings) {
         if (!fileName.isEmpty()) {
-            try{
-                BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(fileName));
-                out.write(FILE_HEADER.getBytes());
-                byte[] buff = lines(humanBeings).getBytes();
-                out.write(buff);
-                out.close();
+            Path target = Paths.get(fileName).toAbsolutePath();
+            Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            try {
+                try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temporary.toFile())))) {
+                    out.write(FILE_HEADER);
+                    CollectionStorage.Cursor cursor = humanBeings.cursor();
+                    while (cursor.next()) {
+                        out.write(cursor.key() + line(cursor.value()) + "\n");
+                    }
+                }
+                try {
+                    Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+                }
                 PrintManager.printInfoMessage("Коллекция сохранена в файл.");
             } catch (IOException exception) {
                 PrintManager.printErr("Файл не может быть открыт или является директорией.");
+            } finally {
+                deleteTemporary(temporary);
             }
         } else {
             PrintManager.printErr("Файл поврежден или его название указано неверно.");
         }
     }
 
+    /**
+     * Deletes the temporary file left behind by a failed save, if there is one.
+     *
+     * @param temporary The path of the temporary file.
+     */
+    private void deleteTemporary(Path temporary) {
+        try {
+            Files.deleteIfExists(temporary);
+        } catch (IOException exception) {
+            PrintManager.printErr("Не удалось удалить временный файл " + temporary + ".");
+        }
+    }
+
     /**
      * Generates a single line of CSV data for a given HumanBeing object.
      *
@@ -128,22 +158,6 @@ public class FileManager {
                 + "\t" + humanBeing.getCar().isCool();
     }
 
-    /**
-     * Converts a map of HumanBeing objects to a CSV-formatted string.
-     *
-     * @param humanBeings Map of HumanBeing objects to be converted to CSV format.
-     * @return A string representation of all HumanBeing objects in CSV format.
-     */
-    private String lines(LinkedHashMap<Integer, HumanBeing> humanBeings){
-        String result = "";
-        for (Map.Entry<Integer, HumanBeing> entry : humanBeings.entrySet()) {
-            Integer key = entry.getKey();
-            HumanBeing value = entry.getValue();
-            result = result + key + line(value) + "\n";
-        }
-        return result;
-    }
-
     /**
      * Reads a CSV file and returns a map of HumanBeing objects.
      *
@@ -155,7 +169,7 @@ public class FileManager {
     public void readCollection() {
         if (!fileName.isEmpty()) {
             try {
-                LinkedHashMap<Integer, HumanBeing> linkedHashMap = new LinkedHashMap<>();
+                CollectionStorage storage = CollectionManager.createStorage();
                 BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(fileName)));
                 String line;
                 if ((reader.readLine() + "\n").equals(FILE_HEADER)) {
@@ -204,12 +218,11 @@ public class FileManager {
                             car.setCool(Boolean.parseBoolean(properties[13]));
                             result.setCar(car);
                         }
-                        linkedHashMap.put(key, result);
+                        storage.put(key, result);
                     }
                 }
-                Validator validator = new Validator(linkedHashMap);
-                LinkedHashMap<Integer, HumanBeing> validatedLinkedHashMap = validator.validate();
-                ServerApplication.collectionManager.setHumanBeingCollection(validatedLinkedHashMap);
+                Validator validator = new Validator(storage);
+                ServerApplication.collectionManager.setHumanBeingCollection(validator.validate());
             } catch (IOException exception) {
                 PrintManager.printInfoMessage("Файл не найден или доступ запрещен. Работа сервера завершена.");
                 System.exit(1);
@@ -0,0 +1,303 @@
+package org.example.server.utility;
+
+import org.example.common.collectionEntities.HumanBeing;
+
+import java.util.Arrays;
+
+/**
+ * Stores the elements of the collection in dense arrays in insertion order,
+ * with an open-addressing hash index from the keys to their positions in the arrays.
+ * Unlike a {@code LinkedHashMap<Integer, HumanBeing>}, it boxes no keys and allocates no entry objects,
+ * so an element costs a key, a reference and an index slot, and a full scan walks two arrays sequentially.
+ * Removal leaves a hole in the arrays; holes are squeezed out once they make up half of the used part.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class IntHashStorage implements CollectionStorage {
+
+    /**
+     * Initial length of the arrays.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Keys of the elements by position.
+     */
+    private int[] keys = new int[INITIAL_CAPACITY];
+
+    /**
+     * Elements by position; null at the positions of removed elements.
+     */
+    private HumanBeing[] values = new HumanBeing[INITIAL_CAPACITY];
+
+    /**
+     * Names of the elements in lower case by position; null at the positions of removed elements.
+     */
+    private String[] foldedNames = new String[INITIAL_CAPACITY];
+
+    /**
+     * Positions of the elements by their keys.
+     */
+    private final IntIntMap positions;
+
+    /**
+     * Number of used positions, including holes.
+     */
+    private int end;
+
+    /**
+     * Number of elements.
+     */
+    private int size;
+
+    /**
+     * Creates an empty storage.
+     */
+    public IntHashStorage() {
+        positions = new IntIntMap();
+    }
+
+    /**
+     * Creates a copy of a storage.
+     *
+     * @param source The storage to copy.
+     */
+    private IntHashStorage(IntHashStorage source) {
+        positions = source.positions.copy();
+        keys = source.keys.clone();
+        values = source.values.clone();
+        foldedNames = source.foldedNames.clone();
+        end = source.end;
+        size = source.size;
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return The number of elements.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the storage holds no elements.
+     *
+     * @return true if the storage is empty, false otherwise.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks whether an element is stored under a key, looking the key up in the index.
+     *
+     * @param key The key to check.
+     * @return true if an element is stored under the key, false otherwise.
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return positions.containsKey(key);
+    }
+
+    /**
+     * Retrieves the element stored under a key, looking its position up in the index.
+     *
+     * @param key The key of the element.
+     * @return The element, or null if no element is stored under the key.
+     */
+    @Override
+    public HumanBeing get(int key) {
+        int position = positions.get(key, -1);
+        return position < 0 ? null : values[position];
+    }
+
+    /**
+     * Retrieves the position of the element stored under a key in the arrays, looking the key up in the index.
+     *
+     * @param key The key of a stored element.
+     * @return The position of the element.
+     */
+    @Override
+    public int getPosition(int key) {
+        return positions.get(key, -1);
+    }
+
+    /**
+     * Retrieves the ID of the element stored under a key.
+     *
+     * @param key The key of a stored element.
+     * @return The ID of the element.
+     */
+    @Override
+    public int getId(int key) {
+        return values[positions.get(key, -1)].getId();
+    }
+
+    /**
+     * Retrieves the name of the element stored under a key.
+     *
+     * @param key The key of a stored element.
+     * @return The name of the element.
+     */
+    @Override
+    public String getName(int key) {
+        return values[positions.get(key, -1)].getName();
+    }
+
+    /**
+     * Retrieves the name of the element stored under a key in lower case, as folded when the element was stored.
+     *
+     * @param key The key of a stored element.
+     * @return The name of the element in lower case.
+     */
+    @Override
+    public String getFoldedName(int key) {
+        return foldedNames[positions.get(key, -1)];
+    }
+
+    /**
+     * Retrieves the car name of the element stored under a key.
+     *
+     * @param key The key of a stored element.
+     * @return The name of the car of the element, or null if it has no car.
+     */
+    @Override
+    public String getCarName(int key) {
+        HumanBeing humanBeing = values[positions.get(key, -1)];
+        return humanBeing.getCar() == null ? null : humanBeing.getCar().getName();
+    }
+
+    /**
+     * Stores an element under a key. A new key is appended at the end of the arrays,
+     * the element of a present key is replaced in place.
+     *
+     * @param key The key of the element.
+     * @param humanBeing The element to store.
+     */
+    @Override
+    public void put(int key, HumanBeing humanBeing) {
+        int position = positions.get(key, -1);
+        if (position >= 0) {
+            values[position] = humanBeing;
+            foldedNames[position] = humanBeing.getName().toLowerCase();
+            return;
+        }
+        if (end == keys.length) makeRoom();
+        keys[end] = key;
+        values[end] = humanBeing;
+        foldedNames[end] = humanBeing.getName().toLowerCase();
+        positions.put(key, end);
+        end++;
+        size++;
+    }
+
+    /**
+     * Removes the element stored under a key, leaving a hole at its position.
+     *
+     * @param key The key of the element.
+     * @return true if an element was stored under the key, false otherwise.
+     */
+    @Override
+    public boolean remove(int key) {
+        int position = positions.get(key, -1);
+        if (position < 0) return false;
+        values[position] = null;
+        foldedNames[position] = null;
+        positions.remove(key);
+        size--;
+        if (end > INITIAL_CAPACITY && size * 2 < end) compact();
+        return true;
+    }
+
+    /**
+     * Removes all elements, releasing the arrays.
+     */
+    @Override
+    public void clear() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new HumanBeing[INITIAL_CAPACITY];
+        foldedNames = new String[INITIAL_CAPACITY];
+        positions.clear();
+        end = 0;
+        size = 0;
+    }
+
+    /**
+     * Copies the arrays and the index. The elements themselves are shared, as stored elements are not changed.
+     *
+     * @return A new IntHashStorage holding the same elements in the same order.
+     */
+    @Override
+    public IntHashStorage copy() {
+        return new IntHashStorage(this);
+    }
+
+    /**
+     * Creates a cursor walking over the arrays and skipping the holes.
+     *
+     * @return A new Cursor positioned before the first element.
+     */
+    @Override
+    public Cursor cursor() {
+        return new Cursor() {
+            private int position = -1;
+
+            @Override
+            public boolean next() {
+                do {
+                    position++;
+                } while (position < end && values[position] == null);
+                return position < end;
+            }
+
+            @Override
+            public int key() {
+                return keys[position];
+            }
+
+            @Override
+            public HumanBeing value() {
+                return values[position];
+            }
+        };
+    }
+
+    /**
+     * Makes room for a new element at the end of the full arrays,
+     * squeezing out the holes if there are many of them and growing the arrays otherwise.
+     */
+    private void makeRoom() {
+        if (size * 2 < end) {
+            compact();
+        } else {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+            values = Arrays.copyOf(values, values.length * 2);
+            foldedNames = Arrays.copyOf(foldedNames, foldedNames.length * 2);
+        }
+    }
+
+    /**
+     * Moves the elements over the holes, keeping their order, and updates their positions in the index.
+     */
+    private void compact() {
+        int to = 0;
+        for (int from = 0; from < end; from++) {
+            if (values[from] == null) continue;
+            if (from != to) {
+                keys[to] = keys[from];
+                values[to] = values[from];
+                foldedNames[to] = foldedNames[from];
+                positions.put(keys[to], to);
+            }
+            to++;
+        }
+        Arrays.fill(values, to, end, null);
+        Arrays.fill(foldedNames, to, end, null);
+        end = to;
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.server.utility;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from int keys to int values stored in primitive arrays.
+ * Unlike a {@code HashMap<Integer, Integer>}, it allocates no objects per entry, so an index over millions of elements
+ * costs a few bytes per element and its lookups do not chase pointers.
+ * Collisions are resolved by linear probing; removal shifts the following entries back instead of leaving markers,
+ * so lookups stay short however many removals have been made.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class IntIntMap {
+
+    /**
+     * Initial number of slots; always a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Keys of the entries by slot.
+     */
+    private int[] keys;
+
+    /**
+     * Values of the entries by slot.
+     */
+    private int[] values;
+
+    /**
+     * Flags of the occupied slots.
+     */
+    private boolean[] used;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntIntMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Retrieves the value mapped to a key.
+     *
+     * @param key The key to look up.
+     * @param defaultValue The value to return if the key is not mapped.
+     * @return The value mapped to the key, or the default value.
+     */
+    public int get(int key, int defaultValue) {
+        int slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    /**
+     * Checks whether a key is mapped.
+     *
+     * @param key The key to check.
+     * @return true if the key is mapped, false otherwise.
+     */
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Maps a key to a value, replacing its previous value.
+     *
+     * @param key The key.
+     * @param value The value.
+     */
+    public void put(int key, int value) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        // Keep the load factor at most 1/2
+        if (++size * 2 > keys.length) resize(keys.length * 2);
+    }
+
+    /**
+     * Removes the mapping of a key, if there is one.
+     *
+     * @param key The key to remove.
+     */
+    public void remove(int key) {
+        int slot = find(key);
+        if (slot < 0) return;
+        int mask = keys.length - 1;
+        // Shift back every following entry of the probe run which would become unreachable over the emptied slot
+        int next = (slot + 1) & mask;
+        while (used[next]) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[slot] = false;
+        size--;
+    }
+
+    /**
+     * Removes all mappings.
+     */
+    public void clear() {
+        if (keys.length == INITIAL_CAPACITY) {
+            Arrays.fill(used, false);
+        } else {
+            allocate(INITIAL_CAPACITY);
+        }
+        size = 0;
+    }
+
+    /**
+     * Creates a copy of the map.
+     *
+     * @return A new IntIntMap with the same mappings.
+     */
+    public IntIntMap copy() {
+        IntIntMap copy = new IntIntMap();
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.used = used.clone();
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Returns the number of mappings.
+     *
+     * @return The number of mappings.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the slot of a key.
+     *
+     * @param key The key to find.
+     * @return The slot of the key, or -1 if the key is not mapped.
+     */
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Moves all entries into arrays with the given number of slots.
+     *
+     * @param capacity The new number of slots; a power of two.
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i]) continue;
+            int slot = hash(oldKeys[i]) & mask;
+            while (used[slot]) slot = (slot + 1) & mask;
+            used[slot] = true;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    /**
+     * Allocates empty arrays with the given number of slots.
+     *
+     * @param capacity The number of slots; a power of two.
+     */
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    /**
+     * Spreads the bits of a key, so that sequential keys do not form long probe runs.
+     *
+     * @param key The key.
+     * @return The hash of the key.
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
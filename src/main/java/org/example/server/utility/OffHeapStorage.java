@@ -0,0 +1,460 @@
+package org.example.server.utility;
+
+import org.example.common.collectionEntities.HumanBeing;
+import org.example.common.utility.ByteBufferInputStream;
+import org.example.common.utility.HumanBeingCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the elements of the collection outside the Java heap, encoded by {@link HumanBeingCodec}
+ * into direct buffers ("slabs") allocated {@link #SLAB_SIZE} bytes at a time.
+ * The heap holds only the index: the key, the location and the length of every record, by insertion order,
+ * and the positions of the records by key, so the garbage collector neither copies nor scans the elements.
+ * The one field kept on the heap as well is the case-folded name the collection is ordered by, in a {@link StringDictionary},
+ * so that ordering the elements by name neither decodes nor folds a name per comparison.
+ * The heap use still grows with the number of elements: together with the primitive indexes of {@link CollectionManager},
+ * every element costs a few dozen bytes of primitive arrays on the heap, plus its folded name if no other element shares it.
+ * An element is decoded into a new HumanBeing object whenever it is read; the indexes of the collection
+ * read only the ID, the name or the car name out of a record, and changes decode nothing.
+ * Records are appended to the last slab; a replaced or removed record becomes garbage.
+ * Once the garbage outweighs the live records, or the index is half holes, the live records are copied
+ * into fresh slabs in insertion order and the old slabs are dropped, returning their memory.
+ * The amount of off-heap memory is limited by the -XX:MaxDirectMemorySize option of the JVM.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class OffHeapStorage implements CollectionStorage {
+
+    /**
+     * Size of a slab in bytes; a larger record gets a slab of its own size.
+     */
+    private static final int SLAB_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * Initial length of the index arrays.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Length marking the index entry of a removed record.
+     */
+    private static final int HOLE = -1;
+
+    /**
+     * Slabs holding the records; records are appended to the last one.
+     */
+    private List<ByteBuffer> slabs = new ArrayList<>();
+
+    /**
+     * Positions of the records by the keys of their elements.
+     */
+    private final IntIntMap positions = new IntIntMap();
+
+    /**
+     * Keys of the elements by position.
+     */
+    private int[] keys = new int[INITIAL_CAPACITY];
+
+    /**
+     * Locations of the records by position: the slab number in the high half, the offset in the low half.
+     */
+    private long[] locations = new long[INITIAL_CAPACITY];
+
+    /**
+     * Lengths of the records by position; {@link #HOLE} for removed records.
+     */
+    private int[] lengths = new int[INITIAL_CAPACITY];
+
+    /**
+     * Dictionary codes of the names of the elements in lower case by position.
+     */
+    private int[] foldedNames = new int[INITIAL_CAPACITY];
+
+    /**
+     * Dictionary of the names of the elements in lower case.
+     */
+    private final StringDictionary foldedNameDictionary = new StringDictionary();
+
+    /**
+     * Number of used positions, including holes.
+     */
+    private int end;
+
+    /**
+     * Number of elements.
+     */
+    private int size;
+
+    /**
+     * Number of bytes of the live records.
+     */
+    private long liveBytes;
+
+    /**
+     * Number of bytes of the replaced and removed records not reclaimed yet.
+     */
+    private long garbageBytes;
+
+    /**
+     * Buffer the elements are encoded into before being copied into a slab.
+     */
+    private final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return The number of elements.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the storage holds no elements.
+     *
+     * @return true if the storage is empty, false otherwise.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks whether an element is stored under a key, looking the key up in the index.
+     *
+     * @param key The key to check.
+     * @return true if an element is stored under the key, false otherwise.
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return positions.containsKey(key);
+    }
+
+    /**
+     * Decodes the element stored under a key.
+     *
+     * @param key The key of the element.
+     * @return A new HumanBeing equal to the stored element, or null if no element is stored under the key.
+     */
+    @Override
+    public HumanBeing get(int key) {
+        int position = positions.get(key, -1);
+        return position < 0 ? null : decode(position);
+    }
+
+    /**
+     * Retrieves the position of the element stored under a key in the index, looking the key up in the index.
+     *
+     * @param key The key of a stored element.
+     * @return The position of the element.
+     */
+    @Override
+    public int getPosition(int key) {
+        return positions.get(key, -1);
+    }
+
+    /**
+     * Reads the ID of the element stored under a key from the front of its record.
+     *
+     * @param key The key of a stored element.
+     * @return The ID of the element.
+     */
+    @Override
+    public int getId(int key) {
+        try {
+            return HumanBeingCodec.readId(open(positions.get(key, -1)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Запись элемента коллекции повреждена.", e);
+        }
+    }
+
+    /**
+     * Reads the name of the element stored under a key from its record, without decoding the other fields.
+     *
+     * @param key The key of a stored element.
+     * @return The name of the element.
+     */
+    @Override
+    public String getName(int key) {
+        try {
+            return HumanBeingCodec.readName(open(positions.get(key, -1)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Запись элемента коллекции повреждена.", e);
+        }
+    }
+
+    /**
+     * Retrieves the name of the element stored under a key in lower case from the dictionary of folded names,
+     * without reading its record.
+     *
+     * @param key The key of a stored element.
+     * @return The name of the element in lower case.
+     */
+    @Override
+    public String getFoldedName(int key) {
+        return foldedNameDictionary.get(foldedNames[positions.get(key, -1)]);
+    }
+
+    /**
+     * Reads the car name of the element stored under a key from its record, skipping the other fields.
+     *
+     * @param key The key of a stored element.
+     * @return The name of the car of the element, or null if it has no car.
+     */
+    @Override
+    public String getCarName(int key) {
+        try {
+            return HumanBeingCodec.readCarName(open(positions.get(key, -1)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Запись элемента коллекции повреждена.", e);
+        }
+    }
+
+    /**
+     * Encodes an element and appends its record to the last slab.
+     * A new key gets a new position at the end of the index, the position of a present key is reused.
+     *
+     * @param key The key of the element.
+     * @param humanBeing The element to store.
+     */
+    @Override
+    public void put(int key, HumanBeing humanBeing) {
+        int position = positions.get(key, -1);
+        if (position >= 0) {
+            discard(position);
+            foldedNameDictionary.release(foldedNames[position]);
+        } else {
+            if (end == keys.length) makeRoom();
+            position = end++;
+            keys[position] = key;
+            positions.put(key, position);
+            size++;
+        }
+        append(position, encode(humanBeing));
+        foldedNames[position] = foldedNameDictionary.acquire(humanBeing.getName().toLowerCase());
+        if (garbageBytes > SLAB_SIZE && garbageBytes > liveBytes) compact();
+    }
+
+    /**
+     * Removes the element stored under a key, turning its record into garbage.
+     *
+     * @param key The key of the element.
+     * @return true if an element was stored under the key, false otherwise.
+     */
+    @Override
+    public boolean remove(int key) {
+        int position = positions.get(key, -1);
+        if (position < 0) return false;
+        discard(position);
+        foldedNameDictionary.release(foldedNames[position]);
+        lengths[position] = HOLE;
+        positions.remove(key);
+        size--;
+        if ((end > INITIAL_CAPACITY && size * 2 < end) || (garbageBytes > SLAB_SIZE && garbageBytes > liveBytes)) compact();
+        return true;
+    }
+
+    /**
+     * Removes all elements, dropping all slabs.
+     */
+    @Override
+    public void clear() {
+        slabs = new ArrayList<>();
+        positions.clear();
+        keys = new int[INITIAL_CAPACITY];
+        locations = new long[INITIAL_CAPACITY];
+        lengths = new int[INITIAL_CAPACITY];
+        foldedNames = new int[INITIAL_CAPACITY];
+        foldedNameDictionary.clear();
+        end = 0;
+        size = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+    }
+
+    /**
+     * Copies the live records into fresh slabs in insertion order, leaving the garbage behind,
+     * so the copy takes as much off-heap memory as the live records and decodes nothing.
+     *
+     * @return A new OffHeapStorage holding the same elements in the same order.
+     */
+    @Override
+    public OffHeapStorage copy() {
+        OffHeapStorage copy = new OffHeapStorage();
+        copy.keys = new int[Math.max(INITIAL_CAPACITY, size)];
+        copy.locations = new long[copy.keys.length];
+        copy.lengths = new int[copy.keys.length];
+        copy.foldedNames = new int[copy.keys.length];
+        byte[] record = new byte[0];
+        for (int from = 0; from < end; from++) {
+            if (lengths[from] == HOLE) continue;
+            int length = lengths[from];
+            if (record.length != length) record = new byte[length];
+            slabs.get((int) (locations[from] >>> 32)).get((int) locations[from], record);
+            int to = copy.end++;
+            copy.keys[to] = keys[from];
+            copy.positions.put(keys[from], to);
+            copy.append(to, record);
+            copy.foldedNames[to] = copy.foldedNameDictionary.acquire(foldedNameDictionary.get(foldedNames[from]));
+        }
+        copy.size = copy.end;
+        return copy;
+    }
+
+    /**
+     * Creates a cursor walking over the index and skipping the holes. Every element is decoded when it is read.
+     *
+     * @return A new Cursor positioned before the first element.
+     */
+    @Override
+    public Cursor cursor() {
+        return new Cursor() {
+            private int position = -1;
+
+            @Override
+            public boolean next() {
+                do {
+                    position++;
+                } while (position < end && lengths[position] == HOLE);
+                return position < end;
+            }
+
+            @Override
+            public int key() {
+                return keys[position];
+            }
+
+            @Override
+            public HumanBeing value() {
+                return decode(position);
+            }
+        };
+    }
+
+    /**
+     * Encodes an element.
+     *
+     * @param humanBeing The element.
+     * @return The encoded element.
+     */
+    private byte[] encode(HumanBeing humanBeing) {
+        encoded.reset();
+        try {
+            HumanBeingCodec.write(new DataOutputStream(encoded), humanBeing);
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось закодировать элемент коллекции.", e);
+        }
+        return encoded.toByteArray();
+    }
+
+    /**
+     * Decodes the record at a position.
+     *
+     * @param position The position of the record.
+     * @return The decoded element.
+     */
+    private HumanBeing decode(int position) {
+        HumanBeing humanBeing = new HumanBeing();
+        try {
+            HumanBeingCodec.read(open(position), humanBeing);
+        } catch (IOException e) {
+            throw new IllegalStateException("Запись элемента коллекции повреждена.", e);
+        }
+        return humanBeing;
+    }
+
+    /**
+     * Opens the record at a position for reading.
+     *
+     * @param position The position of the record.
+     * @return Stream over the bytes of the record.
+     */
+    private DataInputStream open(int position) {
+        ByteBuffer record = slabs.get((int) (locations[position] >>> 32)).duplicate();
+        int offset = (int) locations[position];
+        record.limit(offset + lengths[position]).position(offset);
+        ByteBufferInputStream in = new ByteBufferInputStream();
+        in.setSource(record);
+        return new DataInputStream(in);
+    }
+
+    /**
+     * Appends a record to the last slab, starting a new slab if it does not fit, and points a position at it.
+     *
+     * @param position The position of the record.
+     * @param record The encoded element.
+     */
+    private void append(int position, byte[] record) {
+        ByteBuffer slab = slabs.isEmpty() ? null : slabs.get(slabs.size() - 1);
+        if (slab == null || slab.remaining() < record.length) {
+            slab = ByteBuffer.allocateDirect(Math.max(SLAB_SIZE, record.length));
+            slabs.add(slab);
+        }
+        locations[position] = ((long) (slabs.size() - 1) << 32) | slab.position();
+        lengths[position] = record.length;
+        slab.put(record);
+        liveBytes += record.length;
+    }
+
+    /**
+     * Counts the record at a position as garbage.
+     *
+     * @param position The position of the record.
+     */
+    private void discard(int position) {
+        liveBytes -= lengths[position];
+        garbageBytes += lengths[position];
+    }
+
+    /**
+     * Makes room for a new position at the end of the full index,
+     * squeezing out the holes if there are many of them and growing the index otherwise.
+     */
+    private void makeRoom() {
+        if (size * 2 < end) {
+            compact();
+        } else {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+            locations = Arrays.copyOf(locations, locations.length * 2);
+            lengths = Arrays.copyOf(lengths, lengths.length * 2);
+            foldedNames = Arrays.copyOf(foldedNames, foldedNames.length * 2);
+        }
+    }
+
+    /**
+     * Copies the live records into fresh slabs in insertion order, squeezing the holes out of the index,
+     * and drops the old slabs.
+     */
+    private void compact() {
+        List<ByteBuffer> oldSlabs = slabs;
+        slabs = new ArrayList<>();
+        liveBytes = 0;
+        garbageBytes = 0;
+        byte[] record = new byte[0];
+        int to = 0;
+        for (int from = 0; from < end; from++) {
+            if (lengths[from] == HOLE) continue;
+            int length = lengths[from];
+            if (record.length != length) record = new byte[length];
+            ByteBuffer source = oldSlabs.get((int) (locations[from] >>> 32));
+            source.get((int) locations[from], record);
+            keys[to] = keys[from];
+            foldedNames[to] = foldedNames[from];
+            if (from != to) positions.put(keys[to], to);
+            append(to, record);
+            to++;
+        }
+        end = to;
+    }
+}
@@ -0,0 +1,426 @@
+package org.example.server.utility;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Keys of the elements of the collection kept sorted by an {@link Order} in blocks of primitive arrays.
+ * Unlike a {@code TreeSet} of keys or of name and key pairs, it allocates no objects per element:
+ * an ordering of millions of elements costs about four bytes per element, and walking it reads contiguous arrays.
+ * The fields the keys are ordered by are not copied into the blocks; the order reads them from the storage when it compares keys,
+ * so a key can be added or removed only while its element is stored.
+ * Keys are found by binary search, first over the last keys of the blocks and then within a block,
+ * and adding or removing a key shifts only the keys after it in its block.
+ * A full block is split in two; a block which has become sparse is merged with a neighbour.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class OrderedKeys {
+
+    /**
+     * Maximum number of keys in a block.
+     */
+    private static final int BLOCK_SIZE = 1024;
+
+    /**
+     * Initial length of the array of blocks.
+     */
+    private static final int INITIAL_BLOCKS = 4;
+
+    /**
+     * The order of the keys.
+     */
+    private final Order order;
+
+    /**
+     * Blocks of keys in order; only the first {@link #blockCount} are used, and none of them is empty.
+     */
+    private int[][] blocks = new int[INITIAL_BLOCKS][];
+
+    /**
+     * Numbers of keys in the blocks.
+     */
+    private int[] counts = new int[INITIAL_BLOCKS];
+
+    /**
+     * Number of used blocks.
+     */
+    private int blockCount;
+
+    /**
+     * Number of keys.
+     */
+    private int size;
+
+    /**
+     * Creates an empty ordering.
+     *
+     * @param order The order of the keys; it must be total, so that no two distinct keys compare as equal.
+     */
+    public OrderedKeys(Order order) {
+        this.order = order;
+    }
+
+    /**
+     * Returns the number of keys.
+     *
+     * @return The number of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copies a range of the keys in order.
+     *
+     * @param from The first position of the range.
+     * @param to The position after the last one of the range.
+     * @return A new array holding the keys of the range.
+     */
+    public int[] copy(int from, int to) {
+        int[] range = new int[to - from];
+        int skipped = 0;
+        int copied = 0;
+        for (int b = 0; b < blockCount && copied < range.length; b++) {
+            int start = Math.max(0, from - skipped);
+            if (start < counts[b]) {
+                int length = Math.min(counts[b] - start, range.length - copied);
+                System.arraycopy(blocks[b], start, range, copied, length);
+                copied += length;
+            }
+            skipped += counts[b];
+        }
+        return range;
+    }
+
+    /**
+     * Inserts the key of a stored element at its place in the order.
+     *
+     * @param key The key; it must not be present yet.
+     */
+    public void add(int key) {
+        if (blockCount == 0) insertBlock(0, new int[BLOCK_SIZE], 0);
+        int b = blockOf(key);
+        int index = indexOf(b, key);
+        if (index >= 0) return;
+        index = -(index + 1);
+        if (counts[b] == BLOCK_SIZE) {
+            if (index == BLOCK_SIZE && b == blockCount - 1) {
+                // Keys appended in order fill the blocks completely instead of leaving every block half empty
+                insertBlock(++b, new int[BLOCK_SIZE], 0);
+                index = 0;
+            } else {
+                split(b);
+                if (index > counts[b]) {
+                    index -= counts[b];
+                    b++;
+                }
+            }
+        }
+        int[] block = blocks[b];
+        System.arraycopy(block, index, block, index + 1, counts[b] - index);
+        block[index] = key;
+        counts[b]++;
+        size++;
+    }
+
+    /**
+     * Removes the key of an element which is still stored.
+     *
+     * @param key The key.
+     */
+    public void remove(int key) {
+        if (blockCount == 0) return;
+        int b = blockOf(key);
+        int index = indexOf(b, key);
+        if (index < 0) return;
+        System.arraycopy(blocks[b], index + 1, blocks[b], index, counts[b] - index - 1);
+        counts[b]--;
+        size--;
+        rebalance(b);
+    }
+
+    /**
+     * Removes a range of the keys in order, dropping the blocks the range covers whole
+     * and shifting only the keys after the range in its last block,
+     * so that the cost depends on the number of blocks, not on the number of keys.
+     * No keys are compared, so the range may be removed after the elements have been removed.
+     *
+     * @param from The first position of the range.
+     * @param to The position after the last one of the range.
+     */
+    public void removeRange(int from, int to) {
+        if (from >= to) return;
+        int first = 0;
+        int skipped = 0;
+        while (skipped + counts[first] <= from) {
+            skipped += counts[first++];
+        }
+        int last = first;
+        int lastSkipped = skipped;
+        while (lastSkipped + counts[last] < to) {
+            lastSkipped += counts[last++];
+        }
+        int start = from - skipped;
+        int end = to - lastSkipped;
+        if (first == last) {
+            System.arraycopy(blocks[first], end, blocks[first], start, counts[first] - end);
+            counts[first] -= end - start;
+        } else {
+            counts[first] = start;
+            System.arraycopy(blocks[last], end, blocks[last], 0, counts[last] - end);
+            counts[last] -= end;
+            removeBlocks(first + 1, last);
+            rebalance(first + 1);
+        }
+        size -= to - from;
+        rebalance(first);
+    }
+
+    /**
+     * Counts the keys at the start of the order which satisfy a condition.
+     * The condition must hold for a prefix of the order and for no key after it.
+     *
+     * @param before The condition holding for the keys before a boundary.
+     * @return The number of keys before the boundary.
+     */
+    public int countWhile(IntPredicate before) {
+        int low = 0;
+        int high = blockCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (before.test(blocks[middle][counts[middle] - 1])) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int count = 0;
+        for (int b = 0; b < low; b++) {
+            count += counts[b];
+        }
+        if (low == blockCount) return count;
+        int[] block = blocks[low];
+        int from = 0;
+        int to = counts[low];
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (before.test(block[middle])) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return count + from;
+    }
+
+    /**
+     * Replaces all keys by the given ones, sorting them by an order of their indexes in the given array.
+     * The caller may compare fields it has read ahead of time, instead of reading them from the storage on every comparison;
+     * the result must be the same as sorting by the order of the ordering.
+     *
+     * @param source The keys of stored elements.
+     * @param count The number of keys at the start of the array to take.
+     * @param sourceOrder The order of the indexes of the keys in the array.
+     */
+    public void setAll(int[] source, int count, Order sourceOrder) {
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            indexes[i] = i;
+        }
+        int[] buffer = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int from = 0; from < count - width; from += 2 * width) {
+                merge(indexes, from, from + width, Math.min(from + 2 * width, count), buffer, sourceOrder);
+            }
+        }
+        clear();
+        for (int from = 0; from < count; from += BLOCK_SIZE) {
+            int[] block = new int[BLOCK_SIZE];
+            int length = Math.min(BLOCK_SIZE, count - from);
+            for (int i = 0; i < length; i++) {
+                block[i] = source[indexes[from + i]];
+            }
+            insertBlock(blockCount, block, length);
+        }
+        size = count;
+    }
+
+    /**
+     * Removes all keys, releasing the blocks.
+     */
+    public void clear() {
+        blocks = new int[INITIAL_BLOCKS][];
+        counts = new int[INITIAL_BLOCKS];
+        blockCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Finds the block a key belongs to: the first block whose last key does not go before it, or the last block.
+     *
+     * @param key The key of a stored element.
+     * @return The number of the block.
+     */
+    private int blockOf(int key) {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (order.compare(blocks[middle][counts[middle] - 1], key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds a key in a block by binary search.
+     *
+     * @param b The number of the block.
+     * @param key The key of a stored element.
+     * @return The position of the key in the block, or {@code -(insertion point) - 1} if the key is not present.
+     */
+    private int indexOf(int b, int key) {
+        int[] block = blocks[b];
+        int low = 0;
+        int high = counts[b] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int result = order.compare(block[middle], key);
+            if (result < 0) {
+                low = middle + 1;
+            } else if (result > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Drops a block which has become empty, or merges a sparse one with a neighbour if their keys fit in half a block.
+     *
+     * @param b The number of the block.
+     */
+    private void rebalance(int b) {
+        if (counts[b] == 0) {
+            removeBlock(b);
+        } else if (counts[b] < BLOCK_SIZE / 4) {
+            if (b + 1 < blockCount && counts[b] + counts[b + 1] <= BLOCK_SIZE / 2) {
+                merge(b);
+            } else if (b > 0 && counts[b - 1] + counts[b] <= BLOCK_SIZE / 2) {
+                merge(b - 1);
+            }
+        }
+    }
+
+    /**
+     * Moves the upper half of a full block into a new block following it.
+     *
+     * @param b The number of the block.
+     */
+    private void split(int b) {
+        int half = BLOCK_SIZE / 2;
+        int[] upper = new int[BLOCK_SIZE];
+        System.arraycopy(blocks[b], half, upper, 0, counts[b] - half);
+        insertBlock(b + 1, upper, counts[b] - half);
+        counts[b] = half;
+    }
+
+    /**
+     * Appends the keys of a block to the block before it and drops the emptied block.
+     *
+     * @param b The number of the block receiving the keys of the next one.
+     */
+    private void merge(int b) {
+        System.arraycopy(blocks[b + 1], 0, blocks[b], counts[b], counts[b + 1]);
+        counts[b] += counts[b + 1];
+        removeBlock(b + 1);
+    }
+
+    /**
+     * Inserts a block into the array of blocks.
+     *
+     * @param b The number the block gets.
+     * @param block The block.
+     * @param count The number of keys in the block.
+     */
+    private void insertBlock(int b, int[] block, int count) {
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blocks.length * 2);
+            counts = Arrays.copyOf(counts, counts.length * 2);
+        }
+        System.arraycopy(blocks, b, blocks, b + 1, blockCount - b);
+        System.arraycopy(counts, b, counts, b + 1, blockCount - b);
+        blocks[b] = block;
+        counts[b] = count;
+        blockCount++;
+    }
+
+    /**
+     * Removes a block from the array of blocks.
+     *
+     * @param b The number of the block.
+     */
+    private void removeBlock(int b) {
+        removeBlocks(b, b + 1);
+    }
+
+    /**
+     * Removes a run of blocks from the array of blocks.
+     *
+     * @param from The number of the first block of the run.
+     * @param to The number of the block after the run.
+     */
+    private void removeBlocks(int from, int to) {
+        System.arraycopy(blocks, to, blocks, from, blockCount - to);
+        System.arraycopy(counts, to, counts, from, blockCount - to);
+        Arrays.fill(blocks, blockCount - (to - from), blockCount, null);
+        blockCount -= to - from;
+    }
+
+    /**
+     * Merges two adjacent sorted runs of an array of indexes into one.
+     *
+     * @param indexes The array holding the runs.
+     * @param from The first position of the first run.
+     * @param middle The first position of the second run.
+     * @param to The position after the last one of the second run.
+     * @param buffer Scratch array as long as the array of indexes, receiving a copy of the first run.
+     * @param indexOrder The order of the indexes.
+     */
+    private static void merge(int[] indexes, int from, int middle, int to, int[] buffer, Order indexOrder) {
+        if (indexOrder.compare(indexes[middle - 1], indexes[middle]) <= 0) return;
+        System.arraycopy(indexes, from, buffer, from, middle - from);
+        int left = from;
+        int right = middle;
+        int out = from;
+        while (left < middle && right < to) {
+            indexes[out++] = indexOrder.compare(buffer[left], indexes[right]) <= 0 ? buffer[left++] : indexes[right++];
+        }
+        while (left < middle) {
+            indexes[out++] = buffer[left++];
+        }
+    }
+
+    /**
+     * Order of the keys of stored elements.
+     */
+    public interface Order {
+
+        /**
+         * Compares the elements stored under two keys.
+         *
+         * @param key1 The key of the first element.
+         * @param key2 The key of the second element.
+         * @return A negative number, zero or a positive number as the first element goes before, with or after the second one.
+         */
+        int compare(int key1, int key2);
+    }
+}
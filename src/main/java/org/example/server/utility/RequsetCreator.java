@@ -6,9 +6,12 @@ import org.example.server.ServerApplication;
 import org.example.server.commands.Command;
 import org.example.server.exceptions.DisconnectException;
 
+import java.util.Collections;
+import java.util.Iterator;
+
 /**
  * Creates and builds responses to client requests using the provided command and request.
- * Handles the generation of new IDs for HumanBeing objects if required by the command.
+ * Answers conditional requests whose cached response is still up to date.
  *
  * @author Aerosolus
  * @version 1.0
@@ -18,7 +21,6 @@ public class RequsetCreator {
 
     /**
      * Builds a response to a client request based on the given command and request.
-     * If the command requires a HumanBeing argument, it generates a new ID for the HumanBeing argument.
      *
      * @param command The command to execute.
      * @param request The client request.
@@ -26,8 +28,23 @@ public class RequsetCreator {
      * @throws DisconnectException if issues occur during disconnection initialization.
      */
     public static Response build(Command command, Request request) throws DisconnectException {
-        if (request.getHumanBeingArgument() != null)
-            request.getHumanBeingArgument().setId(ServerApplication.collectionManager.generateId());
         return command.execute(request);
     }
+
+    /**
+     * Builds a response to a client request as a sequence of chunks.
+     * If the command is cacheable and the client has cached its response for the current version of the collection,
+     * the command is not executed and the client is told to repeat the cached response.
+     *
+     * @param command The command to execute.
+     * @param request The client request.
+     * @return Iterator over the chunks of the response to the client request.
+     * @throws DisconnectException if issues occur during disconnection initialization.
+     */
+    public static Iterator<Response> buildStream(Command command, Request request) throws DisconnectException {
+        if (command.isCacheable() && request.getVersion() != null
+                && request.getVersion() == ServerApplication.collectionManager.getVersion())
+            return Collections.singletonList(Response.notModified()).iterator();
+        return command.executeStreaming(request);
+    }
 }
@@ -0,0 +1,110 @@
+package org.example.server.utility;
+
+import org.example.common.utility.Frame;
+import org.example.common.utility.PrintManager;
+import org.example.common.utility.Response;
+
+import java.util.Iterator;
+
+/**
+ * Represents the response to a single request as it is being sent, chunk by chunk.
+ * Every chunk is tagged with the correlation identifier of the request, and chunks which do not report
+ * a collection version themselves are stamped with the version read before the command was executed.
+ * An admitted request keeps its permit from {@link AdmissionController} until its last chunk has been sent,
+ * since lazily rendered chunks are the work still being done for it.
+ * The permit is released once the stream is exhausted or closed, whichever comes first.
+ * A chunk too long to fit into a frame is replaced by a chunk reporting the failure, see {@link #oversizedResponse}.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class ResponseStream implements Iterator<Response> {
+
+    /**
+     * Chunks of the response which have not been sent yet.
+     */
+    private final Iterator<Response> chunks;
+
+    /**
+     * Correlation identifier of the request.
+     */
+    private final long requestId;
+
+    /**
+     * Version of the collection read before the command was executed.
+     */
+    private final long version;
+
+    /**
+     * Flag indicating whether the stream still holds the permit of an admitted request.
+     */
+    private boolean holdsPermit;
+
+    /**
+     * Constructs a ResponseStream over the chunks of a response.
+     *
+     * @param chunks The chunks of the response.
+     * @param requestId The correlation identifier of the request.
+     * @param version The version of the collection read before the command was executed.
+     * @param holdsPermit Flag indicating whether the request has been admitted and its permit must be released.
+     */
+    public ResponseStream(Iterator<Response> chunks, long requestId, long version, boolean holdsPermit) {
+        this.chunks = chunks;
+        this.requestId = requestId;
+        this.version = version;
+        this.holdsPermit = holdsPermit;
+    }
+
+    /**
+     * Checks whether more chunks follow, releasing the permit of the request once the last chunk has been taken.
+     * The caller sends every chunk before asking for the next one, so the last chunk has been sent by then.
+     *
+     * @return true if more chunks follow, false otherwise.
+     */
+    @Override
+    public boolean hasNext() {
+        if (chunks.hasNext()) return true;
+        close();
+        return false;
+    }
+
+    /**
+     * Takes the next chunk, tagged with the correlation identifier of the request and stamped with a version.
+     *
+     * @return The next chunk of the response.
+     */
+    @Override
+    public Response next() {
+        Response response = chunks.next();
+        response.setRequestId(requestId);
+        if (response.getVersion() == 0) response.setVersion(version);
+        return response;
+    }
+
+    /**
+     * Builds the chunk sent in place of a chunk whose encoding is longer than {@link Frame#MAX_PAYLOAD_SIZE},
+     * which the client would reject as corrupted, dropping the connection.
+     * It keeps the place of the chunk in the response and reports no version, so that the client does not cache it.
+     *
+     * @param response The chunk which is too long.
+     * @param size The length of the encoded chunk in bytes.
+     * @return Response reporting that the chunk could not be sent.
+     */
+    public static Response oversizedResponse(Response response, int size) {
+        Response oversized = new Response(PrintManager.getPlainText("Ответ слишком велик для отправки: " + size
+                + " байт при допустимых " + Frame.MAX_PAYLOAD_SIZE + "."), response.isPartial());
+        oversized.setRequestId(response.getRequestId());
+        return oversized;
+    }
+
+    /**
+     * Abandons the rest of the response, e.g. because the connection is closed, releasing the permit of the request.
+     * Closing the stream again does nothing.
+     */
+    public void close() {
+        if (!holdsPermit) return;
+        holdsPermit = false;
+        AdmissionController.releaseRequest();
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.server.utility;
+
+import org.example.common.utility.PrintManager;
+
+import java.util.Locale;
+
+/**
+ * Holds the tunable settings of the server.
+ * Every setting is read once from an environment variable of the same name; a missing or malformed value
+ * falls back to the default, so the server can always be started without any configuration.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class ServerSettings {
+
+    /**
+     * Flag indicating whether clients may negotiate compression of large payloads.
+     * Set COMPRESSION to "off" to keep all traffic uncompressed.
+     */
+    public static final boolean COMPRESSION_ENABLED = readFlag("COMPRESSION", true);
+
+    /**
+     * Maximum number of simultaneously served client connections. Further connections are rejected.
+     */
+    public static final int MAX_CONNECTIONS = readInt("MAX_CONNECTIONS", 1024);
+
+    /**
+     * Maximum number of requests executed at the same time. Further requests are rejected.
+     */
+    public static final int MAX_IN_FLIGHT_REQUESTS = readInt("MAX_IN_FLIGHT_REQUESTS", 256);
+
+    /**
+     * Number of milliseconds after which a client is advised to repeat rejected work.
+     */
+    public static final int RETRY_AFTER_MILLIS = readInt("RETRY_AFTER_MILLIS", 1000);
+
+    /**
+     * Number of milliseconds without any traffic after which a client connection is considered dead and closed.
+     */
+    public static final int IDLE_TIMEOUT_MILLIS = readInt("IDLE_TIMEOUT_MILLIS", 60000);
+
+    /**
+     * Number of milliseconds the shutdown waits for the requests being executed and for their responses to be written.
+     */
+    public static final int SHUTDOWN_TIMEOUT_MILLIS = readInt("SHUTDOWN_TIMEOUT_MILLIS", 10000);
+
+    /**
+     * Number of the latest collection changes remembered for clients asking only for the changes since their version.
+     * Clients which are further behind receive the whole collection.
+     */
+    public static final int CHANGE_LOG_SIZE = readInt("CHANGE_LOG_SIZE", 10000);
+
+    /**
+     * Kind of storage of the collection: "heap" keeps the elements as objects, see {@link IntHashStorage},
+     * "columnar" keeps their fields in primitive arrays, see {@link ColumnarStorage},
+     * "offheap" keeps them encoded outside the Java heap, see {@link OffHeapStorage}.
+     */
+    public static final String STORAGE = readChoice("STORAGE", "heap", "heap", "columnar", "offheap");
+
+    /**
+     * Reads a positive integer setting from an environment variable.
+     *
+     * @param name The name of the environment variable.
+     * @param defaultValue The value used if the variable is missing or malformed.
+     * @return The value of the setting.
+     */
+    static int readInt(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) return defaultValue;
+        try {
+            int result = Integer.parseInt(value.trim());
+            if (result > 0) return result;
+        } catch (NumberFormatException ignored) {
+        }
+        PrintManager.printErr("Некорректное значение переменной окружения " + name + ": " + value
+                + ". Используется значение по умолчанию.");
+        return defaultValue;
+    }
+
+    /**
+     * Reads a setting with a fixed set of values from an environment variable, ignoring case.
+     *
+     * @param name The name of the environment variable.
+     * @param defaultValue The value used if the variable is missing or malformed.
+     * @param choices The allowed values in lower case.
+     * @return The value of the setting.
+     */
+    static String readChoice(String name, String defaultValue, String... choices) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) return defaultValue;
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (String choice : choices) {
+            if (choice.equals(normalized)) return choice;
+        }
+        PrintManager.printErr("Некорректное значение переменной окружения " + name + ": " + value
+                + ". Используется значение по умолчанию.");
+        return defaultValue;
+    }
+
+    /**
+     * Reads an on/off setting from an environment variable.
+     *
+     * @param name The name of the environment variable.
+     * @param defaultValue The value used if the variable is missing or malformed.
+     * @return The value of the setting.
+     */
+    static boolean readFlag(String name, boolean defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) return defaultValue;
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if (normalized.equals("on") || normalized.equals("true")) return true;
+        if (normalized.equals("off") || normalized.equals("false")) return false;
+        PrintManager.printErr("Некорректное значение переменной окружения " + name + ": " + value
+                + ". Используется значение по умолчанию.");
+        return defaultValue;
+    }
+}
@@ -0,0 +1,264 @@
+package org.example.server.utility;
+
+import org.example.common.Codec;
+import org.example.common.DataManager;
+import org.example.common.InputOutputManager;
+import org.example.common.utility.BufferPool;
+import org.example.common.utility.CodecManager;
+import org.example.common.utility.CompressionManager;
+import org.example.common.utility.Frame;
+import org.example.common.utility.FrameReader;
+import org.example.common.utility.Handshake;
+import org.example.common.utility.PrintManager;
+import org.example.common.utility.Request;
+import org.example.common.utility.Response;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Manages input/output operations for a non-blocking server-side socket channel.
+ * Incoming bytes are accumulated until a whole {@link Frame} has arrived,
+ * and outgoing frames are queued until the channel is able to accept them.
+ * A streamed response is rendered chunk by chunk, only as fast as the channel accepts the previous chunks.
+ * No more requests are read while a response is being written, so a client which sends requests
+ * without reading the responses is held back by its own socket buffer instead of filling the memory of the server.
+ * The first frame of the connection is the {@link Handshake} of the client, which is answered before any response.
+ * Instances are attached to the channel's selection key and are used by a single event loop thread only.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class ServerSocketChannelIOManager implements InputOutputManager {
+
+    /**
+     * Selection key of the managed channel.
+     */
+    private final SelectionKey key;
+
+    /**
+     * Socket channel used for communication.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * Reader reassembling frames from the received bytes.
+     */
+    private final FrameReader frameReader = new FrameReader();
+
+    /**
+     * Wire format of the connection, agreed on during the handshake, or null until a message is exchanged.
+     */
+    private Codec codec;
+
+    /**
+     * Compression settings of the connection.
+     */
+    private final CompressionManager compressionManager = new CompressionManager();
+
+    /**
+     * Serialized responses waiting to be written to the channel.
+     */
+    private final Queue<ByteBuffer> pendingWrites = new ArrayDeque<>();
+
+    /**
+     * Chunks of the response being streamed which have not been serialized yet, or null if no response is streamed.
+     */
+    private ResponseStream activeStream;
+
+    /**
+     * The {@link System#nanoTime()} of the last traffic on the channel.
+     */
+    private long lastActivity = System.nanoTime();
+
+    /**
+     * Constructs a ServerSocketChannelIOManager for the channel registered under the given key.
+     *
+     * @param key The selection key of a non-blocking socket channel.
+     */
+    public ServerSocketChannelIOManager(SelectionKey key) {
+        this.key = key;
+        this.channel = (SocketChannel) key.channel();
+    }
+
+    /**
+     * Reads the bytes currently available on the channel without blocking.
+     *
+     * @return false if the client has closed the connection, true otherwise.
+     * @throws IOException if an I/O error occurs during reading from the channel.
+     */
+    public boolean readAvailable() throws IOException {
+        lastActivity = System.nanoTime();
+        return frameReader.readFrom(channel);
+    }
+
+    /**
+     * Checks whether the channel has been silent for longer than the idle timeout.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     * @return true if the connection is considered dead, false otherwise.
+     */
+    public boolean isExpired(long now) {
+        return ConnectionReaper.isExpired(lastActivity, now);
+    }
+
+    /**
+     * Deserializes the next Request if its frame has arrived completely. Never blocks.
+     * Heartbeats and the handshake received before the request are handled on the way.
+     *
+     * @return The received Request object, or null if no complete request has arrived yet.
+     * @throws IOException if the received bytes cannot be deserialized.
+     * @throws ClassNotFoundException if the class of the serialized object cannot be found.
+     */
+    @Override
+    public DataManager receive() throws IOException, ClassNotFoundException {
+        Frame frame;
+        while ((frame = frameReader.nextFrame()) != null) {
+            if (frame.getFlags() == Frame.FLAG_HEARTBEAT) {
+                ConnectionReaper.recordHeartbeat();
+                continue;
+            }
+            if (frame.getFlags() == Frame.FLAG_HANDSHAKE) {
+                acceptHandshake(frame);
+                continue;
+            }
+            return (Request) CodecStatistics.decode(codec(), compressionManager.decode(frame));
+        }
+        return null;
+    }
+
+    /**
+     * Answers the handshake of the client and applies the agreed settings to the connection.
+     *
+     * @param frame The handshake frame received from the client.
+     * @throws IOException if the frame is corrupted or the answer cannot be written.
+     */
+    private void acceptHandshake(Frame frame) throws IOException {
+        Handshake handshake = Handshake.decode(frame)
+                .accept(ServerSettings.COMPRESSION_ENABLED, ConnectionReaper.HEARTBEAT_INTERVAL_MILLIS);
+        compressionManager.setEnabled(handshake.isCompressionEnabled());
+        codec = CodecManager.create(handshake.getCodec());
+        CodecStatistics.recordConnection(codec);
+        PrintManager.printInfoMessage("Формат сообщений клиента: " + codec.getName() + ".");
+        pendingWrites.add(handshake.encode());
+        flush();
+    }
+
+    /**
+     * Retrieves the wire format of the connection.
+     * A client which has not sent a handshake is served with Java serialization.
+     *
+     * @return The Codec of the connection.
+     * @throws IOException if the format cannot be initialized.
+     */
+    private Codec codec() throws IOException {
+        if (codec == null) codec = CodecManager.create(CodecManager.JAVA);
+        return codec;
+    }
+
+    /**
+     * Serializes a DataManager object into a frame.
+     * A response longer than a frame may carry is replaced by {@link ResponseStream#oversizedResponse}.
+     *
+     * @param data The DataManager object to encode.
+     * @return Pooled buffer containing the encoded frame.
+     * @throws IOException if the object cannot be encoded.
+     */
+    private ByteBuffer encode(DataManager data) throws IOException {
+        ByteBuffer payload = CodecStatistics.encode(codec(), data);
+        if (payload.remaining() > Frame.MAX_PAYLOAD_SIZE && data instanceof Response response) {
+            int size = payload.remaining();
+            BufferPool.release(payload);
+            codec().discardLast();
+            payload = CodecStatistics.encode(codec(), ResponseStream.oversizedResponse(response, size));
+        }
+        return compressionManager.encode(payload);
+    }
+
+    /**
+     * Serializes a DataManager object into a frame and writes as much of it as the channel accepts.
+     * The remainder is kept until the channel becomes writable again.
+     *
+     * @param data The DataManager object to send over the channel.
+     * @throws IOException if an I/O error occurs during writing to the channel.
+     */
+    @Override
+    public void send(DataManager data) throws IOException {
+        pendingWrites.add(encode(data));
+        flush();
+    }
+
+    /**
+     * Starts streaming a response consisting of several chunks.
+     * The next chunk is serialized only after the previous ones have been written to the channel.
+     *
+     * @param responses Stream of the chunks of the response; closed if the channel is closed before it is sent.
+     * @throws IOException if an I/O error occurs during writing to the channel.
+     */
+    public void sendStream(ResponseStream responses) throws IOException {
+        activeStream = responses;
+        flush();
+    }
+
+    /**
+     * Checks whether earlier responses are still being written,
+     * in which case the following requests must wait to keep the responses in order.
+     *
+     * @return true if some response bytes are not written yet, false otherwise.
+     */
+    public boolean isBusy() {
+        return activeStream != null || !pendingWrites.isEmpty();
+    }
+
+    /**
+     * Writes queued responses and the chunks of the streamed response to the channel until it stops accepting data.
+     * While some bytes remain unsent, the channel is watched for writing only; read interest is restored
+     * once everything has been written.
+     *
+     * @throws IOException if an I/O error occurs during writing to the channel.
+     */
+    public void flush() throws IOException {
+        while (true) {
+            ByteBuffer buffer = pendingWrites.peek();
+            if (buffer == null) {
+                if (activeStream == null || !activeStream.hasNext()) break;
+                buffer = encode(activeStream.next());
+                pendingWrites.add(buffer);
+            }
+            if (channel.write(buffer) > 0) lastActivity = System.nanoTime();
+            if (buffer.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+            BufferPool.release(pendingWrites.poll());
+        }
+        activeStream = null;
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    /**
+     * Closes the managed channel and releases its connection permit, the request permit of an unfinished response
+     * and its pooled buffers. Closing an already closed channel does nothing.
+     *
+     * @throws IOException if an I/O error occurs while closing the channel.
+     */
+    public void close() throws IOException {
+        if (!key.isValid()) return;
+        key.cancel();
+        if (activeStream != null) activeStream.close();
+        activeStream = null;
+        AdmissionController.releaseConnection();
+        compressionManager.close();
+        frameReader.release();
+        ByteBuffer buffer;
+        while ((buffer = pendingWrites.poll()) != null) {
+            BufferPool.release(buffer);
+        }
+        channel.close();
+    }
+}
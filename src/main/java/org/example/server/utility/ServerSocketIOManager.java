@@ -1,15 +1,32 @@
 package org.example.server.utility;
 
+import org.example.common.Codec;
 import org.example.common.DataManager;
 import org.example.common.InputOutputManager;
+import org.example.common.utility.BufferPool;
+import org.example.common.utility.CodecManager;
+import org.example.common.utility.CompressionManager;
+import org.example.common.utility.Frame;
+import org.example.common.utility.Handshake;
+import org.example.common.utility.PrintManager;
 import org.example.common.utility.Request;
+import org.example.common.utility.Response;
 
-import java.io.*;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
 
 /**
  * Manages input/output operations for server-side socket communication.
  * Implements the InputOutputManager interface to provide methods for receiving and sending data over sockets.
+ * A single instance serves the whole connection, keeping its object streams alive between requests.
+ * Every message is transmitted as a length-prefixed {@link Frame}.
+ * The first frame of the connection is the {@link Handshake} of the client, which is answered before any response.
  *
  * @author Aerosolus
  * @version 1.0
@@ -22,18 +39,42 @@ public class ServerSocketIOManager implements InputOutputManager {
      */
     private final Socket socket;
 
+    /**
+     * Buffered stream of the bytes received from the socket.
+     */
+    private final DataInputStream inputStream;
+
+    /**
+     * Wire format of the connection, agreed on during the handshake, or null until a message is exchanged.
+     */
+    private Codec codec;
+
+    /**
+     * Compression settings of the connection.
+     */
+    private final CompressionManager compressionManager = new CompressionManager();
+
+    /**
+     * Array receiving frame payloads, reused for all frames and enlarged while the bytes of a longer one arrive.
+     */
+    private byte[] payloadBuffer = new byte[8192];
+
     /**
      * Constructs a ServerSocketIOManager instance with the given socket.
      *
      * @param socket The socket for managing input/output operations.
+     * @throws IOException if the streams of the socket cannot be obtained.
      */
-    public ServerSocketIOManager(Socket socket) {
+    public ServerSocketIOManager(Socket socket) throws IOException {
         this.socket = socket;
+        this.inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
     }
 
 
     /**
      * Receives and deserializes a Request object from the socket stream.
+     * Blocks until the whole frame carrying the request has arrived.
+     * Heartbeats and the handshake received before the request are handled on the way.
      *
      * @return The deserialized Request object received from the socket.
      * @throws IOException if an I/O error occurs during reading from the socket.
@@ -41,8 +82,77 @@ public class ServerSocketIOManager implements InputOutputManager {
      */
     @Override
     public DataManager receive() throws IOException, ClassNotFoundException {
-        ObjectInput in = new ObjectInputStream(socket.getInputStream());
-        return (Request) in.readObject();
+        while (true) {
+            Frame frame = readFrame();
+            if (frame.getFlags() == Frame.FLAG_HEARTBEAT) {
+                ConnectionReaper.recordHeartbeat();
+            } else if (frame.getFlags() == Frame.FLAG_HANDSHAKE) {
+                Handshake handshake = Handshake.decode(frame)
+                        .accept(ServerSettings.COMPRESSION_ENABLED, ConnectionReaper.HEARTBEAT_INTERVAL_MILLIS);
+                compressionManager.setEnabled(handshake.isCompressionEnabled());
+                codec = CodecManager.create(handshake.getCodec());
+                CodecStatistics.recordConnection(codec);
+                PrintManager.printInfoMessage("Формат сообщений клиента: " + codec.getName() + ".");
+                write(handshake.encode());
+            } else {
+                return (Request) CodecStatistics.decode(codec(), compressionManager.decode(frame));
+            }
+        }
+    }
+
+    /**
+     * Retrieves the wire format of the connection.
+     * A client which has not sent a handshake is served with Java serialization.
+     *
+     * @return The Codec of the connection.
+     * @throws IOException if the format cannot be initialized.
+     */
+    private Codec codec() throws IOException {
+        if (codec == null) codec = CodecManager.create(CodecManager.JAVA);
+        return codec;
+    }
+
+    /**
+     * Serializes a DataManager object into a frame.
+     * A response longer than a frame may carry is replaced by {@link ResponseStream#oversizedResponse}.
+     *
+     * @param data The DataManager object to encode.
+     * @return Pooled buffer containing the encoded frame.
+     * @throws IOException if the object cannot be encoded.
+     */
+    private ByteBuffer encode(DataManager data) throws IOException {
+        ByteBuffer payload = CodecStatistics.encode(codec(), data);
+        if (payload.remaining() > Frame.MAX_PAYLOAD_SIZE && data instanceof Response response) {
+            int size = payload.remaining();
+            BufferPool.release(payload);
+            codec().discardLast();
+            payload = CodecStatistics.encode(codec(), ResponseStream.oversizedResponse(response, size));
+        }
+        return compressionManager.encode(payload);
+    }
+
+    /**
+     * Reads the next frame from the socket stream, blocking until it has arrived completely.
+     * The payload array is enlarged only as the payload bytes arrive,
+     * so a header announcing a long payload does not allocate memory for it in advance.
+     *
+     * @return The received frame; its payload stays valid until the next frame is read.
+     * @throws IOException if an I/O error occurs during reading from the socket.
+     */
+    private Frame readFrame() throws IOException {
+        int length = inputStream.readInt();
+        Frame.validateLength(length);
+        byte flags = inputStream.readByte();
+        int received = 0;
+        while (received < length) {
+            if (received == payloadBuffer.length) {
+                payloadBuffer = Arrays.copyOf(payloadBuffer, Math.min(length, payloadBuffer.length * 2));
+            }
+            int read = inputStream.read(payloadBuffer, received, Math.min(length, payloadBuffer.length) - received);
+            if (read < 0) throw new EOFException();
+            received += read;
+        }
+        return new Frame(flags, ByteBuffer.wrap(payloadBuffer, 0, length));
     }
 
     /**
@@ -53,12 +163,27 @@ public class ServerSocketIOManager implements InputOutputManager {
      */
     @Override
     public void send(DataManager data) throws IOException {
-        OutputStream outputStream = socket.getOutputStream();
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
-        objectOutputStream.writeObject(data);
-        objectOutputStream.flush();
-        byteArrayOutputStream.writeTo(outputStream);
-        byteArrayOutputStream.close();
+        write(encode(data));
+    }
+
+    /**
+     * Writes an encoded frame to the socket and returns its buffer to the pool.
+     * Pooled frames are direct buffers, so they are written through the channel of the socket if it has one.
+     *
+     * @param frame The encoded frame.
+     * @throws IOException if an I/O error occurs during writing to the socket.
+     */
+    private void write(ByteBuffer frame) throws IOException {
+        SocketChannel channel = socket.getChannel();
+        if (channel != null) {
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+        } else {
+            byte[] bytes = new byte[frame.remaining()];
+            frame.get(bytes);
+            socket.getOutputStream().write(bytes);
+        }
+        BufferPool.release(frame);
     }
 }
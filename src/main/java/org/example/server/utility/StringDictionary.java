@@ -0,0 +1,134 @@
+package org.example.server.utility;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Replaces strings by integer codes, storing every distinct string once.
+ * Columns of repeated values, such as soundtrack and car names, then hold four-byte codes instead of references.
+ * Codes are reference-counted: the code of a string no longer referenced by any row is reused for the next new string.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+public class StringDictionary {
+
+    /**
+     * Code standing for a null string.
+     */
+    public static final int NULL = -1;
+
+    /**
+     * Codes of the stored strings.
+     */
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    /**
+     * Stored strings by code; null for free codes.
+     */
+    private String[] strings = new String[16];
+
+    /**
+     * Number of references to the stored strings by code.
+     */
+    private int[] references = new int[16];
+
+    /**
+     * Free codes, used as a stack.
+     */
+    private int[] freeCodes = new int[16];
+
+    /**
+     * Number of free codes on the stack.
+     */
+    private int freeCount;
+
+    /**
+     * Number of codes handed out so far, including the free ones.
+     */
+    private int end;
+
+    /**
+     * Adds a reference to a string, storing the string if it is new.
+     *
+     * @param string The string, possibly null.
+     * @return The code of the string, or {@link #NULL} for a null string.
+     */
+    public int acquire(String string) {
+        if (string == null) return NULL;
+        Integer code = codes.get(string);
+        if (code == null) {
+            code = freeCount > 0 ? freeCodes[--freeCount] : newCode();
+            codes.put(string, code);
+            strings[code] = string;
+        }
+        references[code]++;
+        return code;
+    }
+
+    /**
+     * Removes a reference to a string, forgetting the string once nothing references it.
+     *
+     * @param code The code of the string, or {@link #NULL}.
+     */
+    public void release(int code) {
+        if (code == NULL || --references[code] > 0) return;
+        codes.remove(strings[code]);
+        strings[code] = null;
+        if (freeCount == freeCodes.length) freeCodes = Arrays.copyOf(freeCodes, freeCodes.length * 2);
+        freeCodes[freeCount++] = code;
+    }
+
+    /**
+     * Retrieves the string of a code.
+     *
+     * @param code The code of the string, or {@link #NULL}.
+     * @return The string, or null for {@link #NULL}.
+     */
+    public String get(int code) {
+        return code == NULL ? null : strings[code];
+    }
+
+    /**
+     * Creates a copy of the dictionary, in which the strings keep their codes and reference counts.
+     *
+     * @return A new StringDictionary with the same strings.
+     */
+    public StringDictionary copy() {
+        StringDictionary copy = new StringDictionary();
+        copy.codes.putAll(codes);
+        copy.strings = strings.clone();
+        copy.references = references.clone();
+        copy.freeCodes = freeCodes.clone();
+        copy.freeCount = freeCount;
+        copy.end = end;
+        return copy;
+    }
+
+    /**
+     * Forgets all strings.
+     */
+    public void clear() {
+        codes.clear();
+        strings = new String[16];
+        references = new int[16];
+        freeCodes = new int[16];
+        freeCount = 0;
+        end = 0;
+    }
+
+    /**
+     * Hands out a never used code, growing the arrays if needed.
+     *
+     * @return The new code.
+     */
+    private int newCode() {
+        if (end == strings.length) {
+            strings = Arrays.copyOf(strings, end * 2);
+            references = Arrays.copyOf(references, end * 2);
+        }
+        return end++;
+    }
+}
@@ -3,7 +3,6 @@ package org.example.server.utility;
 import org.example.common.collectionEntities.HumanBeing;
 
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.Set;
 
 /**
@@ -17,31 +16,32 @@ import java.util.Set;
 public class Validator {
 
     /**
-     * Map containing HumanBeing objects to be validated.
+     * Storage containing HumanBeing objects to be validated.
      */
-    LinkedHashMap<Integer, HumanBeing> humanBeings;
+    CollectionStorage humanBeings;
 
     /**
-     * Constructs a Validator instance with the given map of HumanBeing objects.
+     * Constructs a Validator instance with the given storage of HumanBeing objects.
      *
-     * @param humanBeings LinkedHashMap containing HumanBeing objects to validate.
+     * @param humanBeings CollectionStorage containing HumanBeing objects to validate.
      */
-    public Validator(LinkedHashMap<Integer, HumanBeing> humanBeings) {
+    public Validator(CollectionStorage humanBeings) {
         this.humanBeings = humanBeings;
     }
 
     /**
      * Performs validation on the collection of HumanBeing objects.
      *
-     * @return A new LinkedHashMap containing valid HumanBeing objects after validation.
-     * Invalid entries are removed from the returned map.
+     * @return The CollectionStorage containing valid HumanBeing objects after validation.
+     * Invalid entries are removed from the returned storage.
      */
-    public LinkedHashMap<Integer, HumanBeing> validate() {
+    public CollectionStorage validate() {
         Set<Integer> idSet = new HashSet<>();
-        Set<Integer> keys = humanBeings.keySet();
         Set<Integer> resultKeys = new HashSet<>();
-        for (Integer key : keys) {
-            HumanBeing humanBeing = humanBeings.get(key);
+        CollectionStorage.Cursor cursor = humanBeings.cursor();
+        while (cursor.next()) {
+            int key = cursor.key();
+            HumanBeing humanBeing = cursor.value();
             if (humanBeing.getId() <= 0 || !idSet.add(humanBeing.getId())) resultKeys.add(key);
             if (humanBeing.getName() == null || humanBeing.getName().isEmpty()) resultKeys.add(key);
             if (humanBeing.getCreationDate() == null) resultKeys.add(key);
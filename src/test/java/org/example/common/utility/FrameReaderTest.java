@@ -0,0 +1,229 @@
+package org.example.common.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of {@link FrameReader}: frames split over many reads, several frames in one read,
+ * payloads longer than the initial buffer, and headers announcing lengths which are not allowed.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+class FrameReaderTest {
+
+    /**
+     * A frame arriving one byte at a time is extracted only once its last byte has arrived.
+     */
+    @Test
+    void waitsForPartialHeaderAndPayload() throws IOException {
+        byte[] payload = {1, 2, 3, 4, 5, 6, 7};
+        byte[] frame = toArray(Frame.encode((byte) 3, ByteBuffer.wrap(payload)));
+        FrameReader reader = new FrameReader();
+        TrickleChannel channel = new TrickleChannel();
+        for (int i = 0; i < frame.length - 1; i++) {
+            channel.add(new byte[]{frame[i]});
+            assertTrue(reader.readFrom(channel));
+            assertNull(reader.nextFrame(), "frame extracted after " + (i + 1) + " bytes");
+        }
+        channel.add(new byte[]{frame[frame.length - 1]});
+        assertTrue(reader.readFrom(channel));
+        Frame extracted = reader.nextFrame();
+        assertNotNull(extracted);
+        assertEquals((byte) 3, extracted.getFlags());
+        assertArrayEquals(payload, toArray(extracted.getPayload()));
+        assertNull(reader.nextFrame());
+        reader.release();
+    }
+
+    /**
+     * Frames of random lengths cut into reads of random lengths are extracted whole and in order,
+     * including frames split across the reads, frames sharing a read and payloads far longer than the initial buffer.
+     */
+    @Test
+    void reassemblesFramesSplitAtRandom() throws IOException {
+        Random random = new Random(4);
+        List<byte[]> payloads = new ArrayList<>();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (int i = 0; i < 300; i++) {
+            byte[] payload = new byte[i % 50 == 0 ? random.nextInt(1 << 20) : random.nextInt(100)];
+            random.nextBytes(payload);
+            payloads.add(payload);
+            stream.writeBytes(toArray(Frame.encode((byte) (i & 0x7F), ByteBuffer.wrap(payload))));
+        }
+        byte[] bytes = stream.toByteArray();
+        TrickleChannel channel = new TrickleChannel();
+        FrameReader reader = new FrameReader();
+        int received = 0;
+        for (int offset = 0; offset < bytes.length; ) {
+            int length = Math.min(bytes.length - offset, 1 + random.nextInt(random.nextBoolean() ? 16 : 100_000));
+            channel.add(Arrays.copyOfRange(bytes, offset, offset + length));
+            offset += length;
+            assertTrue(reader.readFrom(channel));
+            for (Frame frame = reader.nextFrame(); frame != null; frame = reader.nextFrame()) {
+                assertEquals((byte) (received & 0x7F), frame.getFlags());
+                assertArrayEquals(payloads.get(received), toArray(frame.getPayload()));
+                received++;
+            }
+        }
+        assertEquals(payloads.size(), received);
+        reader.release();
+    }
+
+    /**
+     * A header announcing a payload longer than allowed, or a negative one, is rejected as soon as the header has arrived,
+     * before any of the payload is waited for.
+     */
+    @Test
+    void rejectsOversizedAndNegativeLengths() throws IOException {
+        for (int length : new int[]{Frame.MAX_PAYLOAD_SIZE + 1, Integer.MAX_VALUE, -1, Integer.MIN_VALUE}) {
+            FrameReader reader = new FrameReader();
+            TrickleChannel channel = new TrickleChannel();
+            channel.add(ByteBuffer.allocate(Frame.HEADER_SIZE).putInt(length).array());
+            reader.readFrom(channel);
+            assertThrows(IOException.class, reader::nextFrame);
+            reader.release();
+        }
+    }
+
+    /**
+     * A payload of exactly the allowed maximum length is accepted, filling the buffer to its largest capacity.
+     */
+    @Test
+    void acceptsLongestAllowedPayload() throws IOException {
+        byte[] payload = new byte[Frame.MAX_PAYLOAD_SIZE];
+        payload[payload.length - 1] = 9;
+        TrickleChannel channel = new TrickleChannel();
+        channel.add(toArray(Frame.encode((byte) 0, ByteBuffer.wrap(payload))));
+        channel.add(toArray(Frame.encode((byte) 1, ByteBuffer.wrap(new byte[]{5}))));
+        FrameReader reader = new FrameReader();
+        // The second frame does not fit until the first one has been extracted
+        assertTrue(reader.readFrom(channel));
+        Frame first = reader.nextFrame();
+        assertNotNull(first);
+        assertEquals(Frame.MAX_PAYLOAD_SIZE, first.getPayload().remaining());
+        assertEquals((byte) 9, first.getPayload().get(Frame.MAX_PAYLOAD_SIZE - 1));
+        assertNull(reader.nextFrame());
+        assertTrue(reader.readFrom(channel));
+        Frame second = reader.nextFrame();
+        assertNotNull(second);
+        assertArrayEquals(new byte[]{5}, toArray(second.getPayload()));
+        reader.release();
+    }
+
+    /**
+     * The end of the stream is reported once the peer has closed the connection.
+     */
+    @Test
+    void reportsClosedConnection() throws IOException {
+        TrickleChannel channel = new TrickleChannel();
+        channel.add(new byte[]{0, 0});
+        channel.close();
+        FrameReader reader = new FrameReader();
+        assertFalse(reader.readFrom(channel));
+        assertNull(reader.nextFrame());
+        reader.release();
+    }
+
+    /**
+     * A frame encoded in place is the same as one encoded into a new buffer.
+     */
+    @Test
+    void encodesInPlaceLikeIntoNewBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(Frame.HEADER_SIZE + 3);
+        buffer.position(Frame.HEADER_SIZE);
+        buffer.put(new byte[]{7, 8, 9}).flip().position(Frame.HEADER_SIZE);
+        byte[] expected = toArray(Frame.encode((byte) 2, buffer.duplicate()));
+        assertArrayEquals(expected, toArray(Frame.encodeInPlace((byte) 2, buffer)));
+    }
+
+    /**
+     * Copies the remaining bytes of a buffer without moving its position.
+     *
+     * @param buffer The buffer.
+     * @return The remaining bytes.
+     */
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Channel handing out the chunks added to it, at most one chunk per read, like a non-blocking socket
+     * which has received the chunks in separate packets. A read finding no chunk returns 0, or -1 once the channel is closed.
+     */
+    private static class TrickleChannel implements ReadableByteChannel {
+
+        /**
+         * Chunks not read yet.
+         */
+        private final List<ByteBuffer> chunks = new ArrayList<>();
+
+        /**
+         * Flag indicating whether the peer has closed the connection.
+         */
+        private boolean closed;
+
+        /**
+         * Adds a chunk to be read.
+         *
+         * @param chunk The bytes of the chunk.
+         */
+        void add(byte[] chunk) {
+            chunks.add(ByteBuffer.wrap(chunk));
+        }
+
+        /**
+         * Copies as much of the current chunk as fits into the destination.
+         *
+         * @param destination The buffer to read into.
+         * @return The number of bytes read, 0 if no chunk is pending, or -1 if the channel is closed.
+         */
+        @Override
+        public int read(ByteBuffer destination) {
+            if (chunks.isEmpty()) return closed ? -1 : 0;
+            ByteBuffer chunk = chunks.get(0);
+            int length = Math.min(chunk.remaining(), destination.remaining());
+            destination.put(chunk.slice(chunk.position(), length));
+            chunk.position(chunk.position() + length);
+            if (!chunk.hasRemaining()) chunks.remove(0);
+            return length;
+        }
+
+        /**
+         * Checks whether the channel is still open.
+         *
+         * @return true, since the peer closing the connection does not close the channel of the reader.
+         */
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        /**
+         * Marks the connection as closed by the peer; pending chunks can still be read.
+         */
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
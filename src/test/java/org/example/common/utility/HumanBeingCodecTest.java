@@ -0,0 +1,200 @@
+package org.example.common.utility;
+
+import org.example.common.collectionEntities.Car;
+import org.example.common.collectionEntities.Coordinates;
+import org.example.common.collectionEntities.HumanBeing;
+import org.example.common.collectionEntities.WeaponType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of {@link HumanBeingCodec}: round trips of complete and sparse elements, extreme values of the zigzag varints,
+ * the readers of single fields, and rejection of truncated or malformed input.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+class HumanBeingCodecTest {
+
+    /**
+     * An element with every optional field set decodes to an equal element.
+     */
+    @Test
+    void roundTripsCompleteElement() throws IOException {
+        HumanBeing humanBeing = new HumanBeing.HumanBeingBuilder(17, "Иван", new Coordinates.CoordinatesBuilder(1.5, 42).build(),
+                true, "Soundtrack", 300, 12.25)
+                .setWeaponType(WeaponType.SHOTGUN)
+                .setCar(new Car.CarBuilder("Lada").setCool(true).build())
+                .setRealHero(true)
+                .build();
+        humanBeing.setCreationDate(LocalDateTime.of(2024, 2, 29, 23, 59, 58, 123_456_789));
+        assertRoundTrips(humanBeing);
+    }
+
+    /**
+     * An element without any optional field decodes with the same fields left null.
+     */
+    @Test
+    void roundTripsElementWithNullFields() throws IOException {
+        HumanBeing humanBeing = new HumanBeing.HumanBeingBuilder(1, "", null, false, null, 0, null).build();
+        HumanBeing decoded = decode(encode(humanBeing));
+        assertEquals(humanBeing.toString(), decoded.toString());
+        assertNull(decoded.getCoordinates());
+        assertNull(decoded.getCreationDate());
+        assertNull(decoded.getSoundtrackName());
+        assertNull(decoded.getMinutesOfWaiting());
+        assertNull(decoded.getWeaponType());
+        assertNull(decoded.getCar());
+    }
+
+    /**
+     * Negative and extreme values survive the zigzag encoding, including dates before the epoch.
+     */
+    @Test
+    void roundTripsNegativeAndExtremeValues() throws IOException {
+        long[] values = {-1, -64, -65, Integer.MIN_VALUE, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE};
+        for (long value : values) {
+            HumanBeing humanBeing = new HumanBeing.HumanBeingBuilder((int) value, "n",
+                    new Coordinates.CoordinatesBuilder(-0.0, value).build(), true, "s", value, -1.0)
+                    .setCar(new Car.CarBuilder("c").build())
+                    .build();
+            humanBeing.setCreationDate(LocalDateTime.of(1901, 1, 1, 0, 0, 1, 1));
+            assertRoundTrips(humanBeing);
+        }
+    }
+
+    /**
+     * An element decoded into an instance holding other values replaces all of them, including with nulls.
+     */
+    @Test
+    void readReplacesAllFieldsOfReusedInstance() throws IOException {
+        HumanBeing reused = new HumanBeing.HumanBeingBuilder(5, "old", new Coordinates.CoordinatesBuilder(2, 3).build(),
+                true, "old", 9, 1.0)
+                .setWeaponType(WeaponType.AXE)
+                .setCar(new Car.CarBuilder("old").build())
+                .setRealHero(true)
+                .build();
+        reused.setCreationDate(LocalDateTime.of(2000, 1, 1, 0, 0));
+        HumanBeing sparse = new HumanBeing.HumanBeingBuilder(-6, "new", null, false, null, -7, null).build();
+        HumanBeingCodec.read(new DataInputStream(new ByteArrayInputStream(encode(sparse))), reused);
+        assertEquals(sparse.toString(), reused.toString());
+    }
+
+    /**
+     * The readers of single fields find the same values as a full decoding, with and without the fields in front of them.
+     */
+    @Test
+    void readsSingleFields() throws IOException {
+        HumanBeing complete = new HumanBeing.HumanBeingBuilder(-300, "Пётр", new Coordinates.CoordinatesBuilder(7, -8).build(),
+                false, "Мелодия", -9, 10.0)
+                .setWeaponType(WeaponType.MACHINE_GUN)
+                .setCar(new Car.CarBuilder("Волга").build())
+                .build();
+        complete.setCreationDate(LocalDateTime.of(2020, 5, 6, 7, 8, 9));
+        HumanBeing sparse = new HumanBeing.HumanBeingBuilder(300, "Анна", null, false, null, 0, null)
+                .setCar(new Car.CarBuilder("Ока").build())
+                .build();
+        HumanBeing withoutCar = new HumanBeing.HumanBeingBuilder(0, "Олег", null, true, "x", 1, 2.0).build();
+        for (HumanBeing humanBeing : new HumanBeing[]{complete, sparse, withoutCar}) {
+            byte[] bytes = encode(humanBeing);
+            assertEquals(humanBeing.getId().intValue(), HumanBeingCodec.readId(input(bytes)));
+            assertEquals(humanBeing.getName(), HumanBeingCodec.readName(input(bytes)));
+            String carName = humanBeing.getCar() == null ? null : humanBeing.getCar().getName();
+            assertEquals(carName, HumanBeingCodec.readCarName(input(bytes)));
+        }
+    }
+
+    /**
+     * Input cut off anywhere before its end is rejected instead of being decoded into a partial element.
+     */
+    @Test
+    void rejectsTruncatedInput() throws IOException {
+        HumanBeing humanBeing = new HumanBeing.HumanBeingBuilder(17, "name", new Coordinates.CoordinatesBuilder(1, 2).build(),
+                true, "soundtrack", 3, 4.0)
+                .setCar(new Car.CarBuilder("car").build())
+                .build();
+        byte[] bytes = encode(humanBeing);
+        for (int length = 0; length < bytes.length; length++) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(EOFException.class, () -> decode(truncated));
+            assertThrows(EOFException.class, () -> HumanBeingCodec.readCarName(input(truncated)));
+        }
+    }
+
+    /**
+     * A varint longer than 64 bits and an unknown weapon type are rejected as malformed.
+     */
+    @Test
+    void rejectsMalformedInput() {
+        byte[] longVarint = new byte[12];
+        Arrays.fill(longVarint, (byte) 0xFF);
+        longVarint[0] = 0;
+        assertThrows(InvalidObjectException.class, () -> decode(longVarint));
+
+        // Flags announcing a weapon type, ID 0, empty name, impact speed 0, null soundtrack, weapon ordinal 100
+        byte[] unknownWeapon = {1 << 4, 0, 1, 0, 0, 100};
+        assertThrows(InvalidObjectException.class, () -> decode(unknownWeapon));
+    }
+
+    /**
+     * Checks that an element decodes to an element with the same fields.
+     *
+     * @param humanBeing The element.
+     * @throws IOException if the element cannot be encoded or decoded.
+     */
+    private static void assertRoundTrips(HumanBeing humanBeing) throws IOException {
+        assertEquals(humanBeing.toString(), decode(encode(humanBeing)).toString());
+    }
+
+    /**
+     * Encodes an element.
+     *
+     * @param humanBeing The element.
+     * @return The encoded bytes.
+     * @throws IOException if the element cannot be encoded.
+     */
+    private static byte[] encode(HumanBeing humanBeing) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HumanBeingCodec.write(new DataOutputStream(bytes), humanBeing);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes an element, checking that it takes all of the bytes.
+     *
+     * @param bytes The encoded bytes.
+     * @return The decoded element.
+     * @throws IOException if the bytes cannot be decoded.
+     */
+    private static HumanBeing decode(byte[] bytes) throws IOException {
+        ByteArrayInputStream stream = new ByteArrayInputStream(bytes);
+        HumanBeing humanBeing = new HumanBeing();
+        HumanBeingCodec.read(new DataInputStream(stream), humanBeing);
+        assertEquals(0, stream.available(), "bytes left after decoding");
+        return humanBeing;
+    }
+
+    /**
+     * Wraps encoded bytes for reading.
+     *
+     * @param bytes The encoded bytes.
+     * @return The input reading the bytes.
+     */
+    private static DataInputStream input(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.server.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of {@link IntIntMap}, mostly of removal by backward shifting, which must keep every entry
+ * of a probe run reachable after a slot in front of it has been emptied.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+class IntIntMapTest {
+
+    /**
+     * Number of slots of a new map; the map holds up to half as many entries before it grows.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Keys removed from a run of colliding keys leave the rest of the run reachable.
+     */
+    @Test
+    void removeFromCollidingRunKeepsOthersReachable() {
+        int[] colliding = keysWithSlot(3, 6);
+        for (int removed = 0; removed < colliding.length; removed++) {
+            IntIntMap map = new IntIntMap();
+            for (int key : colliding) {
+                map.put(key, key * 10);
+            }
+            map.remove(colliding[removed]);
+            assertEquals(colliding.length - 1, map.size());
+            for (int key : colliding) {
+                if (key == colliding[removed]) {
+                    assertFalse(map.containsKey(key));
+                } else {
+                    assertEquals(key * 10, map.get(key, -1), "key " + key);
+                }
+            }
+        }
+    }
+
+    /**
+     * An entry displaced into the run of another slot is shifted back only as far as its own slot allows.
+     */
+    @Test
+    void removeShiftsOnlyEntriesWhoseSlotAllows() {
+        int[] first = keysWithSlot(5, 3);
+        int[] second = keysWithSlot(6, 2);
+        IntIntMap map = new IntIntMap();
+        // Slots 5, 6, 7 are taken by the first run, so the second run lands in slots 8 and 9
+        for (int key : first) {
+            map.put(key, 1);
+        }
+        for (int key : second) {
+            map.put(key, 2);
+        }
+        map.remove(first[0]);
+        map.remove(first[2]);
+        assertEquals(1, map.get(first[1], -1));
+        assertEquals(2, map.get(second[0], -1));
+        assertEquals(2, map.get(second[1], -1));
+        map.remove(first[1]);
+        assertEquals(2, map.get(second[0], -1));
+        assertEquals(2, map.get(second[1], -1));
+        assertEquals(2, map.size());
+    }
+
+    /**
+     * A probe run wrapping around the end of the table is shifted back across the wrap.
+     */
+    @Test
+    void removeShiftsAcrossTheEndOfTheTable() {
+        int[] colliding = keysWithSlot(INITIAL_CAPACITY - 2, 5);
+        IntIntMap map = new IntIntMap();
+        for (int key : colliding) {
+            map.put(key, key);
+        }
+        map.remove(colliding[0]);
+        map.remove(colliding[1]);
+        for (int i = 2; i < colliding.length; i++) {
+            assertEquals(colliding[i], map.get(colliding[i], -1));
+        }
+        map.put(colliding[0], 7);
+        assertEquals(7, map.get(colliding[0], -1));
+        assertEquals(4, map.size());
+    }
+
+    /**
+     * Putting a present key replaces its value without adding an entry.
+     */
+    @Test
+    void putReplacesValueOfPresentKey() {
+        IntIntMap map = new IntIntMap();
+        map.put(42, 1);
+        map.put(42, 2);
+        assertEquals(1, map.size());
+        assertEquals(2, map.get(42, -1));
+    }
+
+    /**
+     * A long random sequence of puts and removes over few keys, crossing several resizes, agrees with a HashMap.
+     */
+    @Test
+    void randomOperationsAgreeWithHashMap() {
+        Random random = new Random(17);
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> model = new HashMap<>();
+        for (int step = 0; step < 200_000; step++) {
+            int key = random.nextInt(4096) - 2048;
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                model.remove(key);
+            } else {
+                map.put(key, step);
+                model.put(key, step);
+            }
+        }
+        assertEquals(model.size(), map.size());
+        for (int key = -2048; key < 2048; key++) {
+            assertEquals(model.getOrDefault(key, -1).intValue(), map.get(key, -1), "key " + key);
+        }
+    }
+
+    /**
+     * A copy is not affected by later changes of the original, nor the original by changes of the copy.
+     */
+    @Test
+    void copyIsIndependent() {
+        IntIntMap map = new IntIntMap();
+        for (int key = 0; key < 100; key++) {
+            map.put(key, key);
+        }
+        IntIntMap copy = map.copy();
+        map.remove(5);
+        copy.put(200, 1);
+        assertTrue(copy.containsKey(5));
+        assertFalse(map.containsKey(200));
+        assertEquals(101, copy.size());
+        assertEquals(99, map.size());
+    }
+
+    /**
+     * Finds keys which a new map puts into the same home slot.
+     *
+     * @param slot The home slot.
+     * @param count The number of keys to find.
+     * @return The keys in increasing order.
+     */
+    private static int[] keysWithSlot(int slot, int count) {
+        int[] keys = new int[count];
+        int found = 0;
+        for (int key = 0; found < count; key++) {
+            if ((hash(key) & (INITIAL_CAPACITY - 1)) == slot) keys[found++] = key;
+        }
+        return keys;
+    }
+
+    /**
+     * Repeats the hash of the map, so that the tests can aim keys at chosen slots.
+     *
+     * @param key The key.
+     * @return The hash of the key.
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.server.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests of {@link OrderedKeys} against a sorted list of the same keys, mostly of removing ranges,
+ * which drops whole blocks and trims the blocks at both ends of the range.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+class OrderedKeysTest {
+
+    /**
+     * Ranges inside one block, across a few blocks and across all of them, at the start, in the middle and at the end,
+     * leave the other keys in order.
+     */
+    @Test
+    void removeRangeKeepsOtherKeys() {
+        int count = 10_000;
+        int[][] ranges = {{0, 0}, {0, 1}, {5, 6}, {100, 900}, {0, 1024}, {1000, 1100}, {500, 4000},
+                {0, 7000}, {3000, count}, {count - 1, count}, {0, count}};
+        for (int[] range : ranges) {
+            OrderedKeys keys = new OrderedKeys(Integer::compare);
+            List<Integer> model = new ArrayList<>();
+            for (int key = 0; key < count; key++) {
+                keys.add(key);
+                model.add(key);
+            }
+            keys.removeRange(range[0], range[1]);
+            model.subList(range[0], range[1]).clear();
+            assertKeys(model, keys);
+            // The blocks left behind by the removal still take keys anywhere
+            keys.add(-1);
+            keys.add(count);
+            model.add(-1);
+            model.add(count);
+            if (range[0] < range[1]) {
+                keys.add(range[0]);
+                model.add(range[0]);
+            }
+            Collections.sort(model);
+            assertKeys(model, keys);
+        }
+    }
+
+    /**
+     * A long random sequence of adds, removes and range removals, some of them after loading the keys at once,
+     * agrees with a sorted list.
+     */
+    @Test
+    void randomOperationsAgreeWithSortedList() {
+        Random random = new Random(41);
+        OrderedKeys keys = new OrderedKeys((key1, key2) -> Integer.compare(key2, key1));
+        List<Integer> model = new ArrayList<>();
+        for (int step = 0; step < 100_000; step++) {
+            int operation = random.nextInt(1000);
+            if (operation < 600) {
+                int key = random.nextInt(20_000);
+                int index = Collections.binarySearch(model, key, Collections.reverseOrder());
+                if (index < 0) {
+                    keys.add(key);
+                    model.add(-(index + 1), key);
+                }
+            } else if (operation < 990) {
+                if (model.isEmpty()) continue;
+                int key = model.get(random.nextInt(model.size()));
+                keys.remove(key);
+                model.remove(Integer.valueOf(key));
+            } else if (operation < 998) {
+                int from = random.nextInt(model.size() + 1);
+                int to = from + random.nextInt(model.size() - from + 1);
+                keys.removeRange(from, to);
+                model.subList(from, to).clear();
+            } else {
+                int[] source = model.stream().mapToInt(Integer::intValue).toArray();
+                Collections.shuffle(model, random);
+                int[] shuffled = model.stream().mapToInt(Integer::intValue).toArray();
+                keys.setAll(shuffled, shuffled.length, (i, j) -> Integer.compare(shuffled[j], shuffled[i]));
+                model.clear();
+                for (int key : source) {
+                    model.add(key);
+                }
+            }
+            if (step % 1000 == 0) assertKeys(model, keys);
+        }
+        assertKeys(model, keys);
+    }
+
+    /**
+     * Counting the keys before a boundary finds the boundary in any block.
+     */
+    @Test
+    void countWhileFindsBoundary() {
+        OrderedKeys keys = new OrderedKeys(Integer::compare);
+        for (int key = 0; key < 5000; key += 2) {
+            keys.add(key);
+        }
+        for (int boundary = -1; boundary <= 5001; boundary += 7) {
+            int limit = boundary;
+            assertEquals((Math.max(0, Math.min(boundary, 5000)) + 1) / 2, keys.countWhile(key -> key < limit), "boundary " + boundary);
+        }
+    }
+
+    /**
+     * Checks that an ordering holds exactly the keys of a list, in its order.
+     *
+     * @param model The expected keys in order.
+     * @param keys The ordering.
+     */
+    private static void assertKeys(List<Integer> model, OrderedKeys keys) {
+        assertEquals(model.size(), keys.size());
+        assertArrayEquals(model.stream().mapToInt(Integer::intValue).toArray(), keys.copy(0, keys.size()));
+        if (model.size() > 2) {
+            int from = model.size() / 3;
+            int to = model.size() - 1;
+            assertArrayEquals(model.subList(from, to).stream().mapToInt(Integer::intValue).toArray(), keys.copy(from, to));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package org.example.server.utility;
+
+import org.example.common.collectionEntities.Car;
+import org.example.common.collectionEntities.Coordinates;
+import org.example.common.collectionEntities.HumanBeing;
+import org.example.common.collectionEntities.WeaponType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the same sequences of changes against every {@link CollectionStorage} and checks each of them
+ * against a LinkedHashMap of the expected elements: the elements, the field accessors, the insertion order of the cursor
+ * and of the positions, and copies taken along the way.
+ * The sequences remove and replace enough elements, some of them large, to make {@link OffHeapStorage} compact its slabs
+ * both for the holes of removed elements and for the garbage of replaced records.
+ *
+ * @author Aerosolus
+ * @version 1.0
+ * @since 1.0
+ */
+class StorageEquivalenceTest {
+
+    /**
+     * Length of the soundtrack names of large elements, so that a few hundred replacements leave more garbage than a slab.
+     */
+    private static final int LARGE_STRING_LENGTH = 64 * 1024;
+
+    /**
+     * Random puts, replacements and removals over a small key range agree with the expected elements,
+     * with the storages checked every few hundred changes.
+     */
+    @Test
+    void randomChangesAgreeWithModel() {
+        for (Supplier<CollectionStorage> factory : factories()) {
+            Random random = new Random(23);
+            CollectionStorage storage = factory.get();
+            Map<Integer, HumanBeing> model = new LinkedHashMap<>();
+            for (int step = 0; step < 20_000; step++) {
+                int key = random.nextInt(2000) - 1000;
+                if (random.nextInt(5) < 2) {
+                    assertEquals(model.remove(key) != null, storage.remove(key));
+                } else {
+                    HumanBeing humanBeing = randomHumanBeing(random, false);
+                    storage.put(key, humanBeing);
+                    model.put(key, humanBeing);
+                }
+                if (step % 500 == 0) assertAgrees(model, storage);
+            }
+            assertAgrees(model, storage);
+        }
+    }
+
+    /**
+     * Removing most elements squeezes out the holes without changing the order of the others,
+     * and the storage keeps working after being cleared.
+     */
+    @Test
+    void massRemovalKeepsOrder() {
+        for (Supplier<CollectionStorage> factory : factories()) {
+            Random random = new Random(29);
+            CollectionStorage storage = factory.get();
+            Map<Integer, HumanBeing> model = new LinkedHashMap<>();
+            for (int key = 0; key < 10_000; key++) {
+                HumanBeing humanBeing = randomHumanBeing(random, false);
+                storage.put(key, humanBeing);
+                model.put(key, humanBeing);
+            }
+            for (int key = 0; key < 10_000; key++) {
+                if (key % 10 != 3) {
+                    storage.remove(key);
+                    model.remove(key);
+                }
+            }
+            assertAgrees(model, storage);
+            assertEquals(0, storage.getPosition(3));
+            storage.clear();
+            model.clear();
+            assertTrue(storage.isEmpty());
+            assertFalse(storage.remove(3));
+            HumanBeing humanBeing = randomHumanBeing(random, false);
+            storage.put(7, humanBeing);
+            model.put(7, humanBeing);
+            assertAgrees(model, storage);
+        }
+    }
+
+    /**
+     * Replacing large elements many times leaves far more garbage than live records, first without any holes
+     * and then mixed with removals, and the elements stay intact while it is reclaimed.
+     */
+    @Test
+    void largeReplacementsAgreeWithModel() {
+        for (Supplier<CollectionStorage> factory : factories()) {
+            Random random = new Random(31);
+            CollectionStorage storage = factory.get();
+            Map<Integer, HumanBeing> model = new LinkedHashMap<>();
+            for (int step = 0; step < 600; step++) {
+                int key = random.nextInt(10);
+                // Removals squeeze out the garbage along with the holes, so the first half of the changes only replaces
+                if (step >= 300 && random.nextInt(4) == 0) {
+                    storage.remove(key);
+                    model.remove(key);
+                } else {
+                    HumanBeing humanBeing = randomHumanBeing(random, true);
+                    storage.put(key, humanBeing);
+                    model.put(key, humanBeing);
+                }
+                if (step % 50 == 0) assertAgrees(model, storage);
+            }
+            assertAgrees(model, storage);
+        }
+    }
+
+    /**
+     * A copy holds the elements of the storage at the time it was taken, whatever happens to either of them afterwards.
+     */
+    @Test
+    void copyIsIndependent() {
+        for (Supplier<CollectionStorage> factory : factories()) {
+            Random random = new Random(37);
+            CollectionStorage storage = factory.get();
+            Map<Integer, HumanBeing> model = new LinkedHashMap<>();
+            for (int key = 0; key < 3000; key++) {
+                HumanBeing humanBeing = randomHumanBeing(random, key % 100 == 0);
+                storage.put(key, humanBeing);
+                model.put(key, humanBeing);
+            }
+            for (int key = 0; key < 3000; key += 3) {
+                storage.remove(key);
+                model.remove(key);
+            }
+            CollectionStorage copy = storage.copy();
+            Map<Integer, HumanBeing> copyModel = new LinkedHashMap<>(model);
+            for (int key = 0; key < 3000; key += 2) {
+                storage.remove(key);
+                model.remove(key);
+            }
+            HumanBeing humanBeing = randomHumanBeing(random, false);
+            storage.put(1, humanBeing);
+            model.put(1, humanBeing);
+            copy.put(5000, humanBeing);
+            copyModel.put(5000, humanBeing);
+            assertAgrees(model, storage);
+            assertAgrees(copyModel, copy);
+        }
+    }
+
+    /**
+     * Returns the factories of all storages under test.
+     *
+     * @return List of factories creating empty storages.
+     */
+    private static List<Supplier<CollectionStorage>> factories() {
+        List<Supplier<CollectionStorage>> factories = new ArrayList<>();
+        factories.add(IntHashStorage::new);
+        factories.add(ColumnarStorage::new);
+        factories.add(OffHeapStorage::new);
+        return factories;
+    }
+
+    /**
+     * Checks that a storage holds the expected elements in the expected order, through every way of reading it.
+     *
+     * @param model The expected elements by key, in insertion order.
+     * @param storage The storage to check.
+     */
+    private static void assertAgrees(Map<Integer, HumanBeing> model, CollectionStorage storage) {
+        String name = storage.getClass().getSimpleName();
+        assertEquals(model.size(), storage.size(), name);
+        assertEquals(model.isEmpty(), storage.isEmpty(), name);
+        CollectionStorage.Cursor cursor = storage.cursor();
+        int previousPosition = -1;
+        for (Map.Entry<Integer, HumanBeing> entry : model.entrySet()) {
+            int key = entry.getKey();
+            HumanBeing expected = entry.getValue();
+            assertTrue(cursor.next(), name + ": cursor ended early");
+            assertEquals(key, cursor.key(), name);
+            assertEquals(expected.toString(), cursor.value().toString(), name);
+            assertTrue(storage.containsKey(key), name);
+            assertEquals(expected.toString(), storage.get(key).toString(), name);
+            assertEquals(expected.getId().intValue(), storage.getId(key), name);
+            assertEquals(expected.getName(), storage.getName(key), name);
+            assertEquals(expected.getName().toLowerCase(), storage.getFoldedName(key), name);
+            assertEquals(expected.getCar() == null ? null : expected.getCar().getName(), storage.getCarName(key), name);
+            int position = storage.getPosition(key);
+            assertTrue(position > previousPosition, name + ": positions out of insertion order");
+            previousPosition = position;
+        }
+        assertFalse(cursor.next(), name + ": cursor did not end");
+        assertFalse(storage.containsKey(Integer.MIN_VALUE), name);
+        assertNull(storage.get(Integer.MIN_VALUE));
+    }
+
+    /**
+     * Creates an element with random fields, each optional field left null now and then.
+     *
+     * @param random The source of randomness.
+     * @param large Flag indicating whether the element should have a long soundtrack name.
+     * @return The element.
+     */
+    private static HumanBeing randomHumanBeing(Random random, boolean large) {
+        Coordinates coordinates = random.nextInt(5) == 0 ? null
+                : new Coordinates.CoordinatesBuilder(random.nextDouble() * 100 - 50, random.nextLong()).build();
+        String soundtrackName = random.nextInt(5) == 0 ? null
+                : large ? "й".repeat(LARGE_STRING_LENGTH / 2) + random.nextInt() : "Песня " + random.nextInt(50);
+        Double minutesOfWaiting = random.nextInt(5) == 0 ? null : random.nextDouble();
+        HumanBeing.HumanBeingBuilder builder = new HumanBeing.HumanBeingBuilder(random.nextInt(), "Имя " + random.nextInt(100),
+                coordinates, random.nextBoolean(), soundtrackName, random.nextLong(), minutesOfWaiting)
+                .setRealHero(random.nextBoolean());
+        if (random.nextInt(5) != 0) builder.setWeaponType(WeaponType.values()[random.nextInt(WeaponType.values().length)]);
+        if (random.nextInt(5) != 0) builder.setCar(new Car.CarBuilder("Машина " + random.nextInt(30)).setCool(random.nextBoolean()).build());
+        HumanBeing humanBeing = builder.build();
+        if (random.nextInt(5) != 0) humanBeing.setCreationDate(LocalDateTime.of(2000, 1, 1, 0, 0).plusSeconds(random.nextInt()));
+        return humanBeing;
+    }
+}